@@ -1,9 +1,17 @@
 package com.example.authorizationserver.config;
 
+import java.nio.file.Path;
+
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.example.common.kafka.KafkaSendSpool;
+import com.example.common.kafka.ReliableKafkaSender;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class KafakaConfig {
@@ -15,4 +23,12 @@ public class KafakaConfig {
         .replicas(1)
         .build();
   }
+
+  @Bean(initMethod = "start", destroyMethod = "close")
+  ReliableKafkaSender reliableKafkaSender(KafkaTemplate<String, Object> kafkaTemplate, KafkaSenderConfig config,
+      MeterRegistry meterRegistry) {
+    KafkaSendSpool spool = new KafkaSendSpool(Path.of(config.getSpoolDirectory()), config.getSpoolMaxSize().toBytes());
+    return new ReliableKafkaSender(kafkaTemplate, spool, config.getRetryInterval(), config.getResendTimeout(),
+        meterRegistry);
+  }
 }
@@ -0,0 +1,26 @@
+package com.example.authorizationserver.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Отправка событий с подтверждением и локальным спулом, см. ReliableKafkaSender
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka-sender")
+@Getter
+@Setter
+public class KafkaSenderConfig {
+  private String spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "authorizationserver-kafka-spool").toString();
+  private DataSize spoolMaxSize = DataSize.ofMegabytes(64);
+  private Duration retryInterval = Duration.ofSeconds(30);
+  // Ожидание подтверждения одной записи при повторе из спула
+  private Duration resendTimeout = Duration.ofSeconds(10);
+}
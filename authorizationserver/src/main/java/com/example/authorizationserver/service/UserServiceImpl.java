@@ -2,7 +2,6 @@ package com.example.authorizationserver.service;
 
 import java.time.LocalDateTime;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +11,7 @@ import com.example.authorizationserver.exception.UserAlreadyExistsException;
 import com.example.authorizationserver.repository.RoleRepository;
 import com.example.authorizationserver.repository.UserRepository;
 import com.example.common.auth.event.UserCreatedEvent;
+import com.example.common.kafka.ReliableKafkaSender;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -26,7 +26,7 @@ public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
   private final RoleRepository roleRepository;
   private final PasswordEncoder passwordEncoder;
-  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final ReliableKafkaSender kafkaSender;
 
   @Override
   @Transactional
@@ -63,7 +63,7 @@ public class UserServiceImpl implements UserService {
         user.getFirstName(),
         user.getLastName(),
         LocalDateTime.now());
-    kafkaTemplate.send("user-registration-topic", event);
+    kafkaSender.send("user-registration-topic", event);
     log.info("User registration event sent to Kafka: username={}", user.getUsername());
   }
 }
@@ -19,7 +19,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.authorizationserver.dto.RegisterRequest;
@@ -28,6 +27,7 @@ import com.example.authorizationserver.entity.User;
 import com.example.authorizationserver.exception.UserAlreadyExistsException;
 import com.example.authorizationserver.repository.RoleRepository;
 import com.example.authorizationserver.repository.UserRepository;
+import com.example.common.kafka.ReliableKafkaSender;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -55,7 +55,7 @@ class UserServiceImplTest {
   private PasswordEncoder passwordEncoder;
 
   @Mock
-  private KafkaTemplate<String, Object> kafkaTemplate;
+  private ReliableKafkaSender kafkaSender;
 
   @InjectMocks
   private UserServiceImpl userService;
@@ -93,7 +93,7 @@ class UserServiceImplTest {
     when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
     when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
     when(userRepository.save(any(User.class))).thenReturn(savedUser);
-    when(kafkaTemplate.send(eq("user-registration-topic"), any())).thenReturn(null);
+    when(kafkaSender.send(eq("user-registration-topic"), any())).thenReturn(null);
 
     // Act
     userService.register(registerRequest);
@@ -104,7 +104,7 @@ class UserServiceImplTest {
     verify(passwordEncoder).encode("password123");
     verify(roleRepository).findByName("ROLE_USER");
     verify(userRepository).save(any(User.class));
-    verify(kafkaTemplate).send(eq("user-registration-topic"), any());
+    verify(kafkaSender).send(eq("user-registration-topic"), any());
   }
 
   @Test
@@ -141,7 +141,7 @@ class UserServiceImplTest {
     verify(userRepository).existsByUsername("testuser");
     verify(userRepository, never()).existsByEmail(anyString());
     verify(userRepository, never()).save(any(User.class));
-    verify(kafkaTemplate, never()).send(anyString(), any());
+    verify(kafkaSender, never()).send(anyString(), any());
   }
 
   @Test
@@ -159,7 +159,7 @@ class UserServiceImplTest {
     verify(userRepository).existsByUsername("testuser");
     verify(userRepository).existsByEmail("test@example.com");
     verify(userRepository, never()).save(any(User.class));
-    verify(kafkaTemplate, never()).send(anyString(), any());
+    verify(kafkaSender, never()).send(anyString(), any());
   }
 
   // ==================== ТЕСТЫ ОБРАБОТКИ РОЛЕЙ ====================
@@ -179,7 +179,7 @@ class UserServiceImplTest {
     assertEquals("Роль ROLE_USER не найдена", exception.getMessage());
     verify(roleRepository).findByName("ROLE_USER");
     verify(userRepository, never()).save(any(User.class));
-    verify(kafkaTemplate, never()).send(anyString(), any());
+    verify(kafkaSender, never()).send(anyString(), any());
   }
 
   // ==================== ТЕСТЫ ШИФРОВАНИЯ ПАРОЛЯ ====================
@@ -212,13 +212,13 @@ class UserServiceImplTest {
     when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
     when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
     when(userRepository.save(any(User.class))).thenReturn(savedUser);
-    when(kafkaTemplate.send(anyString(), any())).thenReturn(null);
+    when(kafkaSender.send(anyString(), any())).thenReturn(null);
 
     // Act
     userService.register(registerRequest);
 
     // Assert
-    verify(kafkaTemplate).send(eq("user-registration-topic"), any());
+    verify(kafkaSender).send(eq("user-registration-topic"), any());
   }
 
   // ==================== ТЕСТЫ РАЗЛИЧНЫХ ДАННЫХ ====================
@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -17,6 +18,9 @@ import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMap
 import org.springframework.security.oauth2.client.oidc.web.logout.OidcClientInitiatedLogoutSuccessHandler;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -24,6 +28,15 @@ import org.springframework.security.web.authentication.logout.LogoutSuccessHandl
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.example.bankcards.service.CachingJwtAuthenticationManager;
+import com.example.bankcards.service.JwkSetPrefetcher;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @EnableMethodSecurity(prePostEnabled = true)
 @EnableWebSecurity
 @Configuration
@@ -33,19 +46,24 @@ public class AppSecurityConfig {
   private ClientRegistrationRepository clientRegistrationRepository;
   @Autowired
   private CorsProperties corsProperties;
+  @Autowired
+  private JwtCacheConfig jwtCacheConfig;
 
   @Bean
   @Order(1)
-  public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+      MeterRegistry meterRegistry) throws Exception {
     http
-        .securityMatcher("/api/**")
+        .securityMatcher("/api/**", "/actuator/jfr/**")
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
+            .requestMatchers("/actuator/jfr/**").hasRole("ADMIN")
             .anyRequest().authenticated())
         .oauth2ResourceServer(oauth2 -> oauth2
             .jwt(jwt -> jwt
-                .jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                .authenticationManager(new CachingJwtAuthenticationManager(jwtDecoder, jwtAuthenticationConverter(),
+                    jwtCacheConfig, meterRegistry))));
     return http.build();
   }
 
@@ -84,6 +102,26 @@ public class AppSecurityConfig {
     return successHandler;
   }
 
+  /**
+   * Вместо декодера Spring Boot по issuer-uri: ключи берутся из JwkSetPrefetcher, поэтому ни старт,
+   * ни запросы не ходят на сервер авторизации синхронно. issuer по-прежнему проверяется в claims
+   */
+  @Bean
+  JwtDecoder jwtDecoder(JwkSetPrefetcher jwkSetPrefetcher,
+      @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri) {
+    var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetPrefetcher));
+    // Как в декодере Spring Security по умолчанию: typ не проверяется, claims проверяет setJwtValidator
+    jwtProcessor.setJWSTypeVerifier((type, context) -> {
+    });
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+    });
+
+    var decoder = new NimbusJwtDecoder(jwtProcessor);
+    decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+    return decoder;
+  }
+
   @Bean
   JwtAuthenticationConverter jwtAuthenticationConverter() {
     var rolesConverter = new JwtGrantedAuthoritiesConverter();
@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Long-poll баланса карты
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.balance-poll")
+@Getter
+@Setter
+public class BalancePollConfig {
+  // Верхняя граница ожидания, запрошенный клиентом timeout обрезается до нее
+  private Duration maxWait = Duration.ofSeconds(30);
+  // Одновременно ожидающих запросов на узле, сверх лимита - 503
+  private int maxWaiters = 10_000;
+}
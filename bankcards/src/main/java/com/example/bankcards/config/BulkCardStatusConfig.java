@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Массовая смена статуса карт администратором, см. BulkCardStatusService
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.bulk-status")
+@Getter
+@Setter
+public class BulkCardStatusConfig {
+  // Карт в одном UPDATE: короткие блокировки строк, не мешающие переводам
+  private int chunkSize = 1000;
+  // Предел списка id в одном запросе, больше - через фильтр
+  private int maxCardIds = 100_000;
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.config;
+
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Рассылка CardChangedEvent между узлами через card-change-topic
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.card-change-broadcast")
+@Getter
+@Setter
+public class CardChangeBroadcastConfig {
+  private boolean enabled = true;
+  // Уникален для узла: отсекает собственные сообщения и входит в group id широковещательного консьюмера
+  private String nodeId;
+
+  @PostConstruct
+  void resolveNodeId() {
+    if (nodeId == null || nodeId.isBlank()) {
+      nodeId = UUID.randomUUID().toString();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * SSE-поток изменений карт держателя
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.card-events")
+@Getter
+@Setter
+public class CardEventStreamConfig {
+  private boolean enabled = true;
+  // Соединений на узел, сверх лимита - 503. Фактический лимит не больше serverMaxConnections - reservedConnections
+  private int maxConnections = 200_000;
+  // Лимит соединений Tomcat (server.tomcat.max-connections): SSE-соединения занимают его слоты
+  private int serverMaxConnections = 8192;
+  // Слоты Tomcat, которые SSE не занимает: остаются для остального API
+  private int reservedConnections = 2000;
+  // Соединений на пользователя, новое соединение сверх лимита закрывает самое старое
+  private int maxConnectionsPerUser = 5;
+  // Неотправленных событий на соединение; при переполнении буфер заменяется событием resync
+  private int bufferSize = 32;
+  private Duration heartbeatInterval = Duration.ofSeconds(30);
+  // Клиент переподключается после таймаута, это же ограничивает жизнь полуоткрытых соединений
+  private Duration connectionTimeout = Duration.ofMinutes(30);
+
+  /**
+   * Лимит SSE-соединений узла с учетом слотов Tomcat, оставленных для API
+   */
+  public int effectiveMaxConnections() {
+    return Math.max(0, Math.min(maxConnections, serverMaxConnections - reservedConnections));
+  }
+}
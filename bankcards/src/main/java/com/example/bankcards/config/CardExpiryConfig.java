@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Перевод карт с истекшим сроком действия в статус EXPIRED
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.expiry")
+@Getter
+@Setter
+public class CardExpiryConfig {
+  // Карт в одном UPDATE
+  private int chunkSize = 1000;
+  private Duration leaseTtl = Duration.ofMinutes(5);
+  private String cron = "0 5 0 * * *";
+}
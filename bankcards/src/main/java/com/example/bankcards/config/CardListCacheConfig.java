@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Кэш списков карт держателя в памяти узла
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.card-list-cache")
+@Getter
+@Setter
+public class CardListCacheConfig {
+  private boolean enabled = true;
+  private long maxUsers = 10_000;
+  // Разных запросов (поиск, страница, сортировка) на одного пользователя
+  private int maxPagesPerUser = 16;
+  // Страховка от пропущенных событий, например изменений на другом узле
+  private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Проекция card_listing для списков карт
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.listing")
+@Getter
+@Setter
+public class CardListingConfig {
+  private boolean enabled = true;
+  // Допустимое отставание проекции; при большем списки читаются из cards
+  private Duration maxStaleness = Duration.ofSeconds(2);
+  private Duration flushInterval = Duration.ofMillis(200);
+  // Карт в одном upsert при применении изменений и при полной перестройке
+  private int batchSize = 500;
+  private String reconcileCron = "0 0 * * * *";
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Плановый перевыпуск карт перед окончанием срока действия
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.reissue")
+@Getter
+@Setter
+public class CardReissueConfig {
+  // За сколько дней до expiry_date перевыпускать карту
+  private int daysBeforeExpiry = 30;
+  // Карт в одной транзакции
+  private int chunkSize = 200;
+  // Ограничение скорости, чтобы перевыпуск не мешал живым переводам
+  private int maxCardsPerSecond = 500;
+  private Duration leaseTtl = Duration.ofMinutes(5);
+  private String cron = "0 15 3 * * *";
+}
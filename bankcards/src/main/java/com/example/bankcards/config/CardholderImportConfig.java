@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Массовый импорт держателей из CSV через COPY, см. CardholderImportService
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.cardholder-import")
+@Getter
+@Setter
+public class CardholderImportConfig {
+  // Строк в одной транзакции: один COPY и один INSERT ... SELECT на чанк
+  private int chunkSize = 5000;
+  // Номера строк с ошибками, попадающие в лог; остальные только считаются
+  private int maxLoggedRejects = 20;
+}
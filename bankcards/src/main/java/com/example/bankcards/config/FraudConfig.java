@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Пороги скоринга частоты переводов. Превышение любого порога в окне - запрос блокировки карты
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.fraud")
+@Getter
+@Setter
+public class FraudConfig {
+  private boolean enabled = true;
+  private Duration window = Duration.ofMinutes(1);
+  // Допустимое опоздание события относительно конца окна
+  private Duration grace = Duration.ofSeconds(10);
+  private int cardMaxCount = 5;
+  private BigDecimal cardMaxAmount = new BigDecimal("200000.00");
+  private int cardholderMaxCount = 10;
+  private BigDecimal cardholderMaxAmount = new BigDecimal("500000.00");
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+
+import com.example.bankcards.fraud.FraudVelocityTopology;
+import com.example.common.auth.event.RequestBlockCardEvent;
+
+/**
+ * Kafka Streams для скоринга переводов. Отключается bank.fraud.enabled=false
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(prefix = "bank.fraud", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FraudStreamsConfig {
+
+  @Bean
+  KStream<String, RequestBlockCardEvent> fraudVelocityStream(StreamsBuilder streamsBuilder, FraudConfig fraudConfig) {
+    return FraudVelocityTopology.build(streamsBuilder, fraudConfig);
+  }
+}
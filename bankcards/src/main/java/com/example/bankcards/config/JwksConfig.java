@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Ключи проверки подписи JWT, см. JwkSetPrefetcher
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.jwks")
+@Getter
+@Setter
+public class JwksConfig {
+  // Прямой адрес JWK set: без discovery по issuer-uri при старте
+  private String jwkSetUri = "http://auth-server:9000/oauth2/jwks";
+  // Фоновое обновление набора ключей; между обновлениями и при ошибках используется последний загруженный набор
+  private Duration refreshInterval = Duration.ofMinutes(5);
+  // Как часто фоновый поток проверяет, пора ли обновлять; это же интервал повтора после ошибки
+  private Duration retryInterval = Duration.ofSeconds(15);
+  // Неизвестный kid запускает внеочередное обновление не чаще раза в minKeyMissInterval
+  private Duration minKeyMissInterval = Duration.ofSeconds(30);
+  // Сколько запрос с неизвестным kid ждет уже идущее обновление, дальше - 401
+  private Duration keyMissWait = Duration.ofSeconds(2);
+  private Duration connectTimeout = Duration.ofSeconds(2);
+  private Duration readTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Кэш проверенных JWT ресурсного сервера, см. CachingJwtAuthenticationManager
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.jwt-cache")
+@Getter
+@Setter
+public class JwtCacheConfig {
+  private boolean enabled = true;
+  private long maxTokens = 10_000;
+  // Запись живет до exp токена, но не дольше maxTtl: ограничивает жизнь токена, подписанного отозванным ключом
+  private Duration maxTtl = Duration.ofMinutes(5);
+}
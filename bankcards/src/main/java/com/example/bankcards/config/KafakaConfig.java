@@ -1,18 +1,100 @@
 package com.example.bankcards.config;
 
+import java.nio.file.Path;
+import java.util.List;
+
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+
+import com.example.common.kafka.KafkaSendSpool;
+import com.example.common.kafka.ReliableKafkaSender;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
 
 @Configuration
 public class KafakaConfig {
 
+  public static final String USER_REGISTRATION_TOPIC = "user-registration-topic";
+  public static final String TRANSFER_EVENTS_TOPIC = "transfer-events-topic";
+  public static final String BLOCK_CARD_TOPIC = "block-card-topic";
+  public static final String CARD_CHANGE_TOPIC = "card-change-topic";
+  public static final String RETRY_TOPIC_SUFFIX = "-retry";
+  public static final String DLT_SUFFIX = "-dlt";
+  // Топики со слушателями, которые повторяют обработку и откладывают ядовитые записи в DLT
+  public static final List<String> RETRYABLE_TOPICS = List.of(USER_REGISTRATION_TOPIC, BLOCK_CARD_TOPIC);
+
   @Bean
   NewTopic userRegistrationTopic() {
-    return TopicBuilder.name("user-registration-topic")
+    return TopicBuilder.name(USER_REGISTRATION_TOPIC)
+        .partitions(1)
+        .replicas(1)
+        .build();
+  }
+
+  @Bean
+  NewTopic transferEventsTopic() {
+    return TopicBuilder.name(TRANSFER_EVENTS_TOPIC)
         .partitions(1)
         .replicas(1)
         .build();
   }
+
+  @Bean
+  NewTopic blockCardTopic() {
+    return TopicBuilder.name(BLOCK_CARD_TOPIC)
+        .partitions(1)
+        .replicas(1)
+        .build();
+  }
+
+  // Только инвалидации для работающих узлов: новый узел читает с конца, история не нужна
+  @Bean
+  NewTopic cardChangeTopic() {
+    return TopicBuilder.name(CARD_CHANGE_TOPIC)
+        .partitions(1)
+        .replicas(1)
+        .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+        .build();
+  }
+
+  /**
+   * Повторы без блокировки партиции: упавшая запись уходит в topic-retry-N и обрабатывается
+   * после задержки, основной топик продолжает читаться. После последней попытки запись попадает
+   * в topic-dlt, откуда ее возвращает POST /api/admin/kafka/dlt/{topic}/replay. Ошибки валидации
+   * и десериализации не повторяются, такие записи сразу идут в DLT
+   */
+  @Bean
+  RetryTopicConfiguration listenerRetryTopics(KafkaTemplate<String, Object> kafkaTemplate,
+      KafkaRetryConfig retryConfig) {
+    return RetryTopicConfigurationBuilder.newInstance()
+        .includeTopics(RETRYABLE_TOPICS)
+        .maxAttempts(retryConfig.getAttempts())
+        .exponentialBackoff(retryConfig.getInitialDelay().toMillis(), retryConfig.getMultiplier(),
+            retryConfig.getMaxDelay().toMillis())
+        .retryTopicSuffix(RETRY_TOPIC_SUFFIX)
+        .dltSuffix(DLT_SUFFIX)
+        .setTopicSuffixingStrategy(TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+        .autoCreateTopicsWith(1, (short) 1)
+        .notRetryOn(List.<Class<? extends Throwable>>of(ValidationException.class))
+        .traversingCauses()
+        .dltHandlerMethod("deadLetterHandler", "handle")
+        .doNotRetryOnDltFailure()
+        .create(kafkaTemplate);
+  }
+
+  @Bean(initMethod = "start", destroyMethod = "close")
+  ReliableKafkaSender reliableKafkaSender(KafkaTemplate<String, Object> kafkaTemplate, KafkaSenderConfig config,
+      MeterRegistry meterRegistry) {
+    KafkaSendSpool spool = new KafkaSendSpool(Path.of(config.getSpoolDirectory()), config.getSpoolMaxSize().toBytes());
+    return new ReliableKafkaSender(kafkaTemplate, spool, config.getRetryInterval(), config.getResendTimeout(),
+        meterRegistry);
+  }
 }
@@ -0,0 +1,27 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Неблокирующие повторы слушателей через retry-топики и dead-letter топик, см. KafakaConfig
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.kafka-retry")
+@Getter
+@Setter
+public class KafkaRetryConfig {
+  // Всего попыток, включая первую в основном топике: attempts - 1 retry-топиков
+  private int attempts = 4;
+  private Duration initialDelay = Duration.ofSeconds(1);
+  private double multiplier = 4.0;
+  private Duration maxDelay = Duration.ofMinutes(1);
+  // Верхняя граница записей за один вызов replay
+  private int replayMaxRecords = 1000;
+  private Duration replaySendTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Дедупликация событий Kafka по eventId, см. ProcessedEventStore
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.processed-events")
+@Getter
+@Setter
+public class ProcessedEventsConfig {
+  // Недавно обработанные id в памяти: повторная доставка отсекается без запроса к БД
+  private long cacheSize = 100_000;
+  // Сколько хранить id в processed_events: дольше, чем повтор может прийти из retry-топиков, спула и DLT
+  private Duration retention = Duration.ofDays(7);
+  private String cleanupCron = "0 20 0 * * *";
+}
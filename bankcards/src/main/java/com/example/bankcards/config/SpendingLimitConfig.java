@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Лимиты списаний по карте по умолчанию, если для карты не заданы свои
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.limits")
+@Getter
+@Setter
+public class SpendingLimitConfig {
+  private BigDecimal dailyDefault = new BigDecimal("100000.00");
+  private BigDecimal monthlyDefault = new BigDecimal("1000000.00");
+  // Очистка устаревших счетчиков в памяти и в card_spending
+  private String cleanupCron = "0 10 0 * * *";
+  // Как часто накопленные списания пишутся в card_spending одним пакетом
+  private Duration flushInterval = Duration.ofSeconds(1);
+  // Как часто счетчик карты перечитывается из card_spending, чтобы учесть списания других узлов
+  private Duration resyncInterval = Duration.ofSeconds(30);
+}
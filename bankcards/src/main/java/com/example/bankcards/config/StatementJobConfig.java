@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Пакетное формирование месячных выписок по картам
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.statements")
+@Getter
+@Setter
+public class StatementJobConfig {
+  // Карт в одном чанке (один INSERT ... SELECT)
+  private int chunkSize = 5000;
+  // Чанков, обрабатываемых параллельно; должно быть заметно меньше пула соединений
+  private int parallelism = 4;
+  // Пауза между волнами чанков, ограничивает нагрузку на БД
+  private Duration pauseBetweenWaves = Duration.ofMillis(200);
+  // Аренда задачи продлевается после каждой волны
+  private Duration leaseTtl = Duration.ofMinutes(10);
+  private String cron = "0 30 1 1 * *";
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Обслуживание месячных секций таблицы transactions
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bank.transactions.partitions")
+@Getter
+@Setter
+public class TransactionPartitionConfig {
+  // На сколько месяцев вперед держать готовые секции
+  private int monthsAhead = 3;
+  // Секции старше стольких месяцев отсоединяются для архивации, 0 - не отсоединять
+  private int retentionMonths = 0;
+  private String maintenanceCron = "0 0 3 * * *";
+}
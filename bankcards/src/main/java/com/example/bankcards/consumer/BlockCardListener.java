@@ -1,10 +1,16 @@
 package com.example.bankcards.consumer;
 
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.jfr.KafkaListenerEvent;
+import com.example.bankcards.service.AdminCardService;
 import com.example.common.auth.event.RequestBlockCardEvent;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,9 +19,33 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class BlockCardListener {
 
-  @KafkaListener(topics = "block-card-topic", groupId = "bankcards-group")
-  public void consume(RequestBlockCardEvent event) {
-    log.info("Received request block card event from Kafka: cardId={}, ownerId={}",
-        event.cardId(), event.ownerId());
+  private final AdminCardService cardService;
+  private final MeterRegistry meterRegistry;
+
+  // Повторы и DLT настроены в KafakaConfig.listenerRetryTopics: упавшая запись не держит партицию
+  @KafkaListener(id = "blockCardListener", idIsGroup = false, topics = KafakaConfig.BLOCK_CARD_TOPIC,
+      groupId = "bankcards-group")
+  public void consume(RequestBlockCardEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    if (!KafakaConfig.BLOCK_CARD_TOPIC.equals(topic)) {
+      meterRegistry.counter("bank.kafka.retry.received", "topic", topic).increment();
+    }
+    KafkaListenerEvent jfrEvent = new KafkaListenerEvent();
+    jfrEvent.begin();
+    boolean success = false;
+    try {
+      log.info("Received request block card event from Kafka: cardId={}, ownerId={}",
+          event.cardId(), event.ownerId());
+      // Запрос от пользователя уже отмечен на карте, запрос скоринга отмечается здесь
+      cardService.markBlockRequested(event.cardId(), event.requestedAt());
+      success = true;
+    } finally {
+      jfrEvent.end();
+      if (jfrEvent.shouldCommit()) {
+        jfrEvent.listener = "blockCardListener";
+        jfrEvent.cardId = event.cardId() != null ? event.cardId() : 0L;
+        jfrEvent.success = success;
+        jfrEvent.commit();
+      }
+    }
   }
 }
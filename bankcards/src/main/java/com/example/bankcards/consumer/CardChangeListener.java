@@ -0,0 +1,31 @@
+package com.example.bankcards.consumer;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.service.CardChangeBroadcaster;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Широковещательный консьюмер card-change-topic: у каждого узла своя группа, поэтому каждое
+ * сообщение доходит до всех узлов. Новый узел читает только новые сообщения
+ */
+@Component
+@RequiredArgsConstructor
+public class CardChangeListener {
+
+  private final CardChangeBroadcaster broadcaster;
+
+  @KafkaListener(id = "cardChangeListener", idIsGroup = false, topics = KafakaConfig.CARD_CHANGE_TOPIC,
+      groupId = "bankcards-card-changes-#{@cardChangeBroadcastConfig.nodeId}",
+      autoStartup = "${bank.card-change-broadcast.enabled:true}",
+      properties = {
+          "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+          "auto.offset.reset=latest"
+      })
+  public void consume(byte[] payload) {
+    broadcaster.onRemoteMessage(payload);
+  }
+}
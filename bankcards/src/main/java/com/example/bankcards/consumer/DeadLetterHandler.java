@@ -0,0 +1,36 @@
+package com.example.bankcards.consumer;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Обработчик dead-letter топиков слушателей, см. KafakaConfig.listenerRetryTopics. Запись остается
+ * в DLT для разбора и повтора, здесь она только учитывается в bank.kafka.dlt.received
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterHandler {
+
+  private final MeterRegistry meterRegistry;
+
+  public void handle(ConsumerRecord<?, ?> record) {
+    String originalTopic = header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic());
+    meterRegistry.counter("bank.kafka.dlt.received", "topic", originalTopic).increment();
+    log.error("Record moved to {}: key={}, offset={}, error={}", record.topic(), record.key(), record.offset(),
+        header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE, "unknown"));
+  }
+
+  private static String header(ConsumerRecord<?, ?> record, String name, String defaultValue) {
+    Header header = record.headers().lastHeader(name);
+    return header != null ? new String(header.value(), StandardCharsets.UTF_8) : defaultValue;
+  }
+}
@@ -1,11 +1,16 @@
 package com.example.bankcards.consumer;
 
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.jfr.KafkaListenerEvent;
 import com.example.bankcards.service.AdminCardholderService;
 import com.example.common.auth.event.UserCreatedEvent;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,11 +20,31 @@ import lombok.extern.slf4j.Slf4j;
 public class UserRegistrationListener {
 
   private final AdminCardholderService cardholderService;
+  private final MeterRegistry meterRegistry;
 
-  @KafkaListener(topics = "user-registration-topic", groupId = "bankcards-group")
-  public void consume(UserCreatedEvent event) {
-    log.info("Received user registration event from Kafka: username={}, email={}",
-        event.username(), event.email());
-    cardholderService.registerCardholder(event);
+  // Повторы и DLT настроены в KafakaConfig.listenerRetryTopics: упавшая запись не держит партицию
+  @KafkaListener(id = "userRegistrationListener", idIsGroup = false, topics = KafakaConfig.USER_REGISTRATION_TOPIC,
+      groupId = "bankcards-group")
+  public void consume(UserCreatedEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    if (!KafakaConfig.USER_REGISTRATION_TOPIC.equals(topic)) {
+      meterRegistry.counter("bank.kafka.retry.received", "topic", topic).increment();
+    }
+    KafkaListenerEvent jfrEvent = new KafkaListenerEvent();
+    jfrEvent.begin();
+    boolean success = false;
+    try {
+      log.info("Received user registration event from Kafka: username={}, email={}",
+          event.username(), event.email());
+      cardholderService.registerCardholder(event);
+      success = true;
+    } finally {
+      jfrEvent.end();
+      if (jfrEvent.shouldCommit()) {
+        jfrEvent.listener = "userRegistrationListener";
+        jfrEvent.key = event.username();
+        jfrEvent.success = success;
+        jfrEvent.commit();
+      }
+    }
   }
 }
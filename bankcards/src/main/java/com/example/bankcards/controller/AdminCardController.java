@@ -3,6 +3,8 @@ package com.example.bankcards.controller;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,11 +17,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardLimitsRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardStatusService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class AdminCardController {
 
   private final AdminCardService cardService;
+  private final BulkCardStatusService bulkCardStatusService;
 
   @GetMapping
   public ResponseEntity<Page<CardResponse>> getCards(
@@ -39,6 +48,24 @@ public class AdminCardController {
     return ResponseEntity.ok(cardService.findCards(search, pageable));
   }
 
+  /**
+   * Потоковая выгрузка всех карт (NDJSON или CSV) одним запросом вместо постраничного обхода
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportCards(
+      @RequestParam(required = false) String search,
+      @RequestParam(defaultValue = "ndjson") String format) {
+    CardExportFormat exportFormat = CardExportFormat.from(format);
+    StreamingResponseBody body = out -> cardService.exportCards(search, exportFormat, out);
+    return ResponseEntity.ok()
+        .contentType(exportFormat.getMediaType())
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("cards." + exportFormat.getExtension())
+            .build()
+            .toString())
+        .body(body);
+  }
+
   @PostMapping
   public ResponseEntity<CardResponse> createCard(@Valid @RequestBody CreateCardRequest request) {
     return ResponseEntity.status(HttpStatus.CREATED).body(cardService.createCard(request));
@@ -50,6 +77,20 @@ public class AdminCardController {
     return ResponseEntity.noContent().build();
   }
 
+  /**
+   * Смена статуса многих карт по списку id или фильтру, например блокировка скомпрометированных карт
+   */
+  @PatchMapping("/status")
+  public ResponseEntity<BulkCardStatusResponse> updateCardsStatus(@Valid @RequestBody BulkCardStatusRequest request) {
+    return ResponseEntity.ok(bulkCardStatusService.updateStatus(request));
+  }
+
+  @PatchMapping("/{id}/limits")
+  public ResponseEntity<Void> updateCardLimits(@PathVariable Long id, @Valid @RequestBody CardLimitsRequest request) {
+    cardService.updateLimits(id, request);
+    return ResponseEntity.noContent().build();
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteCard(@PathVariable Long id) {
     cardService.deleteCard(id);
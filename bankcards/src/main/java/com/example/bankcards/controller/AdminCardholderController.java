@@ -1,5 +1,8 @@
 package com.example.bankcards.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,13 +11,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.bankcards.dto.CardholderImportResponse;
 import com.example.bankcards.dto.CardholderResponse;
 import com.example.bankcards.service.AdminCardholderService;
+import com.example.bankcards.service.CardholderImportService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,6 +31,7 @@ import lombok.RequiredArgsConstructor;
 public class AdminCardholderController {
 
   private final AdminCardholderService cardholderService;
+  private final CardholderImportService cardholderImportService;
 
   @GetMapping
   public ResponseEntity<Page<CardholderResponse>> getCardholders(
@@ -33,6 +40,14 @@ public class AdminCardholderController {
     return ResponseEntity.ok(cardholderService.findCardholders(search, pageable));
   }
 
+  /**
+   * Импорт держателей из CSV (username,email,first_name,last_name), тело читается потоком
+   */
+  @PostMapping(value = "/import", consumes = "text/csv")
+  public ResponseEntity<CardholderImportResponse> importCardholders(InputStream body) throws IOException {
+    return ResponseEntity.ok(cardholderImportService.importCsv(body));
+  }
+
   @PutMapping("/{id}/block")
   public ResponseEntity<Void> blockCardholder(@PathVariable Long id) {
     cardholderService.blockCardholder(id);
@@ -0,0 +1,32 @@
+package com.example.bankcards.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.bankcards.dto.DeadLetterReplayResponse;
+import com.example.bankcards.service.DeadLetterReplayService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/kafka")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminKafkaController {
+
+  private final DeadLetterReplayService deadLetterReplayService;
+
+  /**
+   * Возвращает записи из {topic}-dlt в {topic}, например после исправления данных или ошибки в обработчике
+   */
+  @PostMapping("/dlt/{topic}/replay")
+  public ResponseEntity<DeadLetterReplayResponse> replayDeadLetters(@PathVariable String topic,
+      @RequestParam(required = false) Integer maxRecords) {
+    return ResponseEntity.ok(deadLetterReplayService.replay(topic, maxRecords));
+  }
+}
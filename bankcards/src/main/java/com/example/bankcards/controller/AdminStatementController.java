@@ -0,0 +1,48 @@
+package com.example.bankcards.controller;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.bankcards.dto.StatementJobResponse;
+import com.example.bankcards.service.StatementJobService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/statements")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminStatementController {
+
+  private final StatementJobService statementJobService;
+
+  /**
+   * Ручной запуск формирования выписок за месяц (yyyy-MM), например после сбоя ночного запуска
+   */
+  @PostMapping("/{period}")
+  public ResponseEntity<StatementJobResponse> startStatementJob(@PathVariable String period) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(statementJobService.start(parsePeriod(period)));
+  }
+
+  @GetMapping("/{period}")
+  public ResponseEntity<StatementJobResponse> getStatementJobStatus(@PathVariable String period) {
+    return ResponseEntity.ok(statementJobService.getStatus(parsePeriod(period)));
+  }
+
+  private static YearMonth parsePeriod(String period) {
+    try {
+      return YearMonth.parse(period);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Период должен быть в формате yyyy-MM");
+    }
+  }
+}
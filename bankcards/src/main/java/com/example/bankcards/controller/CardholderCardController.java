@@ -5,6 +5,10 @@ import java.math.BigDecimal;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +16,24 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.dto.BalanceSnapshot;
+import com.example.bankcards.dto.CardListSnapshot;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.InternalTransferRequest;
+import com.example.bankcards.dto.TransactionHistoryResponse;
+import com.example.bankcards.service.BalanceChangeNotifier;
+import com.example.bankcards.service.CardEventStreamService;
 import com.example.bankcards.service.CardholderCardService;
 import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.util.ETagUtil;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,13 +46,24 @@ public class CardholderCardController {
 
   private final CardholderCardService cardService;
   private final TransactionService transactionService;
+  private final BalanceChangeNotifier balanceChangeNotifier;
+  private final BalancePollConfig balancePollConfig;
+  private final CardEventStreamService cardEventStreamService;
 
+  /**
+   * Список карт с сильным ETag: при совпадении If-None-Match отдается 304 без тела
+   */
   @GetMapping("/cards")
   public ResponseEntity<Page<CardResponse>> getCardholderCards(
-
       @RequestParam(required = false) String search,
-      @ParameterObject Pageable pageable) {
-    return ResponseEntity.ok(cardService.findCardholderCards(search, pageable));
+      @ParameterObject Pageable pageable,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    CardListSnapshot snapshot = cardService.getCardholderCardList(search, pageable);
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (ETagUtil.matches(ifNoneMatch, snapshot.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok().eTag(snapshot.etag()).cacheControl(cacheControl).body(snapshot.page());
   }
 
   @PatchMapping("/cards/{cardId}/block")
@@ -54,8 +79,49 @@ public class CardholderCardController {
     return ResponseEntity.noContent().build();
   }
 
+  @GetMapping("/cards/{cardId}/transactions")
+  public ResponseEntity<TransactionHistoryResponse> getCardTransactions(
+      @PathVariable Long cardId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(transactionService.getCardTransactions(cardId, cursor, limit));
+  }
+
   @GetMapping("/cards/{cardId}/balance")
-  public ResponseEntity<BigDecimal> getCardholderCardBalance(@PathVariable Long cardId) {
-    return ResponseEntity.ok(cardService.getCardholderCardBalance(cardId));
+  public ResponseEntity<BigDecimal> getCardholderCardBalance(
+      @PathVariable Long cardId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return balanceResponse(cardService.getCardholderCardBalanceSnapshot(cardId), ifNoneMatch);
+  }
+
+  /**
+   * Long-poll баланса: ответ приходит, когда ETag перестает совпадать с If-None-Match,
+   * либо 304 по истечении timeout секунд. Ожидание идет на виртуальном потоке
+   */
+  @GetMapping("/cards/{cardId}/balance/poll")
+  public WebAsyncTask<ResponseEntity<BigDecimal>> pollCardholderCardBalance(
+      @PathVariable Long cardId,
+      @RequestParam(required = false) Integer timeout,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    // Запас сверх maxWait, чтобы сервис успел ответить 304 раньше таймаута MVC
+    long asyncTimeout = balancePollConfig.getMaxWait().plusSeconds(5).toMillis();
+    return new WebAsyncTask<>(asyncTimeout, balanceChangeNotifier.executor(), () -> balanceResponse(
+        cardService.awaitCardholderCardBalanceChange(cardId, ifNoneMatch, timeout), ifNoneMatch));
+  }
+
+  /**
+   * SSE-поток изменений карт пользователя: события card (статус, баланс, версия), resync и heartbeat
+   */
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter subscribeToCardEvents() {
+    return cardEventStreamService.subscribe();
+  }
+
+  private static ResponseEntity<BigDecimal> balanceResponse(BalanceSnapshot snapshot, String ifNoneMatch) {
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (ETagUtil.matches(ifNoneMatch, snapshot.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok().eTag(snapshot.etag()).cacheControl(cacheControl).body(snapshot.balance());
   }
 }
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Баланс карты и ETag по версии карты
+ */
+public record BalanceSnapshot(BigDecimal balance, String etag) {
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+import com.example.bankcards.entity.CardStatus;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Массовая смена статуса: либо список id карт, либо фильтр хотя бы с одним условием
+ */
+public record BulkCardStatusRequest(
+        @NotNull(message = "Status is required") CardStatus status,
+        List<Long> cardIds,
+        @Valid Filter filter) {
+
+  /**
+   * Условия объединяются через AND, null - условие не задано
+   */
+  public record Filter(Long ownerId, CardStatus currentStatus, Boolean blockRequested) {
+
+    public boolean isEmpty() {
+      return ownerId == null && currentStatus == null && blockRequested == null;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardStatus;
+
+/**
+ * Итог массовой смены статуса. skipped - id из списка, которые не найдены или уже в этом статусе,
+ * для фильтра всегда 0: такие карты в него не попадают
+ */
+public record BulkCardStatusResponse(CardStatus status, long updated, long skipped, long durationMillis) {
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+import com.example.bankcards.entity.CardStatus;
+
+/**
+ * Событие card в SSE-потоке держателя: текущее состояние измененной карты
+ */
+public record CardChangeNotification(
+    Long cardId,
+    CardStatus status,
+    BigDecimal balance,
+    Boolean isBlockRequested,
+    Long version) {
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Формат потоковой выгрузки карт
+ */
+public enum CardExportFormat {
+  NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+  CSV(new MediaType("text", "csv"), "csv");
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  CardExportFormat(MediaType mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static CardExportFormat from(String value) {
+    for (CardExportFormat format : values()) {
+      if (format.extension.equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Неподдерживаемый формат выгрузки: " + value);
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Лимиты списаний по карте. null - действует лимит по умолчанию
+ */
+public record CardLimitsRequest(
+    @PositiveOrZero(message = "Daily limit must not be negative") @DecimalMax("1000000000") BigDecimal dailyLimit,
+    @PositiveOrZero(message = "Monthly limit must not be negative") @DecimalMax("1000000000") BigDecimal monthlyLimit) {
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * Страница карт держателя и ее сильный ETag
+ */
+public record CardListSnapshot(Page<CardResponse> page, String etag) {
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+/**
+ * Итог импорта держателей: прочитанные строки, созданные держатели с картой, пропущенные как уже
+ * существующие или повторенные в файле, отклоненные как некорректные, и скорость по прочитанным строкам
+ */
+public record CardholderImportResponse(long rows, long imported, long skipped, long rejected, long durationMillis,
+    double rowsPerSecond) {
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+/**
+ * Итог повтора dead-letter топика: сколько записей возвращено в основной топик и сколько осталось
+ */
+public record DeadLetterReplayResponse(String topic, int replayed, long remaining) {
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+public record StatementJobResponse(
+    YearMonth period,
+    String status,
+    Long lastCardId,
+    Long processedCards,
+    LocalDateTime startedAt,
+    LocalDateTime updatedAt,
+    LocalDateTime completedAt) {
+}
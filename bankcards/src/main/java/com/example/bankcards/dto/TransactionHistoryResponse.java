@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Страница истории операций. nextCursor передается в следующий запрос, null - история закончилась
+ */
+public record TransactionHistoryResponse(
+    List<TransactionResponse> items,
+    String nextCursor) {
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionResponse(
+    Long id,
+    Long fromCardId,
+    Long toCardId,
+    String direction,
+    BigDecimal amount,
+    String description,
+    String status,
+    LocalDateTime createdAt) {
+}
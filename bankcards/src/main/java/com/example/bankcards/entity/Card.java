@@ -22,6 +22,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -69,10 +70,26 @@ public class Card {
   @Column(name = "balance", precision = 15, scale = 2, nullable = false)
   private BigDecimal balance = BigDecimal.ZERO;
 
+  // Индивидуальные лимиты списаний, NULL - лимит по умолчанию из bank.limits
+  @Column(name = "daily_limit", precision = 15, scale = 2)
+  private BigDecimal dailyLimit;
+
+  @Column(name = "monthly_limit", precision = 15, scale = 2)
+  private BigDecimal monthlyLimit;
+
+  // Карта, выпущенная на замену этой при плановом перевыпуске
+  @Column(name = "replaced_by_card_id")
+  private Long replacedByCardId;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "owner_id", nullable = false, foreignKey = @ForeignKey(name = "fk_cards_owner_id"))
   private Cardholder owner;
 
+  // Растет при каждом изменении карты, в том числе массовыми UPDATE; из него строится ETag баланса
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
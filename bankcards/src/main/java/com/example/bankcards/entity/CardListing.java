@@ -0,0 +1,64 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка проекции card_listing. Пишется только CardListingProjector, имена полей совпадают
+ * с Card, чтобы сортировка из Pageable работала одинаково для обеих таблиц
+ */
+@Entity
+@Immutable
+@Table(name = "card_listing")
+@Getter
+@NoArgsConstructor
+public class CardListing {
+
+  @Id
+  private Long id;
+
+  @Column(name = "owner_id", nullable = false)
+  private Long ownerId;
+
+  @Column(name = "owner_username", length = 100, nullable = false)
+  private String ownerUsername;
+
+  @Column(name = "owner_name", length = 200, nullable = false)
+  private String ownerName;
+
+  @Column(name = "card_number_masked", length = 19, nullable = false)
+  private String cardNumberMasked;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", length = 20, nullable = false)
+  private CardStatus status;
+
+  @Column(name = "balance", precision = 15, scale = 2, nullable = false)
+  private BigDecimal balance;
+
+  @Column(name = "is_block_requested")
+  private Boolean isBlockRequested;
+
+  @Column(name = "block_requested_at")
+  private LocalDateTime blockRequestedAt;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "search_text", length = 220, nullable = false)
+  private String searchText;
+
+  @Column(name = "projected_at", nullable = false)
+  private LocalDateTime projectedAt;
+}
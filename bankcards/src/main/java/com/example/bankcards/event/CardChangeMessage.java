@@ -0,0 +1,84 @@
+package com.example.bankcards.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.common.serialization.BinaryReader;
+import com.example.common.serialization.BinaryWriter;
+
+/**
+ * Сообщение card-change-topic: CardChangedEvent узла nodeId, опубликованное в publishedAtMillis.
+ * Компактный бинарный формат версии 1:
+ * <pre>
+ * byte    версия (1)
+ * byte    флаги: 0x01 - есть cardholderId
+ * varint  длина nodeId, затем nodeId в UTF-8
+ * varlong publishedAtMillis
+ * varlong cardholderId, если есть
+ * varint  количество карт
+ * varlong id карт по возрастанию: первый целиком, дальше разница с предыдущим
+ * </pre>
+ * Чанк из тысячи соседних карт занимает около килобайта
+ */
+public record CardChangeMessage(String nodeId, long publishedAtMillis, List<Long> cardIds, Long cardholderId) {
+
+  static final byte VERSION = 1;
+  private static final byte FLAG_CARDHOLDER = 0x01;
+
+  public static CardChangeMessage of(String nodeId, long publishedAtMillis, CardChangedEvent event) {
+    return new CardChangeMessage(nodeId, publishedAtMillis, event.cardIds(), event.cardholderId());
+  }
+
+  /**
+   * Событие для локальных обработчиков, помеченное как пришедшее с другого узла
+   */
+  public CardChangedEvent toEvent() {
+    return new CardChangedEvent(cardIds, cardholderId, true);
+  }
+
+  public byte[] encode() {
+    byte[] node = nodeId.getBytes(StandardCharsets.UTF_8);
+    BinaryWriter writer = new BinaryWriter(2 + 5 + node.length + 10 + 10 + 5 + 2 * cardIds.size())
+        .writeByte(VERSION)
+        .writeByte(cardholderId != null ? FLAG_CARDHOLDER : 0)
+        .writeVarInt(node.length)
+        .writeBytes(node)
+        .writeVarLong(publishedAtMillis);
+    if (cardholderId != null) {
+      writer.writeVarLong(cardholderId);
+    }
+    long[] sorted = cardIds.stream().mapToLong(Long::longValue).sorted().toArray();
+    writer.writeVarInt(sorted.length);
+    long previous = 0;
+    for (long cardId : sorted) {
+      writer.writeVarLong(cardId - previous);
+      previous = cardId;
+    }
+    return writer.toByteArray();
+  }
+
+  /**
+   * Обрезанное или испорченное сообщение - IllegalArgumentException, как в BinaryReader
+   */
+  public static CardChangeMessage decode(byte[] payload) {
+    BinaryReader reader = new BinaryReader(payload, 0);
+    int version = reader.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Неизвестная версия сообщения card-change-topic: " + version);
+    }
+    int flags = reader.readByte();
+    String nodeId = new String(reader.readBytes(reader.readVarInt()), StandardCharsets.UTF_8);
+    long publishedAtMillis = reader.readVarLong();
+    Long cardholderId = (flags & FLAG_CARDHOLDER) != 0 ? reader.readVarLong() : null;
+    int count = reader.readVarInt();
+    // Каждая карта занимает хотя бы байт: испорченный счетчик не раздувает список
+    List<Long> cardIds = new ArrayList<>(Math.min(count, payload.length));
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += reader.readVarLong();
+      cardIds.add(previous);
+    }
+    return new CardChangeMessage(nodeId, publishedAtMillis, List.copyOf(cardIds), cardholderId);
+  }
+}
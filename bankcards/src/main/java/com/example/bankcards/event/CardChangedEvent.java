@@ -0,0 +1,27 @@
+package com.example.bankcards.event;
+
+import java.util.List;
+
+/**
+ * Внутреннее событие об изменении карт: по id карт или по всем картам держателя.
+ * Публикуется через ApplicationEventPublisher, обработчики получают его после коммита.
+ * remote - событие пришло с другого узла через card-change-topic и дальше не рассылается
+ */
+public record CardChangedEvent(List<Long> cardIds, Long cardholderId, boolean remote) {
+
+  public CardChangedEvent(List<Long> cardIds, Long cardholderId) {
+    this(cardIds, cardholderId, false);
+  }
+
+  public static CardChangedEvent cards(Long... cardIds) {
+    return new CardChangedEvent(List.of(cardIds), null);
+  }
+
+  public static CardChangedEvent cards(List<Long> cardIds) {
+    return new CardChangedEvent(List.copyOf(cardIds), null);
+  }
+
+  public static CardChangedEvent cardholder(Long cardholderId) {
+    return new CardChangedEvent(List.of(), cardholderId);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class CardExpiredException extends RuntimeException {
+  public CardExpiredException(String message) {
+    super(message);
+  }
+}
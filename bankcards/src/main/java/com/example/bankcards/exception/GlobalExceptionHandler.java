@@ -2,6 +2,8 @@ package com.example.bankcards.exception;
 
 import java.util.stream.Collectors;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -28,6 +30,16 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(CardExpiredException.class)
+  public ResponseEntity<String> handleCardExpiredException(CardExpiredException ex) {
+    return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(SpendingLimitExceededException.class)
+  public ResponseEntity<String> handleSpendingLimitExceededException(SpendingLimitExceededException ex) {
+    return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(IllegalStateException.class)
   public ResponseEntity<String> handleIllegalStateException(IllegalStateException ex) {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -43,6 +55,18 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.FORBIDDEN);
   }
 
+  // Карта изменилась параллельно, например встречным переводом: клиент может повторить запрос
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+    return new ResponseEntity<>("Карта была изменена параллельно, повторите операцию", HttpStatus.CONFLICT);
+  }
+
+  // Исчерпан лимит одновременных long-poll запросов баланса
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException ex) {
+    return new ResponseEntity<>("Слишком много ожидающих запросов, повторите позже", HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(EntityNotFoundException.class)
   public ResponseEntity<String> handleEntityNotFoundException(EntityNotFoundException ex) {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
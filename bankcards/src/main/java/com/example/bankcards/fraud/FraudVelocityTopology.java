@@ -0,0 +1,84 @@
+package com.example.bankcards.fraud;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import com.example.bankcards.config.FraudConfig;
+import com.example.bankcards.config.KafakaConfig;
+import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.auth.event.TransferCompletedEvent;
+import com.example.common.serialization.EventCodecs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Топология скоринга частоты переводов: tumbling-окна по карте списания и по держателю карты,
+ * в каждом окне считаются количество и сумма переводов. Когда окно впервые превышает порог,
+ * в block-card-topic уходит RequestBlockCardEvent по последней карте списания.
+ * Кэш хранилищ отключен, чтобы каждое обновление окна доходило до фильтра
+ */
+public final class FraudVelocityTopology {
+
+  static final String CARD_STORE = "fraud-card-velocity";
+  static final String CARDHOLDER_STORE = "fraud-cardholder-velocity";
+
+  private FraudVelocityTopology() {
+  }
+
+  public static KStream<String, RequestBlockCardEvent> build(StreamsBuilder builder, FraudConfig config) {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    Serde<TransferCompletedEvent> transferSerde = EventCodecs.serde(TransferCompletedEvent.class);
+    Serde<VelocityWindow> windowSerde =
+        new JsonSerde<VelocityWindow>(VelocityWindow.class, objectMapper).noTypeInfo().ignoreTypeHeaders();
+    Serde<RequestBlockCardEvent> blockSerde = EventCodecs.serde(RequestBlockCardEvent.class);
+
+    KStream<String, TransferCompletedEvent> transfers = builder.stream(KafakaConfig.TRANSFER_EVENTS_TOPIC,
+        Consumed.with(Serdes.String(), transferSerde));
+    TimeWindows windows = TimeWindows.ofSizeAndGrace(config.getWindow(), config.getGrace());
+
+    KStream<String, RequestBlockCardEvent> cardAlerts = velocityAlerts(transfers,
+        event -> String.valueOf(event.fromCardId()), CARD_STORE, windows,
+        config.getCardMaxCount(), config.getCardMaxAmount(), transferSerde, windowSerde);
+    KStream<String, RequestBlockCardEvent> cardholderAlerts = velocityAlerts(transfers,
+        event -> String.valueOf(event.ownerId()), CARDHOLDER_STORE, windows,
+        config.getCardholderMaxCount(), config.getCardholderMaxAmount(), transferSerde, windowSerde);
+
+    KStream<String, RequestBlockCardEvent> alerts = cardAlerts.merge(cardholderAlerts);
+    alerts.to(KafakaConfig.BLOCK_CARD_TOPIC, Produced.with(Serdes.String(), blockSerde));
+    return alerts;
+  }
+
+  private static KStream<String, RequestBlockCardEvent> velocityAlerts(KStream<String, TransferCompletedEvent> transfers,
+      Function<TransferCompletedEvent, String> keyExtractor, String storeName, TimeWindows windows,
+      long maxCount, BigDecimal maxAmount, Serde<TransferCompletedEvent> transferSerde,
+      Serde<VelocityWindow> windowSerde) {
+    return transfers
+        .groupBy((key, event) -> keyExtractor.apply(event), Grouped.with(storeName, Serdes.String(), transferSerde))
+        .windowedBy(windows)
+        .aggregate(VelocityWindow::empty,
+            (key, event, window) -> window.add(event, maxCount, maxAmount),
+            Materialized.<String, VelocityWindow, WindowStore<Bytes, byte[]>>as(storeName)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(windowSerde)
+                .withCachingDisabled())
+        .toStream()
+        .filter((windowedKey, window) -> window != null && window.alertRaised())
+        .map((windowedKey, window) -> KeyValue.pair(String.valueOf(window.lastCardId()),
+            new RequestBlockCardEvent(window.lastCardId(), window.ownerId(), LocalDateTime.now())));
+  }
+}
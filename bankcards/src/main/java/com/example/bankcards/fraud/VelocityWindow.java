@@ -0,0 +1,25 @@
+package com.example.bankcards.fraud;
+
+import java.math.BigDecimal;
+
+import com.example.common.auth.event.TransferCompletedEvent;
+
+/**
+ * Агрегат переводов в одном окне: количество, сумма и последняя карта списания.
+ * alertRaised истинно только на переводе, которым порог был превышен впервые в этом окне
+ */
+public record VelocityWindow(long count, BigDecimal amount, Long lastCardId, Long ownerId,
+    boolean alerted, boolean alertRaised) {
+
+  public static VelocityWindow empty() {
+    return new VelocityWindow(0, BigDecimal.ZERO, null, null, false, false);
+  }
+
+  public VelocityWindow add(TransferCompletedEvent event, long maxCount, BigDecimal maxAmount) {
+    long newCount = count + 1;
+    BigDecimal newAmount = amount.add(event.amount());
+    boolean exceeded = newCount > maxCount || newAmount.compareTo(maxAmount) > 0;
+    return new VelocityWindow(newCount, newAmount, event.fromCardId(), event.ownerId(),
+        alerted || exceeded, exceeded && !alerted);
+  }
+}
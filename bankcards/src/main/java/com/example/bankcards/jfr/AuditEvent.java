@@ -0,0 +1,44 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие записи аудита. Длительность - время синхронной записи в лог
+ */
+@Name("com.example.bankcards.Audit")
+@Label("Audit")
+@Category({ "BankCards", "Audit" })
+@Description("Запись аудита операций с картами")
+@StackTrace(false)
+public class AuditEvent extends Event {
+
+  @Label("Action")
+  public String action;
+
+  @Label("Card Id")
+  public long cardId;
+
+  /**
+   * Начинает событие. При выключенной записи JFR {@code begin()} и {@code shouldCommit()}
+   * ничего не делают, а объект события удаляется escape-анализом
+   */
+  public static AuditEvent start(String action, Long cardId) {
+    AuditEvent event = new AuditEvent();
+    event.begin();
+    event.action = action;
+    event.cardId = cardId != null ? cardId : 0L;
+    return event;
+  }
+
+  public void finish() {
+    end();
+    if (shouldCommit()) {
+      commit();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие шифрования или расшифровки номера карты
+ */
+@Name("com.example.bankcards.CardCrypto")
+@Label("Card Crypto")
+@Category({ "BankCards", "Crypto" })
+@Description("Шифрование и расшифровка номера карты")
+@StackTrace(false)
+public class CardCryptoEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Success")
+  public boolean success;
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.jfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Actuator-эндпоинт управления записью JDK Flight Recorder без агента:
+ * POST /actuator/jfr - старт записи, GET - состояние, DELETE - остановка и выгрузка файла .jfr.
+ * События com.example.bankcards.* включены по умолчанию и пишутся только во время записи
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+
+  private static final String DEFAULT_SETTINGS = "profile";
+  private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+  private static final int STATUS_CONFLICT = 409;
+
+  private Recording recording;
+  private Path dumpFile;
+
+  /**
+   * Запускает запись. settings - встроенная конфигурация JFR (default или profile)
+   */
+  @WriteOperation
+  public synchronized WebEndpointResponse<Map<String, Object>> start(@OptionalParameter String settings,
+      @OptionalParameter Long maxAgeSeconds) {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      return new WebEndpointResponse<>(status(), STATUS_CONFLICT);
+    }
+    closeRecording();
+
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings != null ? settings : DEFAULT_SETTINGS);
+    } catch (IOException | ParseException e) {
+      log.warn("Unknown JFR configuration {}", settings, e);
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    recording = new Recording(configuration);
+    recording.setName("bankcards");
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : DEFAULT_MAX_AGE);
+    recording.start();
+    log.info("JFR recording started: settings={}, maxAge={}", configuration.getName(), recording.getMaxAge());
+    return new WebEndpointResponse<>(status());
+  }
+
+  @ReadOperation
+  public synchronized Map<String, Object> status() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    if (recording == null) {
+      status.put("state", "NONE");
+      return status;
+    }
+    status.put("state", recording.getState().name());
+    status.put("startTime", recording.getStartTime());
+    status.put("maxAge", recording.getMaxAge());
+    status.put("size", recording.getSize());
+    return status;
+  }
+
+  /**
+   * Останавливает запись и отдает файл .jfr потоком
+   */
+  @DeleteOperation
+  public synchronized WebEndpointResponse<Resource> stop() {
+    if (recording == null || recording.getState() != RecordingState.RUNNING) {
+      return new WebEndpointResponse<>(STATUS_CONFLICT);
+    }
+    try {
+      deleteDumpFile();
+      dumpFile = Files.createTempFile("bankcards-" + Instant.now().getEpochSecond() + "-", ".jfr");
+      recording.stop();
+      recording.dump(dumpFile);
+      log.info("JFR recording stopped: file={}, size={} bytes", dumpFile, Files.size(dumpFile));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Не удалось сохранить запись JFR", e);
+    } finally {
+      closeRecording();
+    }
+    return new WebEndpointResponse<>(new FileSystemResource(dumpFile));
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    closeRecording();
+    deleteDumpFile();
+  }
+
+  private void closeRecording() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private void deleteDumpFile() {
+    if (dumpFile != null) {
+      try {
+        Files.deleteIfExists(dumpFile);
+      } catch (IOException e) {
+        log.warn("Failed to delete JFR dump {}", dumpFile, e);
+      }
+      dumpFile = null;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие обработки сообщения Kafka-слушателем
+ */
+@Name("com.example.bankcards.KafkaListener")
+@Label("Kafka Listener")
+@Category({ "BankCards", "Kafka" })
+@Description("Обработка сообщения Kafka")
+@StackTrace(false)
+public class KafkaListenerEvent extends Event {
+
+  @Label("Listener")
+  public String listener;
+
+  @Label("Card Id")
+  public long cardId;
+
+  @Label("Key")
+  public String key;
+
+  @Label("Success")
+  public boolean success;
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR-событие перевода между своими картами.
+ * Длительность события - весь перевод внутри транзакции, {@code cardLoadTime} - время
+ * загрузки обеих карт из БД (ожидание соединения и блокировок строк попадает сюда)
+ */
+@Name("com.example.bankcards.Transfer")
+@Label("Transfer")
+@Category({ "BankCards", "Transfer" })
+@Description("Перевод между своими картами")
+@StackTrace(false)
+public class TransferEvent extends Event {
+
+  @Label("From Card Id")
+  public long fromCardId;
+
+  @Label("To Card Id")
+  public long toCardId;
+
+  @Label("Card Load Time")
+  @Timespan(Timespan.NANOSECONDS)
+  public long cardLoadTime;
+
+  @Label("Outcome")
+  public String outcome;
+}
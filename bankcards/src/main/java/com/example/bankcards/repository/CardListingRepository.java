@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.bankcards.entity.CardListing;
+
+/**
+ * Чтение проекции card_listing. search передается в нижнем регистре
+ */
+public interface CardListingRepository extends JpaRepository<CardListing, Long> {
+
+  @Query("SELECT l FROM CardListing l WHERE (:search = '' OR l.searchText LIKE CONCAT('%', :search, '%'))")
+  Page<CardListing> search(@Param("search") String search, Pageable pageable);
+
+  @Query("SELECT l FROM CardListing l WHERE l.ownerUsername = :username " +
+      "AND (:search = '' OR l.searchText LIKE CONCAT('%', :search, '%'))")
+  Page<CardListing> searchByOwner(@Param("username") String username, @Param("search") String search,
+      Pageable pageable);
+}
@@ -1,15 +1,24 @@
 package com.example.bankcards.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
 
+import jakarta.persistence.QueryHint;
+
 public interface CardRepository extends JpaRepository<Card, Long> {
 
   Page<Card> findByOwner_UsernameAndCardNumberMasked(
@@ -23,7 +32,32 @@ public interface CardRepository extends JpaRepository<Card, Long> {
       "c.cardNumberMasked LIKE CONCAT('%', :search, '%'))")
   Page<Card> findByOwnerNameAndCardNumberMasked(@Param("search") String search, Pageable pageable);
 
+  /**
+   * Выгрузка карт серверным курсором: без OFFSET и COUNT, сразу в DTO, чтобы контекст
+   * персистентности не рос. Поток нужно читать внутри транзакции и закрывать
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.example.bankcards.dto.CardResponse(" +
+      "c.id, c.ownerName, c.cardNumberMasked, c.status, c.balance, " +
+      "c.isBlockRequested, c.blockRequestedAt, c.owner.id) " +
+      "FROM Card c WHERE " +
+      "(:search = '' OR " +
+      "LOWER(c.ownerName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+      "c.cardNumberMasked LIKE CONCAT('%', :search, '%')) " +
+      "ORDER BY c.id")
+  Stream<CardResponse> streamByOwnerNameAndCardNumberMasked(@Param("search") String search);
+
   Optional<Card> findByIdAndOwner_Username(Long cardId, String username);
 
   Page<Card> findByOwner_Username(String username, Pageable pageable);
+
+  @Modifying
+  @Query("UPDATE Card c SET c.isBlockRequested = true, c.blockRequestedAt = :requestedAt, " +
+      "c.version = c.version + 1 " +
+      "WHERE c.id = :cardId AND c.status = com.example.bankcards.entity.CardStatus.ACTIVE " +
+      "AND (c.isBlockRequested IS NULL OR c.isBlockRequested = false)")
+  int markBlockRequested(@Param("cardId") Long cardId, @Param("requestedAt") LocalDateTime requestedAt);
 }
@@ -1,5 +1,6 @@
 package com.example.bankcards.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -20,5 +21,13 @@ public interface CardholderRepository extends JpaRepository<Cardholder, Long> {
       "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')))")
   Page<Cardholder> findByUserInfo(@Param("search") String search, Pageable pageable);
 
-  Optional<Cardholder> findByEmail(String email);
+  /**
+   * Вставляет держателя одним запросом. Пусто - держатель с таким username или email уже есть
+   */
+  @Query(value = "INSERT INTO cardholders (username, email, first_name, last_name, enabled, created_at) " +
+      "VALUES (:username, :email, :firstName, :lastName, true, COALESCE(CAST(:createdAt AS TIMESTAMP), now())) " +
+      "ON CONFLICT DO NOTHING RETURNING id", nativeQuery = true)
+  Optional<Long> insertIfAbsent(@Param("username") String username, @Param("email") String email,
+      @Param("firstName") String firstName, @Param("lastName") String lastName,
+      @Param("createdAt") LocalDateTime createdAt);
 }
\ No newline at end of file
@@ -1,9 +1,39 @@
 package com.example.bankcards.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.bankcards.entity.Transaction;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+  /**
+   * Операции карты внутри одного месячного окна [windowStart, windowEnd) строго после курсора
+   * (created_at, id) в обратном порядке. Границы окна совпадают с границами секции, поэтому
+   * запрос читает одну секцию; входящие и исходящие берутся по своим индексам и сливаются
+   */
+  @Query(value = "SELECT * FROM (" +
+      "(SELECT t.* FROM transactions t " +
+      "WHERE t.from_card_id = :cardId " +
+      "AND t.created_at >= :windowStart AND t.created_at < :windowEnd " +
+      "AND (t.created_at, t.id) < (:cursorCreatedAt, :cursorId) " +
+      "ORDER BY t.created_at DESC, t.id DESC LIMIT :limit) " +
+      "UNION ALL " +
+      "(SELECT t.* FROM transactions t " +
+      "WHERE t.to_card_id = :cardId " +
+      "AND t.created_at >= :windowStart AND t.created_at < :windowEnd " +
+      "AND (t.created_at, t.id) < (:cursorCreatedAt, :cursorId) " +
+      "ORDER BY t.created_at DESC, t.id DESC LIMIT :limit)" +
+      ") h ORDER BY h.created_at DESC, h.id DESC LIMIT :limit", nativeQuery = true)
+  List<Transaction> findCardHistoryWindow(
+      @Param("cardId") Long cardId,
+      @Param("windowStart") LocalDateTime windowStart,
+      @Param("windowEnd") LocalDateTime windowEnd,
+      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+      @Param("cursorId") Long cursorId,
+      @Param("limit") int limit);
 }
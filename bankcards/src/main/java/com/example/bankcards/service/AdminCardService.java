@@ -1,8 +1,14 @@
 package com.example.bankcards.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardLimitsRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.CardStatus;
@@ -10,9 +16,15 @@ import com.example.bankcards.entity.CardStatus;
 public interface AdminCardService {
   Page<CardResponse> findCards(String search, Pageable pageable);
 
+  long exportCards(String search, CardExportFormat format, OutputStream out) throws IOException;
+
   CardResponse createCard(CreateCardRequest request);
 
   void updateStatus(Long id, CardStatus status);
 
+  void updateLimits(Long id, CardLimitsRequest request);
+
+  boolean markBlockRequested(Long cardId, LocalDateTime requestedAt);
+
   void deleteCard(Long id);
 }
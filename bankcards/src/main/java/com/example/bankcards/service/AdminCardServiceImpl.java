@@ -1,24 +1,37 @@
 package com.example.bankcards.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardLimitsRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.repository.CardListingRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.CardholderRepository;
 import com.example.bankcards.util.CardCryptoUtil;
 import com.example.bankcards.util.CardGenerator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,9 +43,22 @@ public class AdminCardServiceImpl implements AdminCardService {
 
   private final CardRepository cardRepository;
   private final CardholderRepository cardholderRepository;
+  private final CardListingRepository cardListingRepository;
+  private final CardListingProjector cardListingProjector;
+  private final ApplicationEventPublisher eventPublisher;
   private final CardCryptoUtil cardCryptoUtil;
   private final CardConfig cardConfig;
   private final AuditService auditService;
+  private final MeterRegistry meterRegistry;
+
+  private Timer numberGenerationTimer;
+
+  @PostConstruct
+  void init() {
+    numberGenerationTimer = Timer.builder("bank.card.number.generation")
+        .description("Генерация номеров карт")
+        .register(meterRegistry);
+  }
 
   @Override
   @Transactional(readOnly = true)
@@ -41,17 +67,37 @@ public class AdminCardServiceImpl implements AdminCardService {
     log.debug("Admin requested list of all cards. Page size: {}", pageable.getPageSize());
 
     var searchParam = (search == null || search.isBlank()) ? "" : search;
+    if (cardListingProjector.readFromProjection()) {
+      return cardListingRepository
+          .search(searchParam.toLowerCase(), pageable)
+          .map(CardMapper::mapToResponse);
+    }
     return cardRepository
         .findByOwnerNameAndCardNumberMasked(searchParam, pageable)
         .map(CardMapper::mapToResponse);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public long exportCards(String search, CardExportFormat format, OutputStream out) throws IOException {
+    var searchParam = (search == null || search.isBlank()) ? "" : search;
+    long started = System.nanoTime();
+    long count;
+    try (Stream<CardResponse> cards = cardRepository.streamByOwnerNameAndCardNumberMasked(searchParam)) {
+      count = CardExportWriter.write(cards, format, out);
+    }
+    auditService.logCardsExport(format.name(), searchParam, count);
+    log.debug("Admin exported {} cards as {} in {} ms", count, format,
+        (System.nanoTime() - started) / 1_000_000);
+    return count;
+  }
+
   @Override
   @Transactional
   public CardResponse createCard(CreateCardRequest request) {
     Cardholder owner = cardholderRepository.findById(request.cardholderId())
         .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
-    String rawCardNumber = CardGenerator.generate(cardConfig.getBin());
+    String rawCardNumber = numberGenerationTimer.record(() -> CardGenerator.generate(cardConfig.getBin()));
 
     Card card = Card.builder()
         .owner(owner)
@@ -64,6 +110,8 @@ public class AdminCardServiceImpl implements AdminCardService {
         .build();
 
     CardResponse response = CardMapper.mapToResponse(cardRepository.save(card));
+    // Держатель в событии сбрасывает закэшированные списки владельца, где новой карты еще нет
+    eventPublisher.publishEvent(new CardChangedEvent(List.of(response.id()), owner.getId()));
 
     // Аудит создания карты
     auditService.logCardCreation(card.getId(), card.getCardNumberMasked(), owner.getId());
@@ -82,6 +130,7 @@ public class AdminCardServiceImpl implements AdminCardService {
     CardStatus previousStatus = card.getStatus();
     card.setStatus(status);
     cardRepository.save(card);
+    eventPublisher.publishEvent(CardChangedEvent.cards(card.getId()));
 
     // Аудит изменения статуса карты
     auditService.logCardStatusChange(card.getId(), previousStatus.name(), status.name());
@@ -89,6 +138,34 @@ public class AdminCardServiceImpl implements AdminCardService {
         card.getId(), previousStatus, status);
   }
 
+  @Override
+  @Transactional
+  public void updateLimits(Long id, CardLimitsRequest request) {
+    Card card = cardRepository.findById(id)
+        .orElseThrow(() -> new EntityNotFoundException("Карта не найдена"));
+
+    card.setDailyLimit(request.dailyLimit());
+    card.setMonthlyLimit(request.monthlyLimit());
+    cardRepository.save(card);
+
+    auditService.logCardLimitsChange(card.getId(), String.valueOf(request.dailyLimit()),
+        String.valueOf(request.monthlyLimit()));
+    log.debug("Card limits updated. Card ID: {}, Daily: {}, Monthly: {}",
+        card.getId(), request.dailyLimit(), request.monthlyLimit());
+  }
+
+  @Override
+  @Transactional
+  public boolean markBlockRequested(Long cardId, LocalDateTime requestedAt) {
+    boolean marked = cardRepository.markBlockRequested(cardId,
+        requestedAt != null ? requestedAt : LocalDateTime.now()) > 0;
+    if (marked) {
+      eventPublisher.publishEvent(CardChangedEvent.cards(cardId));
+    }
+    log.debug("Block request for card {} {}", cardId, marked ? "marked" : "ignored: already requested or inactive");
+    return marked;
+  }
+
   @Override
   @Transactional
   public void deleteCard(Long id) {
@@ -100,5 +177,6 @@ public class AdminCardServiceImpl implements AdminCardService {
     auditService.logCardDeletion(id, card.getCardNumberMasked());
     log.debug("Card deleted. Card ID: {}, maskedCardNumber: {}", id, card.getCardNumberMasked());
     cardRepository.deleteById(id);
+    eventPublisher.publishEvent(CardChangedEvent.cards(id));
   }
 }
@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -9,9 +10,11 @@ import com.example.bankcards.dto.CardholderResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.event.CardChangedEvent;
 import com.example.bankcards.repository.CardholderRepository;
 import com.example.common.auth.event.UserCreatedEvent;
 
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,9 +23,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AdminCardholderServiceImpl implements AdminCardholderService {
 
+  private static final String REGISTRATION_CONSUMER = "user-registration";
+
   private final AdminCardService cardService;
   private final CardholderRepository cardholderRepository;
   private final AuditService auditService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ProcessedEventStore processedEventStore;
 
   @Override
   @Transactional(readOnly = true)
@@ -39,22 +46,30 @@ public class AdminCardholderServiceImpl implements AdminCardholderService {
   @Override
   @Transactional
   public void registerCardholder(UserCreatedEvent event) {
-    // Проверяем, не существует ли уже держатель с таким email
-    if (cardholderRepository.findByEmail(event.email()).isPresent()) {
-      log.debug("Cardholder with email {} already exists, skipping registration", event.email());
+    // Вставка нативным запросом обходит @NotBlank сущности: проверяем событие сами, ValidationException
+    // отправляет запись сразу в DLT без повторов
+    if (isBlank(event.firstName()) || isBlank(event.lastName())) {
+      throw new ValidationException("User " + event.username() + " has blank first or last name");
+    }
+    // Повторная доставка: параллельная ждет коммита первой на ключе processed_events и пропускается
+    if (event.eventId() != null && !processedEventStore.markProcessed(REGISTRATION_CONSUMER, event.eventId())) {
+      log.debug("User registration event {} already processed, skipping", event.eventId());
+      return;
+    }
+    // Уникальные username и email: держатель, созданный раньше (импортом или событием без eventId), не дублируется
+    Long cardholderId = cardholderRepository.insertIfAbsent(event.username(), event.email(), event.firstName(),
+        event.lastName(), event.createdAt()).orElse(null);
+    if (cardholderId == null) {
+      log.debug("Cardholder with username {} or email {} already exists, skipping registration", event.username(),
+          event.email());
       return;
     }
 
-    var cardholder = Cardholder.builder().username(event.username()).email(event.email()).firstName(event.firstName())
-        .lastName(event.lastName()).enabled(true)
-        .createdAt(event.createdAt()).build();
-
-    cardholder = cardholderRepository.save(cardholder);
-    var cardResponse = cardService.createCard(new CreateCardRequest(cardholder.getId()));
+    var cardResponse = cardService.createCard(new CreateCardRequest(cardholderId));
 
     log.debug("Cardholder created with default card. Cardholder ID: {}, Card ID: {}, Card Masked Number: {}",
-        cardholder.getId(), cardResponse.id(), cardResponse.cardNumberMasked());
-    auditService.logCardholderRegister(cardholder.getId(), cardResponse.id(), cardResponse.cardNumberMasked());
+        cardholderId, cardResponse.id(), cardResponse.cardNumberMasked());
+    auditService.logCardholderRegister(cardholderId, cardResponse.id(), cardResponse.cardNumberMasked());
   }
 
   @Override
@@ -73,6 +88,7 @@ public class AdminCardholderServiceImpl implements AdminCardholderService {
     auditService.logCardholderBlocking(id);
     log.debug("Cardholder blocked. Cardholder ID: {}", id);
     cardholderRepository.save(cardholder);
+    eventPublisher.publishEvent(CardChangedEvent.cardholder(id));
   }
 
   @Override
@@ -85,5 +101,10 @@ public class AdminCardholderServiceImpl implements AdminCardholderService {
     auditService.logCardholderDeletion(id);
     log.debug("Card deleted. Cardholder ID: {}", id);
     cardholderRepository.deleteById(id);
+    eventPublisher.publishEvent(CardChangedEvent.cardholder(id));
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
   }
 }
@@ -2,9 +2,12 @@ package com.example.bankcards.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.SortedMap;
 
 import org.springframework.stereotype.Service;
 
+import com.example.bankcards.jfr.AuditEvent;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,56 +27,121 @@ public class AuditService {
    * Логирует операцию создания карты
    */
   public void logCardCreation(Long cardId, String maskedCardNumber, Long cardholderId) {
+    AuditEvent event = AuditEvent.start("CARD_CREATED", cardId);
     log.info("CARD AUDIT - CREATED: user={}, cardId={}, maskedCardNumber={}, cardholderId={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, maskedCardNumber, cardholderId, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию изменения статуса карты
    */
   public void logCardStatusChange(Long cardId, String fromStatus, String toStatus) {
+    AuditEvent event = AuditEvent.start("CARD_STATUS_CHANGED", cardId);
     log.warn("CARD AUDIT - STATUS_CHANGED: user={}, cardId={}, fromStatus={}, toStatus={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, fromStatus, toStatus, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует изменение лимитов списаний по карте
+   */
+  public void logCardLimitsChange(Long cardId, String dailyLimit, String monthlyLimit) {
+    AuditEvent event = AuditEvent.start("CARD_LIMITS_CHANGED", cardId);
+    log.warn("CARD AUDIT - LIMITS_CHANGED: user={}, cardId={}, dailyLimit={}, monthlyLimit={}, timestamp={}",
+        authenticationFacade.getAuthenticationName(), cardId, dailyLimit, monthlyLimit, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует перевод чанка карт с истекшим сроком действия в EXPIRED
+   */
+  public void logCardsExpired(int count, Long firstCardId, Long lastCardId) {
+    AuditEvent event = AuditEvent.start("CARDS_EXPIRED", firstCardId);
+    log.warn("CARD AUDIT - EXPIRED: count={}, firstCardId={}, lastCardId={}, timestamp={}",
+        count, firstCardId, lastCardId, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует плановый перевыпуск чанка карт
+   */
+  public void logCardsReissued(int count, Long firstCardId, Long lastCardId) {
+    AuditEvent event = AuditEvent.start("CARDS_REISSUED", firstCardId);
+    log.warn("CARD AUDIT - REISSUED: count={}, firstCardId={}, lastCardId={}, timestamp={}",
+        count, firstCardId, lastCardId, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует массовый импорт держателей карт
+   */
+  public void logCardholdersImported(long imported, long skipped, long rejected) {
+    AuditEvent event = AuditEvent.start("CARDHOLDERS_IMPORTED", null);
+    log.warn("CARDHOLDER AUDIT - IMPORTED: user={}, imported={}, skipped={}, rejected={}, timestamp={}",
+        authenticationFacade.getAuthenticationName(), imported, skipped, rejected, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует массовую смену статуса чанка карт администратором
+   */
+  public void logCardsStatusChanged(String toStatus, SortedMap<Long, String> fromStatusByCardId) {
+    AuditEvent event = AuditEvent.start("CARDS_STATUS_CHANGED", fromStatusByCardId.firstKey());
+    log.warn("CARD AUDIT - BULK STATUS CHANGED: user={}, toStatus={}, count={}, cards(cardId=fromStatus)={}, " +
+        "timestamp={}", authenticationFacade.getAuthenticationName(), toStatus, fromStatusByCardId.size(),
+        fromStatusByCardId, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию удаления карты
    */
   public void logCardDeletion(Long cardId, String maskedCardNumber) {
+    AuditEvent event = AuditEvent.start("CARD_DELETED", cardId);
     log.warn("CARD AUDIT - DELETED: user={}, cardId={}, maskedCardNumber={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, maskedCardNumber, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию удаления карты
    */
   public void logCardholderDeletion(Long cardId) {
+    AuditEvent event = AuditEvent.start("CARDHOLDER_DELETED", null);
     log.warn("CARDHOLDER AUDIT - DELETED: user={}, cardId={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию блокировки карты пользователем
    */
   public void logCardBlocking(Long cardId, String maskedCardNumber) {
+    AuditEvent event = AuditEvent.start("CARD_BLOCKED_BY_USER", cardId);
     log.warn("CARD AUDIT - BLOCKED_BY_USER: user={}, cardId={}, maskedCardNumber={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, maskedCardNumber, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует регистрацию держателя карт
    */
   public void logCardholderRegister(Long cardholderId, Long cardId, String maskedCardNumber) {
+    AuditEvent event = AuditEvent.start("CARDHOLDER_REGISTER", cardId);
     log.warn("CARDHOLDER AUDIT - REGISTER: cardholderId={}, cardId={}, maskedCardNumber, timestamp={}",
         cardholderId, cardId, maskedCardNumber, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию блокировки держателя карт
    */
   public void logCardholderBlocking(Long cardholderId) {
+    AuditEvent event = AuditEvent.start("CARDHOLDER_BLOCKED", null);
     log.warn("CARDHOLDER AUDIT - BLOCKED_BY_USER: user={}, cardId={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardholderId, LocalDateTime.now());
+    event.finish();
   }
 
   /**
@@ -81,61 +149,85 @@ public class AuditService {
    */
   public void logTransfer(Long fromCardId, Long toCardId, String fromCardMasked,
       String toCardMasked, String amount, String currency) {
+    AuditEvent event = AuditEvent.start("TRANSFER", fromCardId);
     log.info(
         "TRANSFER AUDIT - EXECUTED: user={}, fromCardId={}, toCardId={}, fromCardMasked={}, toCardMasked={}, amount={}, currency={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), fromCardId, toCardId, fromCardMasked, toCardMasked, amount,
         currency,
         LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует попытку несанкционированного доступа
    */
   public void logUnauthorizedAccess(String action, String resource, String reason) {
+    AuditEvent event = AuditEvent.start("UNAUTHORIZED_ACCESS", null);
     log.error("SECURITY AUDIT - UNAUTHORIZED_ACCESS: user={}, action={}, resource={}, reason={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), action, resource, reason, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует ошибки валидации
    */
   public void logValidationError(String action, String field, String value, String error) {
+    AuditEvent event = AuditEvent.start("VALIDATION_ERROR", null);
     log.warn("VALIDATION AUDIT - ERROR: user={}, action={}, field={}, value={}, error={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), action, field, value, error, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует системные ошибки
    */
   public void logSystemError(String operation, Exception exception) {
+    AuditEvent event = AuditEvent.start("SYSTEM_ERROR", null);
     log.error("SYSTEM AUDIT - ERROR: user={}, operation={}, exceptionType={}, exceptionMessage={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), operation, exception.getClass().getSimpleName(),
         exception.getMessage(),
         LocalDateTime.now(),
         exception);
+    event.finish();
   }
 
   /**
    * Логирует операцию просмотра баланса карты
    */
   public void logBalanceView(Long cardId, String maskedCardNumber, BigDecimal balance) {
+    AuditEvent event = AuditEvent.start("BALANCE_VIEWED", cardId);
     log.info("BALANCE AUDIT - VIEWED: user={}, cardId={}, maskedCardNumber={}, balance={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), cardId, maskedCardNumber, balance, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию просмотра списка карт
    */
   public void logCardsListView(Integer pageSize, String searchQuery) {
+    AuditEvent event = AuditEvent.start("CARDS_LIST_VIEWED", null);
     log.info("CARDS_LIST AUDIT - VIEWED: user={}, pageSize={}, searchQuery={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), pageSize, searchQuery, LocalDateTime.now());
+    event.finish();
+  }
+
+  /**
+   * Логирует выгрузку списка карт
+   */
+  public void logCardsExport(String format, String searchQuery, long exportedCount) {
+    AuditEvent event = AuditEvent.start("CARDS_EXPORTED", null);
+    log.info("CARDS_LIST AUDIT - EXPORTED: user={}, format={}, searchQuery={}, exportedCount={}, timestamp={}",
+        authenticationFacade.getAuthenticationName(), format, searchQuery, exportedCount, LocalDateTime.now());
+    event.finish();
   }
 
   /**
    * Логирует операцию просмотра списка держателей карт
    */
   public void logCardholdersListView(Integer pageSize, String searchQuery) {
+    AuditEvent event = AuditEvent.start("CARDHOLDERS_LIST_VIEWED", null);
     log.info("CARDHOLDERS_LIST AUDIT - VIEWED: user={}, pageSize={}, searchQuery={}, timestamp={}",
         authenticationFacade.getAuthenticationName(), pageSize, searchQuery, LocalDateTime.now());
+    event.finish();
   }
 }
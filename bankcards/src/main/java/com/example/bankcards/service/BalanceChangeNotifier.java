@@ -0,0 +1,115 @@
+package com.example.bankcards.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Будит long-poll запросы баланса по CardChangedEvent. Каждый ожидающий запрос держит свой future,
+ * событие по карте завершает все future этой карты. Ожидание идет на виртуальных потоках
+ * отдельного исполнителя, поэтому не занимает потоки Tomcat и пул applicationTaskExecutor.
+ * События по держателю не будят ожидающих: баланс они не меняют, а смену статуса покрывает timeout
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceChangeNotifier {
+
+  private final BalancePollConfig pollConfig;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<Long, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+  private SimpleAsyncTaskExecutor executor;
+
+  @PostConstruct
+  void init() {
+    executor = new SimpleAsyncTaskExecutor("balance-poll-");
+    executor.setVirtualThreads(true);
+    executor.setConcurrencyLimit(pollConfig.getMaxWaiters());
+    executor.setRejectTasksWhenLimitReached(true);
+    Gauge.builder("bank.balance.poll.waiters", waiters,
+        map -> map.values().stream().mapToInt(Set::size).sum())
+        .description("Long-poll запросы баланса, ожидающие изменения карты")
+        .register(meterRegistry);
+  }
+
+  public AsyncTaskExecutor executor() {
+    return executor;
+  }
+
+  /**
+   * Подписка на следующее изменение карты. Подписываться нужно до чтения текущей версии,
+   * иначе изменение между чтением и ожиданием будет пропущено
+   */
+  public CompletableFuture<Void> subscribe(Long cardId) {
+    CompletableFuture<Void> changed = new CompletableFuture<>();
+    waiters.compute(cardId, (id, futures) -> {
+      Set<CompletableFuture<Void>> result = futures != null ? futures : ConcurrentHashMap.newKeySet();
+      result.add(changed);
+      return result;
+    });
+    return changed;
+  }
+
+  public void unsubscribe(Long cardId, CompletableFuture<Void> changed) {
+    waiters.computeIfPresent(cardId, (id, futures) -> {
+      futures.remove(changed);
+      return futures.isEmpty() ? null : futures;
+    });
+  }
+
+  /**
+   * Ждет изменения не дольше timeout. true - карта изменилась
+   */
+  public boolean await(CompletableFuture<Void> changed, Duration timeout) {
+    try {
+      changed.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      return false;
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCardChanged(CardChangedEvent event) {
+    event.cardIds().forEach(this::notifyChanged);
+  }
+
+  private void notifyChanged(Long cardId) {
+    Set<CompletableFuture<Void>> futures = waiters.remove(cardId);
+    if (futures != null) {
+      futures.forEach(changed -> changed.complete(null));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // Ожидающие запросы сразу отвечают текущим балансом
+    waiters.keySet().forEach(this::notifyChanged);
+    executor.close();
+  }
+}
@@ -0,0 +1,159 @@
+package com.example.bankcards.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.config.BulkCardStatusConfig;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Массовая смена статуса карт, например блокировка скомпрометированных карт при инциденте.
+ * Карты обновляются чанками по chunkSize, каждый чанк - отдельный UPDATE ... RETURNING без
+ * загрузки сущностей. Список id сортируется, фильтр обходится по id, поэтому строки блокируются в
+ * одном порядке. Каждый чанк сразу фиксируется: прерванный запрос оставляет обновленными уже
+ * пройденные карты, повтор досчитывает остальные. Аудит и CardChangedEvent - одна запись на чанк,
+ * аудит перечисляет id карт чанка с прежними статусами
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkCardStatusService {
+
+  private static final String UPDATE_BY_IDS_SQL = "WITH target AS (" +
+      "  SELECT id, status FROM cards WHERE id = ANY(?) AND status <> ? ORDER BY id FOR UPDATE" +
+      ") " +
+      "UPDATE cards c SET status = ?, version = c.version + 1, updated_at = now() " +
+      "FROM target WHERE c.id = target.id " +
+      "RETURNING c.id, target.status AS from_status";
+
+  private static final String UPDATE_BY_FILTER_SQL = "WITH target AS (" +
+      "  SELECT id, status FROM cards WHERE id > ? AND status <> ?%s ORDER BY id LIMIT ? FOR UPDATE" +
+      ") " +
+      "UPDATE cards c SET status = ?, version = c.version + 1, updated_at = now() " +
+      "FROM target WHERE c.id = target.id " +
+      "RETURNING c.id, target.status AS from_status";
+
+  // id карты -> статус до изменения, по возрастанию id
+  private static final ResultSetExtractor<SortedMap<Long, String>> UPDATED_CARDS = rs -> {
+    SortedMap<Long, String> updated = new TreeMap<>();
+    while (rs.next()) {
+      updated.put(rs.getLong("id"), rs.getString("from_status"));
+    }
+    return updated;
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BulkCardStatusConfig bulkConfig;
+  private final AuditService auditService;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public BulkCardStatusResponse updateStatus(BulkCardStatusRequest request) {
+    boolean byIds = request.cardIds() != null && !request.cardIds().isEmpty();
+    boolean byFilter = request.filter() != null && !request.filter().isEmpty();
+    if (byIds == byFilter) {
+      throw new IllegalArgumentException("Нужно указать либо cardIds, либо непустой filter");
+    }
+    if (byIds && request.cardIds().size() > bulkConfig.getMaxCardIds()) {
+      throw new IllegalArgumentException("Не больше " + bulkConfig.getMaxCardIds() + " id за запрос");
+    }
+
+    long started = System.nanoTime();
+    Timer chunkTimer = Timer.builder("bank.card.status.bulk.chunk")
+        .description("Один UPDATE массовой смены статуса карт")
+        .register(meterRegistry);
+    BulkCardStatusResponse response;
+    if (byIds) {
+      long[] ids = request.cardIds().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+      long updated = updateByIds(request.status(), ids, chunkTimer);
+      response = new BulkCardStatusResponse(request.status(), updated, ids.length - updated, millisSince(started));
+    } else {
+      long updated = updateByFilter(request.status(), request.filter(), chunkTimer);
+      response = new BulkCardStatusResponse(request.status(), updated, 0, millisSince(started));
+    }
+    log.info("Bulk card status update to {} finished: {} updated, {} skipped, {} ms",
+        response.status(), response.updated(), response.skipped(), response.durationMillis());
+    return response;
+  }
+
+  private long updateByIds(CardStatus status, long[] ids, Timer chunkTimer) {
+    int chunkSize = bulkConfig.getChunkSize();
+    long total = 0;
+    for (int from = 0; from < ids.length; from += chunkSize) {
+      Long[] chunk = new Long[Math.min(chunkSize, ids.length - from)];
+      for (int i = 0; i < chunk.length; i++) {
+        chunk[i] = ids[from + i];
+      }
+      SortedMap<Long, String> updated = chunkTimer.record(() -> jdbcTemplate.query(
+          UPDATE_BY_IDS_SQL, UPDATED_CARDS, chunk, status.name(), status.name()));
+      total += applied(status, updated);
+    }
+    return total;
+  }
+
+  private long updateByFilter(CardStatus status, BulkCardStatusRequest.Filter filter, Timer chunkTimer) {
+    StringBuilder conditions = new StringBuilder();
+    List<Object> filterArgs = new ArrayList<>();
+    if (filter.ownerId() != null) {
+      conditions.append(" AND owner_id = ?");
+      filterArgs.add(filter.ownerId());
+    }
+    if (filter.currentStatus() != null) {
+      conditions.append(" AND status = ?");
+      filterArgs.add(filter.currentStatus().name());
+    }
+    if (filter.blockRequested() != null) {
+      // Колонка допускает NULL: такие карты считаются без запроса блокировки
+      conditions.append(" AND COALESCE(is_block_requested, false) = ?");
+      filterArgs.add(filter.blockRequested());
+    }
+    String sql = UPDATE_BY_FILTER_SQL.formatted(conditions);
+
+    long lastId = 0;
+    long total = 0;
+    while (true) {
+      List<Object> args = new ArrayList<>(filterArgs.size() + 4);
+      args.add(lastId);
+      args.add(status.name());
+      args.addAll(filterArgs);
+      args.add(bulkConfig.getChunkSize());
+      args.add(status.name());
+      SortedMap<Long, String> updated = chunkTimer.record(() -> jdbcTemplate.query(sql, UPDATED_CARDS,
+          args.toArray()));
+      total += applied(status, updated);
+      if (updated.size() < bulkConfig.getChunkSize()) {
+        return total;
+      }
+      lastId = updated.lastKey();
+    }
+  }
+
+  private int applied(CardStatus status, SortedMap<Long, String> updated) {
+    if (updated.isEmpty()) {
+      return 0;
+    }
+    auditService.logCardsStatusChanged(status.name(), updated);
+    meterRegistry.counter("bank.card.status.bulk.updated", "status", status.name()).increment(updated.size());
+    eventPublisher.publishEvent(CardChangedEvent.cards(List.copyOf(updated.keySet())));
+    return updated.size();
+  }
+
+  private static long millisSince(long startedNanos) {
+    return (System.nanoTime() - startedNanos) / 1_000_000;
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.example.bankcards.config.JwtCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Аутентификация bearer-токенов с кэшем проверенных JWT. Ключ - SHA-256 токена, значение - Jwt
+ * и преобразованные роли. Повторный запрос с тем же токеном не проверяет RS256-подпись и не строит
+ * роли заново, пока токен не истек (но не дольше maxTtl). Ошибки проверки не кэшируются.
+ * На каждый запрос выдается новый JwtAuthenticationToken со своими details
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+  private final AuthenticationManager delegate;
+  private final JwtCacheConfig cacheConfig;
+  private final Clock clock;
+  private final Cache<String, JwtAuthenticationToken> cache;
+
+  public CachingJwtAuthenticationManager(JwtDecoder jwtDecoder,
+      Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthenticationConverter, JwtCacheConfig cacheConfig,
+      MeterRegistry meterRegistry) {
+    this(jwtAuthenticationProvider(jwtDecoder, jwtAuthenticationConverter)::authenticate, cacheConfig,
+        Clock.systemUTC());
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-authentications");
+  }
+
+  CachingJwtAuthenticationManager(AuthenticationManager delegate, JwtCacheConfig cacheConfig, Clock clock) {
+    this.delegate = delegate;
+    this.cacheConfig = cacheConfig;
+    this.clock = clock;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(cacheConfig.getMaxTokens())
+        .expireAfter(new Expiry<String, JwtAuthenticationToken>() {
+          @Override
+          public long expireAfterCreate(String key, JwtAuthenticationToken token, long currentTime) {
+            return timeToLive(token).toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, JwtAuthenticationToken token, long currentTime,
+              long currentDuration) {
+            return timeToLive(token).toNanos();
+          }
+
+          @Override
+          public long expireAfterRead(String key, JwtAuthenticationToken token, long currentTime,
+              long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) {
+    if (!cacheConfig.isEnabled() || !(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+      return delegate.authenticate(authentication);
+    }
+    String key = hash(bearer.getToken());
+    JwtAuthenticationToken cached = cache.getIfPresent(key);
+    if (cached != null && clock.instant().isBefore(cached.getToken().getExpiresAt())) {
+      return copy(cached, bearer);
+    }
+
+    Authentication result = delegate.authenticate(bearer);
+    if (result instanceof JwtAuthenticationToken jwtAuthentication
+        && jwtAuthentication.getToken().getExpiresAt() != null) {
+      cache.put(key, copy(jwtAuthentication, null));
+    }
+    return result;
+  }
+
+  long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  private Duration timeToLive(JwtAuthenticationToken token) {
+    Duration untilExpiry = Duration.between(clock.instant(), token.getToken().getExpiresAt());
+    if (untilExpiry.isNegative()) {
+      return Duration.ZERO;
+    }
+    return untilExpiry.compareTo(cacheConfig.getMaxTtl()) < 0 ? untilExpiry : cacheConfig.getMaxTtl();
+  }
+
+  private static JwtAuthenticationToken copy(JwtAuthenticationToken source, BearerTokenAuthenticationToken bearer) {
+    JwtAuthenticationToken token = new JwtAuthenticationToken(source.getToken(), source.getAuthorities(),
+        source.getName());
+    if (bearer != null) {
+      token.setDetails(bearer.getDetails());
+    }
+    return token;
+  }
+
+  private static JwtAuthenticationProvider jwtAuthenticationProvider(JwtDecoder jwtDecoder,
+      Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthenticationConverter) {
+    JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+    provider.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+    return provider;
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 недоступен", e);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.bankcards.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.CardChangeBroadcastConfig;
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.event.CardChangeMessage;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Рассылает локальные CardChangedEvent другим узлам через card-change-topic и публикует у себя
+ * события, пришедшие с других узлов. Пришедшие события помечены remote и обратно не отправляются.
+ * Сообщения пишутся отдельным KafkaTemplate с ByteArraySerializer поверх общей фабрики продюсеров
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardChangeBroadcaster {
+
+  private final ProducerFactory<String, byte[]> producerFactory;
+  private final CardChangeBroadcastConfig broadcastConfig;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MeterRegistry meterRegistry;
+
+  private KafkaTemplate<String, byte[]> kafkaTemplate;
+  private Timer lagTimer;
+
+  @PostConstruct
+  void init() {
+    kafkaTemplate = new KafkaTemplate<>(producerFactory,
+        Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+    lagTimer = Timer.builder("bank.card.change.broadcast.lag")
+        .description("Время от публикации изменения карты на другом узле до инвалидации на этом")
+        .register(meterRegistry);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCardChanged(CardChangedEvent event) {
+    if (!broadcastConfig.isEnabled() || event.remote()) {
+      return;
+    }
+    byte[] payload = CardChangeMessage.of(broadcastConfig.getNodeId(), System.currentTimeMillis(), event).encode();
+    String key = !event.cardIds().isEmpty() ? String.valueOf(event.cardIds().get(0))
+        : String.valueOf(event.cardholderId());
+    kafkaTemplate.send(KafakaConfig.CARD_CHANGE_TOPIC, key, payload)
+        .whenComplete((result, ex) -> {
+          if (ex != null) {
+            log.error("Failed to broadcast card change: cards={}, cardholder={}", event.cardIds(),
+                event.cardholderId(), ex);
+          }
+        });
+  }
+
+  /**
+   * Сообщение из card-change-topic: свои сообщения пропускаются, чужие публикуются локально
+   */
+  public void onRemoteMessage(byte[] payload) {
+    CardChangeMessage message = CardChangeMessage.decode(payload);
+    if (broadcastConfig.getNodeId().equals(message.nodeId())) {
+      return;
+    }
+    eventPublisher.publishEvent(message.toEvent());
+    // Часы узлов не синхронизированы идеально, отрицательная задержка считается нулевой
+    lagTimer.record(Math.max(0, System.currentTimeMillis() - message.publishedAtMillis()), TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,311 @@
+package com.example.bankcards.service;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.bankcards.config.CardEventStreamConfig;
+import com.example.bankcards.dto.CardChangeNotification;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SSE-поток изменений карт держателя. Соединение - асинхронный SseEmitter без потока на клиента,
+ * простаивающее соединение стоит только памяти под emitter и пустой буфер.
+ * CardChangedEvent после коммита перечитывает измененные карты одним запросом на отдельном потоке
+ * и раскладывает их по буферам соединений владельцев. Буфер соединения ограничен bufferSize:
+ * отправку ведет виртуальный поток, который живет, пока в буфере есть события, а при переполнении
+ * буфер заменяется одним событием resync - клиент перечитывает карты и баланс
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardEventStreamService {
+
+  static final String EVENT_READY = "ready";
+  static final String EVENT_CARD = "card";
+  static final String EVENT_RESYNC = "resync";
+
+  private static final String SELECT_CHANGED_SQL =
+      "SELECT c.id, h.username, c.status, c.balance, c.is_block_requested, c.version " +
+          "FROM cards c JOIN cardholders h ON h.id = c.owner_id WHERE c.id = ANY(?) OR c.owner_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AuthenticationFacade authenticationFacade;
+  private final CardEventStreamConfig streamConfig;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, Deque<Connection>> connections = new ConcurrentHashMap<>();
+  private final AtomicInteger connectionCount = new AtomicInteger();
+
+  private ScheduledExecutorService scheduler;
+  private SimpleAsyncTaskExecutor sendExecutor;
+  private Counter overflows;
+
+  @PostConstruct
+  void init() {
+    Gauge.builder("bank.card.events.connections", connectionCount, AtomicInteger::get)
+        .description("Открытые SSE-соединения держателей")
+        .register(meterRegistry);
+    overflows = Counter.builder("bank.card.events.overflow")
+        .description("Переполнения буфера соединения, клиенту отправлен resync")
+        .register(meterRegistry);
+    if (!streamConfig.isEnabled()) {
+      return;
+    }
+    if (streamConfig.getMaxConnections() > streamConfig.effectiveMaxConnections()) {
+      log.warn("SSE connections limited to {} instead of {}: Tomcat max-connections {} minus {} reserved for API",
+          streamConfig.effectiveMaxConnections(), streamConfig.getMaxConnections(),
+          streamConfig.getServerMaxConnections(), streamConfig.getReservedConnections());
+    }
+    sendExecutor = new SimpleAsyncTaskExecutor("card-events-send-");
+    sendExecutor.setVirtualThreads(true);
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "card-events");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long heartbeat = streamConfig.getHeartbeatInterval().toMillis();
+    scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Открывает поток для текущего пользователя
+   */
+  public SseEmitter subscribe() {
+    if (!streamConfig.isEnabled()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Поток событий отключен");
+    }
+    if (connectionCount.incrementAndGet() > streamConfig.effectiveMaxConnections()) {
+      connectionCount.decrementAndGet();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Слишком много подключений");
+    }
+
+    String username = authenticationFacade.getAuthenticationName();
+    SseEmitter emitter = createEmitter(streamConfig.getConnectionTimeout().toMillis());
+    Connection connection = new Connection(username, emitter, streamConfig.getBufferSize(), sendExecutor,
+        this::remove, overflows);
+    emitter.onCompletion(() -> remove(connection));
+    emitter.onTimeout(() -> remove(connection));
+    emitter.onError(e -> remove(connection));
+
+    Deque<Connection> userConnections = connections.compute(username, (name, existing) -> {
+      Deque<Connection> result = existing != null ? existing : new ConcurrentLinkedDeque<>();
+      result.addLast(connection);
+      return result;
+    });
+    // Старые соединения обычно уже мертвы: клиент переподключился после смены сети
+    while (userConnections.size() > streamConfig.getMaxConnectionsPerUser()) {
+      Connection oldest = userConnections.peekFirst();
+      if (oldest == null || oldest == connection) {
+        break;
+      }
+      remove(oldest);
+      oldest.emitter.complete();
+    }
+
+    connection.offer(new Outgoing(EVENT_READY, username));
+    return emitter;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCardChanged(CardChangedEvent event) {
+    if (scheduler == null || connectionCount.get() == 0) {
+      return;
+    }
+    scheduler.execute(() -> {
+      try {
+        fanOut(event);
+      } catch (RuntimeException e) {
+        log.error("Card events fan-out failed for cards {}", event.cardIds(), e);
+      }
+    });
+  }
+
+  /**
+   * Перечитывает измененные карты и ставит событие card в буферы соединений их владельцев.
+   * Удаленные карты не находятся и не рассылаются, клиент увидит их отсутствие при следующем resync
+   */
+  void fanOut(CardChangedEvent event) {
+    jdbcTemplate.query(SELECT_CHANGED_SQL, (RowCallbackHandler) rs -> {
+      Deque<Connection> userConnections = connections.get(rs.getString("username"));
+      if (userConnections == null) {
+        return;
+      }
+      Outgoing outgoing = new Outgoing(EVENT_CARD, toNotification(rs));
+      userConnections.forEach(connection -> connection.offer(outgoing));
+    }, event.cardIds().toArray(Long[]::new), event.cardholderId());
+  }
+
+  private static CardChangeNotification toNotification(ResultSet rs) throws SQLException {
+    return new CardChangeNotification(rs.getLong("id"), CardStatus.valueOf(rs.getString("status")),
+        rs.getBigDecimal("balance"), rs.getBoolean("is_block_requested"), rs.getLong("version"));
+  }
+
+  /**
+   * Комментарий раз в heartbeatInterval держит соединение через прокси и выявляет отключившихся клиентов
+   */
+  void heartbeat() {
+    connections.values().forEach(userConnections -> userConnections.forEach(
+        connection -> connection.offer(Outgoing.HEARTBEAT)));
+  }
+
+  SseEmitter createEmitter(long timeoutMillis) {
+    return new SseEmitter(timeoutMillis);
+  }
+
+  int connectionCount() {
+    return connectionCount.get();
+  }
+
+  private void remove(Connection connection) {
+    if (!connection.markClosed()) {
+      return;
+    }
+    connectionCount.decrementAndGet();
+    connections.computeIfPresent(connection.username, (name, userConnections) -> {
+      userConnections.remove(connection);
+      return userConnections.isEmpty() ? null : userConnections;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+    if (sendExecutor != null) {
+      sendExecutor.close();
+    }
+  }
+
+  /**
+   * Событие в буфере соединения. name == null - комментарий heartbeat
+   */
+  record Outgoing(String name, Object data) {
+    static final Outgoing HEARTBEAT = new Outgoing(null, "heartbeat");
+  }
+
+  /**
+   * Одно SSE-соединение с ограниченным буфером. Буфер и флаг отправки под ReentrantLock,
+   * чтобы не фиксировать виртуальный поток на мониторе; сама отправка идет без блокировки
+   */
+  static final class Connection {
+
+    private final String username;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor sendExecutor;
+    private final Consumer<Connection> onFailure;
+    private final Counter overflows;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Outgoing> buffer = new ArrayDeque<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private boolean sending;
+
+    Connection(String username, SseEmitter emitter, int capacity, Executor sendExecutor,
+        Consumer<Connection> onFailure, Counter overflows) {
+      this.username = username;
+      this.emitter = emitter;
+      this.capacity = capacity;
+      this.sendExecutor = sendExecutor;
+      this.onFailure = onFailure;
+      this.overflows = overflows;
+    }
+
+    void offer(Outgoing outgoing) {
+      boolean startSending;
+      lock.lock();
+      try {
+        if (closed.get()) {
+          return;
+        }
+        if (buffer.size() >= capacity) {
+          // Клиент не успевает читать: пропущенные события заменяются одной командой перечитать состояние
+          buffer.clear();
+          buffer.add(new Outgoing(EVENT_RESYNC, "overflow"));
+          overflows.increment();
+        } else {
+          buffer.add(outgoing);
+        }
+        startSending = !sending;
+        sending = true;
+      } finally {
+        lock.unlock();
+      }
+      if (startSending) {
+        sendExecutor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        Outgoing next;
+        lock.lock();
+        try {
+          next = buffer.poll();
+          if (next == null) {
+            sending = false;
+            return;
+          }
+        } finally {
+          lock.unlock();
+        }
+        try {
+          emitter.send(next.name() == null
+              ? SseEmitter.event().comment(String.valueOf(next.data()))
+              : SseEmitter.event().name(next.name()).data(next.data()));
+        } catch (IOException | IllegalStateException e) {
+          // Контейнер сам завершит запрос с ошибкой, соединение только убирается из рассылки
+          onFailure.accept(this);
+          return;
+        }
+      }
+    }
+
+    boolean markClosed() {
+      return closed.compareAndSet(false, true);
+    }
+
+    int pending() {
+      lock.lock();
+      try {
+        return buffer.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
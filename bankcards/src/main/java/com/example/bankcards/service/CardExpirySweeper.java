@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.config.CardExpiryConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Переводит в EXPIRED активные карты с прошедшим сроком действия.
+ * Карты выбираются по частичному индексу idx_cards_active_expiry_date и обновляются чанками,
+ * каждый чанк - отдельный короткий UPDATE. SKIP LOCKED не ждет строки, занятые переводами
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardExpirySweeper {
+
+  static final String LEASE_NAME = "card-expiry-sweeper";
+
+  private static final String EXPIRE_CHUNK_SQL = "WITH expired AS (" +
+      "  SELECT id FROM cards WHERE status = 'ACTIVE' AND expiry_date < ? " +
+      "  ORDER BY expiry_date LIMIT ? FOR UPDATE SKIP LOCKED" +
+      ") " +
+      "UPDATE cards c SET status = 'EXPIRED', version = c.version + 1, updated_at = now() " +
+      "FROM expired WHERE c.id = expired.id " +
+      "RETURNING c.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JobLeaseService jobLeaseService;
+  private final CardExpiryConfig expiryConfig;
+  private final AuditService auditService;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Карта действует по дату окончания включительно, поэтому истекшими считаются карты
+   * с expiry_date раньше сегодняшнего дня. Возвращает количество переведенных карт
+   */
+  @Scheduled(cron = "${bank.expiry.cron:0 5 0 * * *}")
+  public long expireCards() {
+    if (!jobLeaseService.tryAcquire(LEASE_NAME, expiryConfig.getLeaseTtl())) {
+      log.debug("Card expiry sweep skipped: lease is held by another node");
+      return 0;
+    }
+
+    Timer.Sample sweepSample = Timer.start(meterRegistry);
+    Timer chunkTimer = Timer.builder("bank.card.expiry.chunk")
+        .description("Один UPDATE перевода карт в EXPIRED")
+        .register(meterRegistry);
+    LocalDate today = LocalDate.now();
+    long total = 0;
+    try {
+      while (true) {
+        List<Long> expiredIds = chunkTimer.record(() -> jdbcTemplate.queryForList(
+            EXPIRE_CHUNK_SQL, Long.class, today, expiryConfig.getChunkSize()));
+        if (expiredIds.isEmpty()) {
+          break;
+        }
+        total += expiredIds.size();
+        meterRegistry.counter("bank.card.expired").increment(expiredIds.size());
+        auditService.logCardsExpired(expiredIds.size(), expiredIds.get(0), expiredIds.get(expiredIds.size() - 1));
+        eventPublisher.publishEvent(CardChangedEvent.cards(expiredIds));
+
+        if (expiredIds.size() < expiryConfig.getChunkSize()) {
+          break;
+        }
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, expiryConfig.getLeaseTtl())) {
+          log.warn("Card expiry sweep stopped: lease lost after {} cards", total);
+          break;
+        }
+      }
+    } finally {
+      sweepSample.stop(Timer.builder("bank.card.expiry.sweep")
+          .description("Полный проход перевода карт в EXPIRED")
+          .register(meterRegistry));
+      jobLeaseService.release(LEASE_NAME);
+    }
+    log.info("Card expiry sweep finished: {} cards expired", total);
+    return total;
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Построчная запись карт в выходной поток. Каждая строка пишется сразу в буфер ответа,
+ * буфер сбрасывается клиенту каждые {@link #FLUSH_EVERY} строк, поэтому память не зависит
+ * от количества карт, а медленный клиент тормозит чтение курсора
+ */
+public class CardExportWriter {
+
+  static final int FLUSH_EVERY = 500;
+
+  private static final String CSV_HEADER =
+      "id,ownerName,cardNumberMasked,status,balance,isBlockRequested,blockRequestedAt,cardholderId";
+
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      // Иначе writeValue сбрасывает буфер клиенту после каждой строки, мимо FLUSH_EVERY
+      .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  private CardExportWriter() {
+  }
+
+  /**
+   * Пишет карты в указанном формате и возвращает количество записанных строк.
+   * Поток вывода не закрывается
+   */
+  public static long write(Stream<CardResponse> cards, CardExportFormat format, OutputStream out)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == CardExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+
+    long count = 0;
+    Iterator<CardResponse> iterator = cards.iterator();
+    while (iterator.hasNext()) {
+      CardResponse card = iterator.next();
+      if (format == CardExportFormat.CSV) {
+        writeCsvLine(writer, card);
+      } else {
+        objectMapper.writeValue(writer, card);
+      }
+      writer.write('\n');
+      if (++count % FLUSH_EVERY == 0) {
+        writer.flush();
+      }
+    }
+    writer.flush();
+    return count;
+  }
+
+  private static void writeCsvLine(Writer writer, CardResponse card) throws IOException {
+    writer.write(csv(card.id()));
+    writer.write(',');
+    writer.write(csv(card.ownerName()));
+    writer.write(',');
+    writer.write(csv(card.cardNumberMasked()));
+    writer.write(',');
+    writer.write(csv(card.status()));
+    writer.write(',');
+    writer.write(card.balance() != null ? card.balance().toPlainString() : "");
+    writer.write(',');
+    writer.write(csv(card.isBlockRequested()));
+    writer.write(',');
+    writer.write(csv(card.blockRequestedAt()));
+    writer.write(',');
+    writer.write(csv(card.cardholderId()));
+  }
+
+  private static String csv(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.CardListCacheConfig;
+import com.example.bankcards.dto.CardListSnapshot;
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.event.CardChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Кэш страниц списка карт по имени пользователя. ETag считается один раз при заполнении.
+ * Записи сбрасываются по CardChangedEvent: карты и держатели из закэшированных страниц
+ * проиндексированы, поэтому событие находит пользователя без запроса к БД.
+ * Счетчик событий защищает от гонки: страница, при загрузке которой пришло событие, не кэшируется
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardListCache {
+
+  private final CardListCacheConfig cacheConfig;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<Long, UserCardLists> cardIndex = new ConcurrentHashMap<>();
+  private final Map<Long, UserCardLists> cardholderIndex = new ConcurrentHashMap<>();
+  private final AtomicLong changeEvents = new AtomicLong();
+
+  private Cache<String, UserCardLists> cache;
+
+  @PostConstruct
+  void init() {
+    cache = Caffeine.newBuilder()
+        .maximumSize(cacheConfig.getMaxUsers())
+        .expireAfterWrite(cacheConfig.getTtl())
+        .removalListener((String username, UserCardLists lists, RemovalCause cause) -> {
+          if (lists != null) {
+            unindex(lists);
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "cardholder-card-lists");
+  }
+
+  public boolean isEnabled() {
+    return cacheConfig.isEnabled();
+  }
+
+  public CardListSnapshot get(String username, String search, Pageable pageable,
+      Supplier<Page<CardResponse>> loader) {
+    if (!cacheConfig.isEnabled()) {
+      return snapshot(loader.get());
+    }
+    PageKey key = new PageKey(search != null ? search.trim() : "", pageable.isPaged() ? pageable.getPageNumber() : -1,
+        pageable.isPaged() ? pageable.getPageSize() : -1, pageable.getSort().toString());
+    UserCardLists cached = cache.getIfPresent(username);
+    if (cached != null) {
+      CardListSnapshot snapshot = cached.pages.get(key);
+      if (snapshot != null) {
+        return snapshot;
+      }
+    }
+
+    long seenEvents = changeEvents.get();
+    CardListSnapshot snapshot = snapshot(loader.get());
+    // Пустую страницу нечем проиндексировать: новая карта пользователя ее бы не сбросила
+    if (snapshot.page().isEmpty()) {
+      return snapshot;
+    }
+    UserCardLists lists = cache.get(username, UserCardLists::new);
+    // Индекс до проверки счетчика: событие после проверки уже найдет эту запись
+    index(lists, snapshot.page());
+    if (changeEvents.get() != seenEvents) {
+      return snapshot;
+    }
+    if (lists.pages.size() >= cacheConfig.getMaxPagesPerUser()) {
+      lists.pages.clear();
+    }
+    lists.pages.put(key, snapshot);
+    return snapshot;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCardChanged(CardChangedEvent event) {
+    changeEvents.incrementAndGet();
+    event.cardIds().forEach(cardId -> invalidate(cardIndex.get(cardId)));
+    if (event.cardholderId() != null) {
+      invalidate(cardholderIndex.get(event.cardholderId()));
+    }
+  }
+
+  private void invalidate(UserCardLists lists) {
+    if (lists != null) {
+      lists.pages.clear();
+      cache.asMap().remove(lists.username, lists);
+    }
+  }
+
+  private void index(UserCardLists lists, Page<CardResponse> page) {
+    for (CardResponse card : page.getContent()) {
+      cardIndex.put(card.id(), lists);
+      lists.cardIds.add(card.id());
+      if (card.cardholderId() != null) {
+        cardholderIndex.put(card.cardholderId(), lists);
+        lists.cardholderIds.add(card.cardholderId());
+      }
+    }
+  }
+
+  private void unindex(UserCardLists lists) {
+    lists.cardIds.forEach(cardId -> cardIndex.remove(cardId, lists));
+    lists.cardholderIds.forEach(cardholderId -> cardholderIndex.remove(cardholderId, lists));
+  }
+
+  /**
+   * Сильный ETag по содержимому страницы: одинаковые данные дают одинаковый ETag на всех узлах
+   */
+  static CardListSnapshot snapshot(Page<CardResponse> page) {
+    String content = page.getContent() + "|" + page.getTotalElements() + "|" + page.getNumber()
+        + "|" + page.getSize() + "|" + page.getSort();
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+      return new CardListSnapshot(page, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 недоступен", e);
+    }
+  }
+
+  private record PageKey(String search, int page, int size, String sort) {
+  }
+
+  private static final class UserCardLists {
+    private final String username;
+    private final Map<PageKey, CardListSnapshot> pages = new ConcurrentHashMap<>();
+    private final Set<Long> cardIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> cardholderIds = ConcurrentHashMap.newKeySet();
+
+    private UserCardLists(String username) {
+      this.username = username;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package com.example.bankcards.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.CardListingConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Поддерживает проекцию card_listing по событиям CardChangedEvent.
+ * События после коммита только отмечают карты как ожидающие, отдельный поток раз в flushInterval
+ * перечитывает их из cards одним upsert'ом. Отставание - возраст самого старого ожидающего изменения;
+ * пока оно больше maxStaleness или проекция не перестроена после старта, списки читаются из cards.
+ * Полная перестройка при старте и по расписанию подбирает изменения, события о которых потеряны
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardListingProjector {
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO card_listing (id, owner_id, owner_username, owner_name, card_number_masked, status, balance, " +
+          "is_block_requested, block_requested_at, created_at, search_text, projected_at) " +
+          "SELECT c.id, c.owner_id, h.username, c.owner_name, c.card_number_masked, c.status, c.balance, " +
+          "c.is_block_requested, c.block_requested_at, c.created_at, " +
+          "lower(c.owner_name || ' ' || c.card_number_masked), now() " +
+          "FROM cards c JOIN cardholders h ON h.id = c.owner_id WHERE %s " +
+          "ON CONFLICT (id) DO UPDATE SET owner_id = EXCLUDED.owner_id, owner_username = EXCLUDED.owner_username, " +
+          "owner_name = EXCLUDED.owner_name, card_number_masked = EXCLUDED.card_number_masked, " +
+          "status = EXCLUDED.status, balance = EXCLUDED.balance, " +
+          "is_block_requested = EXCLUDED.is_block_requested, block_requested_at = EXCLUDED.block_requested_at, " +
+          "search_text = EXCLUDED.search_text, projected_at = EXCLUDED.projected_at " +
+          "WHERE (card_listing.owner_id, card_listing.owner_username, card_listing.owner_name, " +
+          "card_listing.card_number_masked, card_listing.status, card_listing.balance, " +
+          "card_listing.is_block_requested, card_listing.block_requested_at) IS DISTINCT FROM " +
+          "(EXCLUDED.owner_id, EXCLUDED.owner_username, EXCLUDED.owner_name, EXCLUDED.card_number_masked, " +
+          "EXCLUDED.status, EXCLUDED.balance, EXCLUDED.is_block_requested, EXCLUDED.block_requested_at)";
+
+  private static final String DELETE_ORPHANS_SQL =
+      "DELETE FROM card_listing l WHERE %s AND NOT EXISTS (SELECT 1 FROM cards c WHERE c.id = l.id)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final CardListingConfig listingConfig;
+  private final MeterRegistry meterRegistry;
+
+  // id -> System.nanoTime() первого неприменённого изменения
+  private final Map<Long, Long> pendingCards = new ConcurrentHashMap<>();
+  private final Map<Long, Long> pendingCardholders = new ConcurrentHashMap<>();
+
+  private volatile boolean ready;
+  private ScheduledExecutorService executor;
+  private Timer propagationTimer;
+  private Counter projectionReads;
+  private Counter cardsReads;
+
+  @PostConstruct
+  void init() {
+    propagationTimer = Timer.builder("bank.card.listing.propagation")
+        .description("Время от коммита изменения карты до его появления в card_listing")
+        .register(meterRegistry);
+    Gauge.builder("bank.card.listing.lag", this, projector -> projector.lagNanos() / 1e9)
+        .description("Возраст самого старого неприменённого изменения, секунды")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    // Счетчики чтений регистрируются один раз: readFromProjection вызывается на каждый запрос списка
+    projectionReads = readsCounter("projection");
+    cardsReads = readsCounter("cards");
+    if (!listingConfig.isEnabled()) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "card-listing-projector");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = listingConfig.getFlushInterval().toMillis();
+    executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCardChanged(CardChangedEvent event) {
+    // Проекция общая для всех узлов, ее обновляет узел, на котором произошло изменение
+    if (event.remote()) {
+      return;
+    }
+    long now = System.nanoTime();
+    event.cardIds().forEach(cardId -> pendingCards.putIfAbsent(cardId, now));
+    if (event.cardholderId() != null) {
+      pendingCardholders.putIfAbsent(event.cardholderId(), now);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (executor != null) {
+      executor.execute(this::rebuildSafely);
+    }
+  }
+
+  @Scheduled(cron = "${bank.listing.reconcile-cron:0 0 * * * *}")
+  public void reconcile() {
+    if (executor != null && ready) {
+      executor.execute(this::rebuildSafely);
+    }
+  }
+
+  /**
+   * true - проекция достаточно свежая и списки читаются из нее
+   */
+  public boolean readFromProjection() {
+    boolean fresh = listingConfig.isEnabled() && ready
+        && lagNanos() <= listingConfig.getMaxStaleness().toNanos();
+    (fresh ? projectionReads : cardsReads).increment();
+    return fresh;
+  }
+
+  private Counter readsCounter(String source) {
+    return Counter.builder("bank.card.listing.reads")
+        .description("Чтения списков карт по источнику")
+        .tag("source", source)
+        .register(meterRegistry);
+  }
+
+  long lagNanos() {
+    long now = System.nanoTime();
+    long oldest = now;
+    for (Long enqueued : pendingCards.values()) {
+      oldest = Math.min(oldest, enqueued);
+    }
+    for (Long enqueued : pendingCardholders.values()) {
+      oldest = Math.min(oldest, enqueued);
+    }
+    return now - oldest;
+  }
+
+  /**
+   * Применяет накопленные изменения пачками по batchSize
+   */
+  void flush() {
+    flushPending(pendingCards, "c.id = ANY(?)", "l.id = ANY(?)");
+    flushPending(pendingCardholders, "c.owner_id = ANY(?)", "l.owner_id = ANY(?)");
+  }
+
+  private void flushPending(Map<Long, Long> pending, String sourceCondition, String orphanCondition) {
+    while (!pending.isEmpty()) {
+      List<Long> ids = new ArrayList<>(listingConfig.getBatchSize());
+      List<Long> enqueuedAt = new ArrayList<>(listingConfig.getBatchSize());
+      for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+        if (ids.size() == listingConfig.getBatchSize()) {
+          break;
+        }
+        // Изменение, пришедшее после снятия отметки, снова попадет в pending и применится следующей пачкой
+        if (pending.remove(entry.getKey(), entry.getValue())) {
+          ids.add(entry.getKey());
+          enqueuedAt.add(entry.getValue());
+        }
+      }
+      if (ids.isEmpty()) {
+        return;
+      }
+      Long[] idArray = ids.toArray(Long[]::new);
+      try {
+        jdbcTemplate.update(UPSERT_SQL.formatted(sourceCondition), (Object) idArray);
+        jdbcTemplate.update(DELETE_ORPHANS_SQL.formatted(orphanCondition), (Object) idArray);
+      } catch (RuntimeException e) {
+        // Отметки возвращаются с исходным временем, отставание продолжает расти
+        for (int i = 0; i < ids.size(); i++) {
+          pending.merge(ids.get(i), enqueuedAt.get(i), Math::min);
+        }
+        throw e;
+      }
+      long now = System.nanoTime();
+      enqueuedAt.forEach(started -> propagationTimer.record(now - started, TimeUnit.NANOSECONDS));
+    }
+  }
+
+  /**
+   * Полная перестройка проекции: upsert всех карт чанками по id и удаление лишних строк
+   */
+  void rebuild() {
+    long started = System.nanoTime();
+    long lastId = 0;
+    long chunks = 0;
+    while (true) {
+      Long upper = jdbcTemplate.queryForObject(
+          "SELECT MAX(id) FROM (SELECT id FROM cards WHERE id > ? ORDER BY id LIMIT ?) c",
+          Long.class, lastId, listingConfig.getBatchSize());
+      if (upper == null) {
+        break;
+      }
+      jdbcTemplate.update(UPSERT_SQL.formatted("c.id > ? AND c.id <= ?"), lastId, upper);
+      lastId = upper;
+      chunks++;
+    }
+    jdbcTemplate.update(DELETE_ORPHANS_SQL.formatted("TRUE"));
+    ready = true;
+    log.info("Card listing projection rebuilt: {} chunks in {} ms", chunks,
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Card listing projection flush failed", e);
+    }
+  }
+
+  private void rebuildSafely() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      log.error("Card listing projection rebuild failed", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
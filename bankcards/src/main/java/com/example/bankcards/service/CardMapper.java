@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardListing;
 
 public class CardMapper {
   public static CardResponse mapToResponse(Card card) {
@@ -16,4 +17,16 @@ public class CardMapper {
         card.getBlockRequestedAt(),
         ownerId);
   }
+
+  public static CardResponse mapToResponse(CardListing listing) {
+    return new CardResponse(
+        listing.getId(),
+        listing.getOwnerName(),
+        listing.getCardNumberMasked(),
+        listing.getStatus(),
+        listing.getBalance(),
+        listing.getIsBlockRequested(),
+        listing.getBlockRequestedAt(),
+        listing.getOwnerId());
+  }
 }
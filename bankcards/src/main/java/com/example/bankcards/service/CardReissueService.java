@@ -0,0 +1,174 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.config.CardReissueConfig;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.util.CardCryptoUtil;
+import com.example.bankcards.util.CardGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Плановый перевыпуск карт за N дней до окончания срока действия.
+ * Чанк карт обрабатывается в одной транзакции: номера генерируются и шифруются параллельно,
+ * новые карты вставляются пакетом, остаток переносится на новую карту и фиксируется переводом,
+ * старая карта блокируется со ссылкой на замену. Скорость ограничена maxCardsPerSecond
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardReissueService {
+
+  static final String LEASE_NAME = "card-reissue";
+
+  private static final String SELECT_CANDIDATES_SQL =
+      "SELECT id, owner_id, owner_name, balance, daily_limit, monthly_limit FROM cards " +
+          "WHERE status = 'ACTIVE' AND replaced_by_card_id IS NULL AND expiry_date < ? " +
+          "ORDER BY expiry_date, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+  private static final String INSERT_CARD_SQL =
+      "INSERT INTO cards (id, card_number_encrypted, card_number_masked, owner_name, expiry_date, status, " +
+          "balance, is_block_requested, owner_id, daily_limit, monthly_limit) " +
+          "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?, false, ?, ?, ?)";
+
+  private static final String REPLACE_CARD_SQL =
+      "UPDATE cards SET balance = 0, status = 'BLOCKED', replaced_by_card_id = ?, version = version + 1, " +
+          "updated_at = now() WHERE id = ?";
+
+  private static final String INSERT_TRANSFER_SQL =
+      "INSERT INTO transactions (from_card_id, to_card_id, amount, description, status) " +
+          "VALUES (?, ?, ?, 'Перенос остатка при перевыпуске карты', 'COMPLETED')";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final JobLeaseService jobLeaseService;
+  private final CardCryptoUtil cardCryptoUtil;
+  private final CardConfig cardConfig;
+  private final CardReissueConfig reissueConfig;
+  private final AuditService auditService;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher eventPublisher;
+
+  // Индивидуальные лимиты списаний переходят на новую карту, null - лимит по умолчанию
+  private record ReissueCandidate(long id, long ownerId, String ownerName, BigDecimal balance,
+      BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+  }
+
+  /**
+   * Перевыпускает все карты, срок которых истекает в ближайшие daysBeforeExpiry дней.
+   * Возвращает количество перевыпущенных карт
+   */
+  @Scheduled(cron = "${bank.reissue.cron:0 15 3 * * *}")
+  public long reissueExpiringCards() {
+    if (!jobLeaseService.tryAcquire(LEASE_NAME, reissueConfig.getLeaseTtl())) {
+      log.debug("Card reissue skipped: lease is held by another node");
+      return 0;
+    }
+
+    LocalDate reissueBefore = LocalDate.now().plusDays(reissueConfig.getDaysBeforeExpiry());
+    Timer chunkTimer = Timer.builder("bank.card.reissue.chunk")
+        .description("Перевыпуск одного чанка карт")
+        .register(meterRegistry);
+    long minChunkNanos = 1_000_000_000L * reissueConfig.getChunkSize() / reissueConfig.getMaxCardsPerSecond();
+    long total = 0;
+    try {
+      while (true) {
+        long started = System.nanoTime();
+        Integer reissued = chunkTimer.record(() -> transactionTemplate.execute(status -> reissueChunk(reissueBefore)));
+        if (reissued == null || reissued == 0) {
+          break;
+        }
+        total += reissued;
+        meterRegistry.counter("bank.card.reissued").increment(reissued);
+
+        if (reissued < reissueConfig.getChunkSize()
+            || !jobLeaseService.tryAcquire(LEASE_NAME, reissueConfig.getLeaseTtl())) {
+          break;
+        }
+        throttle(minChunkNanos - (System.nanoTime() - started));
+      }
+    } finally {
+      jobLeaseService.release(LEASE_NAME);
+    }
+    log.info("Card reissue finished: {} cards reissued", total);
+    return total;
+  }
+
+  private int reissueChunk(LocalDate reissueBefore) {
+    List<ReissueCandidate> candidates = jdbcTemplate.query(SELECT_CANDIDATES_SQL,
+        (rs, rowNum) -> new ReissueCandidate(rs.getLong("id"), rs.getLong("owner_id"), rs.getString("owner_name"),
+            rs.getBigDecimal("balance"), rs.getBigDecimal("daily_limit"), rs.getBigDecimal("monthly_limit")),
+        reissueBefore, reissueConfig.getChunkSize());
+    if (candidates.isEmpty()) {
+      return 0;
+    }
+
+    List<Long> newIds = jdbcTemplate.queryForList(
+        "SELECT nextval(pg_get_serial_sequence('cards', 'id')) FROM generate_series(1, ?)",
+        Long.class, candidates.size());
+    LocalDate expiryDate = LocalDate.now().plusYears(4);
+    String bin = cardConfig.getBin();
+
+    // Генерация и шифрование - чистый CPU, строки уже заблокированы, поэтому параллельно
+    List<Object[]> newCards = IntStream.range(0, candidates.size()).parallel()
+        .mapToObj(i -> {
+          ReissueCandidate candidate = candidates.get(i);
+          String rawCardNumber = CardGenerator.generate(bin);
+          return new Object[] { newIds.get(i), cardCryptoUtil.encrypt(rawCardNumber),
+              cardCryptoUtil.maskCardNumber(rawCardNumber), candidate.ownerName(), expiryDate,
+              candidate.balance(), candidate.ownerId(), candidate.dailyLimit(), candidate.monthlyLimit() };
+        })
+        .toList();
+
+    List<Object[]> replacements = new ArrayList<>(candidates.size());
+    List<Object[]> transfers = new ArrayList<>(candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      ReissueCandidate candidate = candidates.get(i);
+      replacements.add(new Object[] { newIds.get(i), candidate.id() });
+      if (candidate.balance().signum() > 0) {
+        transfers.add(new Object[] { candidate.id(), newIds.get(i), candidate.balance() });
+      }
+    }
+
+    jdbcTemplate.batchUpdate(INSERT_CARD_SQL, newCards);
+    jdbcTemplate.batchUpdate(REPLACE_CARD_SQL, replacements);
+    if (!transfers.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_TRANSFER_SQL, transfers);
+    }
+
+    List<Long> changedIds = new ArrayList<>(newIds);
+    candidates.forEach(candidate -> changedIds.add(candidate.id()));
+    eventPublisher.publishEvent(CardChangedEvent.cards(changedIds));
+
+    auditService.logCardsReissued(candidates.size(), candidates.get(0).id(),
+        candidates.get(candidates.size() - 1).id());
+    return candidates.size();
+  }
+
+  private void throttle(long nanos) {
+    if (nanos <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Перевыпуск карт прерван", e);
+    }
+  }
+}
@@ -5,12 +5,24 @@ import java.math.BigDecimal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.bankcards.dto.BalanceSnapshot;
+import com.example.bankcards.dto.CardListSnapshot;
 import com.example.bankcards.dto.CardResponse;
 
 public interface CardholderCardService {
   Page<CardResponse> findCardholderCards(String search, Pageable pageable);
 
+  CardListSnapshot getCardholderCardList(String search, Pageable pageable);
+
   void requestBlockCard(Long cardId);
 
   BigDecimal getCardholderCardBalance(Long cardId);
+
+  BalanceSnapshot getCardholderCardBalanceSnapshot(Long cardId);
+
+  /**
+   * Long-poll: возвращает баланс, как только его ETag отличается от knownEtag,
+   * либо текущий баланс по истечении timeoutSeconds (не больше bank.balance-poll.max-wait)
+   */
+  BalanceSnapshot awaitCardholderCardBalanceChange(Long cardId, String knownEtag, Integer timeoutSeconds);
 }
@@ -1,22 +1,32 @@
 package com.example.bankcards.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.dto.BalanceSnapshot;
+import com.example.bankcards.dto.CardListSnapshot;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.repository.CardListingRepository;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.ETagUtil;
 import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.kafka.ReliableKafkaSender;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,17 +39,46 @@ public class CardholderCardServiceImpl implements CardholderCardService {
   private final CardRepository cardRepository;
   private final AuditService auditService;
   private final AuthenticationFacade authenticationFacade;
-  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final ReliableKafkaSender kafkaSender;
+  private final CardListingRepository cardListingRepository;
+  private final CardListingProjector cardListingProjector;
+  private final ApplicationEventPublisher eventPublisher;
+  private final CardListCache cardListCache;
+  private final BalanceChangeNotifier balanceChangeNotifier;
+  private final BalancePollConfig balancePollConfig;
 
   @Override
   @Transactional(readOnly = true)
   public Page<CardResponse> findCardholderCards(String search, Pageable pageable) {
+    return findCardholderCards(search, pageable, cardListingProjector.readFromProjection());
+  }
+
+  /**
+   * Страницы для кэша читаются из cards: проекция card_listing отстает до maxStaleness, и страница,
+   * перезагруженная сразу после сброса кэша по CardChangedEvent, закэшировалась бы старой до TTL
+   */
+  @Override
+  public CardListSnapshot getCardholderCardList(String search, Pageable pageable) {
+    boolean fromProjection = !cardListCache.isEnabled() && cardListingProjector.readFromProjection();
+    return cardListCache.get(authenticationFacade.getAuthenticationName(), search, pageable,
+        () -> findCardholderCards(search, pageable, fromProjection));
+  }
+
+  private Page<CardResponse> findCardholderCards(String search, Pageable pageable, boolean fromProjection) {
     Pageable sortedPageable = pageable.isPaged() && pageable.getSort().isUnsorted()
         ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending())
         : pageable;
 
     String cleanSearch = (search != null && !search.isBlank()) ? search.trim() : null;
 
+    if (fromProjection) {
+      auditService.logCardsListView(sortedPageable.getPageSize(), "findByOwnerInListing");
+      return cardListingRepository
+          .searchByOwner(authenticationFacade.getAuthenticationName(),
+              cleanSearch != null ? cleanSearch.toLowerCase() : "", sortedPageable)
+          .map(CardMapper::mapToResponse);
+    }
+
     if (cleanSearch == null || cleanSearch.isEmpty()) {
       auditService.logCardsListView(sortedPageable.getPageSize(), "findByOwner_Username");
       log.debug("User requested list of cards. Page size: {}", sortedPageable.getPageSize());
@@ -74,6 +113,7 @@ public class CardholderCardServiceImpl implements CardholderCardService {
     card.setIsBlockRequested(true);
     card.setBlockRequestedAt(LocalDateTime.now());
     cardRepository.save(card);
+    eventPublisher.publishEvent(CardChangedEvent.cards(card.getId()));
 
     // Аудит блокировки карты пользователем
     auditService.logCardBlocking(card.getId(), card.getCardNumberMasked());
@@ -83,11 +123,16 @@ public class CardholderCardServiceImpl implements CardholderCardService {
         cardId,
         card.getOwner().getId(),
         LocalDateTime.now());
-    kafkaTemplate.send("block-card-topic", event);
+    kafkaSender.send(KafakaConfig.BLOCK_CARD_TOPIC, event);
   }
 
   @Override
   public BigDecimal getCardholderCardBalance(Long cardId) {
+    return getCardholderCardBalanceSnapshot(cardId).balance();
+  }
+
+  @Override
+  public BalanceSnapshot getCardholderCardBalanceSnapshot(Long cardId) {
     return cardRepository
         .findByIdAndOwner_Username(cardId, authenticationFacade.getAuthenticationName())
         .map((card) -> {
@@ -95,9 +140,30 @@ public class CardholderCardServiceImpl implements CardholderCardService {
           auditService.logBalanceView(cardId, card.getCardNumberMasked(), card.getBalance());
           log.debug("User requested balance. Card ID: {}, Masked Number: {}, Balance: {}",
               card.getId(), card.getCardNumberMasked(), balance);
-          return balance;
+          return new BalanceSnapshot(balance, "\"" + card.getVersion() + "\"");
         })
         .orElseThrow(() -> new AccessDeniedException("Доступ запрещен"));
   }
 
+  @Override
+  public BalanceSnapshot awaitCardholderCardBalanceChange(Long cardId, String knownEtag, Integer timeoutSeconds) {
+    Duration maxWait = balancePollConfig.getMaxWait();
+    Duration timeout = timeoutSeconds == null ? maxWait : Duration.ofSeconds(Math.max(0, timeoutSeconds));
+    if (timeout.compareTo(maxWait) > 0) {
+      timeout = maxWait;
+    }
+
+    // Подписка до чтения версии: изменение между чтением и ожиданием не потеряется
+    CompletableFuture<Void> changed = balanceChangeNotifier.subscribe(cardId);
+    try {
+      BalanceSnapshot current = getCardholderCardBalanceSnapshot(cardId);
+      if (!ETagUtil.matches(knownEtag, current.etag()) || !balanceChangeNotifier.await(changed, timeout)) {
+        return current;
+      }
+      return getCardholderCardBalanceSnapshot(cardId);
+    } finally {
+      balanceChangeNotifier.unsubscribe(cardId, changed);
+    }
+  }
+
 }
@@ -0,0 +1,308 @@
+package com.example.bankcards.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.config.CardholderImportConfig;
+import com.example.bankcards.dto.CardholderImportResponse;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.util.CardCryptoUtil;
+import com.example.bankcards.util.CardGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Массовый импорт держателей из CSV (username,email,first_name,last_name) с картой по умолчанию.
+ * Файл читается потоком по чанкам. Номера карт следующего чанка генерируются и шифруются параллельно,
+ * пока текущий чанк пишется в БД. Чанк - одна транзакция: COPY во временную таблицу и один
+ * INSERT ... SELECT в cardholders и cards. Держатели с уже занятым username или email пропускаются,
+ * поэтому прерванный импорт можно запустить повторно с тем же файлом
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardholderImportService {
+
+  private static final String CSV_HEADER = "username,email,first_name,last_name";
+
+  private static final String CREATE_STAGING_SQL =
+      "CREATE TEMP TABLE IF NOT EXISTS cardholder_import (username VARCHAR(100), email VARCHAR(255), " +
+          "first_name VARCHAR(100), last_name VARCHAR(100), owner_name VARCHAR(200), " +
+          "card_number_encrypted VARCHAR(255), card_number_masked VARCHAR(19)) ON COMMIT DELETE ROWS";
+
+  private static final String COPY_SQL =
+      "COPY cardholder_import (username, email, first_name, last_name, owner_name, card_number_encrypted, " +
+          "card_number_masked) FROM STDIN WITH (FORMAT csv)";
+
+  private static final String INSERT_SQL =
+      "WITH inserted AS (" +
+          "INSERT INTO cardholders (username, email, first_name, last_name, enabled) " +
+          "SELECT username, email, first_name, last_name, true FROM cardholder_import " +
+          "ON CONFLICT DO NOTHING RETURNING id, username) " +
+          "INSERT INTO cards (card_number_encrypted, card_number_masked, owner_name, expiry_date, status, balance, " +
+          "is_block_requested, owner_id) " +
+          "SELECT s.card_number_encrypted, s.card_number_masked, s.owner_name, ?, 'ACTIVE', 0, false, i.id " +
+          "FROM inserted i JOIN cardholder_import s ON s.username = i.username RETURNING id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CardCryptoUtil cardCryptoUtil;
+  private final CardConfig cardConfig;
+  private final CardholderImportConfig importConfig;
+  private final AuditService auditService;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher eventPublisher;
+
+  record ImportRow(String username, String email, String firstName, String lastName) {
+  }
+
+  private record PreparedChunk(int rows, byte[] payload) {
+  }
+
+  private static final class ImportStats {
+    // Номер последней прочитанной строки файла, заголовок - строка 1
+    private long line = 1;
+    private long rows;
+    private long imported;
+    private long skipped;
+    private long rejected;
+  }
+
+  public CardholderImportResponse importCsv(InputStream input) throws IOException {
+    long started = System.nanoTime();
+    Timer chunkTimer = Timer.builder("bank.cardholder.import.chunk")
+        .description("Запись одного чанка импорта держателей: COPY и INSERT ... SELECT")
+        .register(meterRegistry);
+    LocalDate expiryDate = LocalDate.now().plusYears(4);
+    ImportStats stats = new ImportStats();
+
+    ExecutorService prepareExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "cardholder-import");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      checkHeader(reader.readLine());
+      CompletableFuture<PreparedChunk> pending = prepareNext(reader, stats, prepareExecutor);
+      while (pending != null) {
+        PreparedChunk chunk = pending.join();
+        // Следующий чанк читается и шифруется, пока текущий идет в БД
+        pending = prepareNext(reader, stats, prepareExecutor);
+        Integer imported = chunkTimer.record(() -> transactionTemplate.execute(status -> writeChunk(chunk, expiryDate)));
+        int count = imported != null ? imported : 0;
+        stats.imported += count;
+        stats.skipped += chunk.rows() - count;
+        meterRegistry.counter("bank.cardholder.imported").increment(count);
+      }
+    } finally {
+      prepareExecutor.shutdownNow();
+    }
+
+    long durationMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+    double rowsPerSecond = stats.rows * 1000.0 / durationMillis;
+    auditService.logCardholdersImported(stats.imported, stats.skipped, stats.rejected);
+    log.info("Cardholder import finished: rows={}, imported={}, skipped={}, rejected={}, {} ms, {} rows/s",
+        stats.rows, stats.imported, stats.skipped, stats.rejected, durationMillis, Math.round(rowsPerSecond));
+    return new CardholderImportResponse(stats.rows, stats.imported, stats.skipped, stats.rejected, durationMillis,
+        rowsPerSecond);
+  }
+
+  private CompletableFuture<PreparedChunk> prepareNext(BufferedReader reader, ImportStats stats,
+      ExecutorService prepareExecutor) throws IOException {
+    List<ImportRow> rows = readChunk(reader, stats);
+    if (rows.isEmpty()) {
+      return null;
+    }
+    return CompletableFuture.supplyAsync(() -> prepare(rows), prepareExecutor);
+  }
+
+  /**
+   * Читает до chunkSize корректных строк. Строки с повтором username или email внутри чанка
+   * считаются пропущенными, повторы между чанками отсекает ON CONFLICT
+   */
+  private List<ImportRow> readChunk(BufferedReader reader, ImportStats stats) throws IOException {
+    int chunkSize = importConfig.getChunkSize();
+    List<ImportRow> rows = new ArrayList<>(chunkSize);
+    Set<String> usernames = new HashSet<>();
+    Set<String> emails = new HashSet<>();
+    String line;
+    while (rows.size() < chunkSize && (line = reader.readLine()) != null) {
+      stats.line++;
+      if (line.isBlank()) {
+        continue;
+      }
+      stats.rows++;
+      ImportRow row = parseRow(line);
+      if (row == null) {
+        reject(stats);
+        continue;
+      }
+      if (usernames.contains(row.username()) || emails.contains(row.email())) {
+        stats.skipped++;
+        continue;
+      }
+      usernames.add(row.username());
+      emails.add(row.email());
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * Номера карт и payload COPY для чанка. Генерация и шифрование - чистый CPU, поэтому параллельно
+   */
+  private PreparedChunk prepare(List<ImportRow> rows) {
+    String bin = cardConfig.getBin();
+    List<String> lines = IntStream.range(0, rows.size()).parallel()
+        .mapToObj(i -> {
+          ImportRow row = rows.get(i);
+          String rawCardNumber = CardGenerator.generate(bin);
+          // Как Cardholder.getCardOwnerName
+          String ownerName = row.firstName().toUpperCase() + " " + row.lastName().toUpperCase();
+          return csvLine(row.username(), row.email(), row.firstName(), row.lastName(), ownerName,
+              cardCryptoUtil.encrypt(rawCardNumber), cardCryptoUtil.maskCardNumber(rawCardNumber));
+        })
+        .toList();
+    StringBuilder payload = new StringBuilder(lines.size() * 160);
+    lines.forEach(payload::append);
+    return new PreparedChunk(rows.size(), payload.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private int writeChunk(PreparedChunk chunk, LocalDate expiryDate) {
+    jdbcTemplate.execute(CREATE_STAGING_SQL);
+    copyIn(chunk.payload());
+    List<Long> cardIds = jdbcTemplate.queryForList(INSERT_SQL, Long.class, expiryDate);
+    if (!cardIds.isEmpty()) {
+      // Проекция card_listing и кэши подхватят новые карты после коммита
+      eventPublisher.publishEvent(CardChangedEvent.cards(cardIds));
+    }
+    return cardIds.size();
+  }
+
+  /**
+   * COPY на соединении текущей транзакции
+   */
+  long copyIn(byte[] payload) {
+    Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, payload));
+    return copied != null ? copied : 0;
+  }
+
+  private static long copy(Connection connection, byte[] payload) throws SQLException {
+    try {
+      return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new ByteArrayInputStream(payload));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void reject(ImportStats stats) {
+    stats.rejected++;
+    if (stats.rejected <= importConfig.getMaxLoggedRejects()) {
+      log.warn("Cardholder import: line {} rejected", stats.line);
+    }
+  }
+
+  private static void checkHeader(String header) {
+    if (header == null) {
+      throw new IllegalArgumentException("Пустой файл импорта");
+    }
+    String normalized = header.replace("\uFEFF", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    if (!CSV_HEADER.equals(normalized)) {
+      throw new IllegalArgumentException("Ожидается заголовок " + CSV_HEADER);
+    }
+  }
+
+  /**
+   * Строка CSV в ImportRow или null, если строка некорректна или не помещается в колонки
+   */
+  static ImportRow parseRow(String line) {
+    List<String> fields = parseLine(line);
+    if (fields == null || fields.size() != 4) {
+      return null;
+    }
+    String username = fields.get(0).trim();
+    String email = fields.get(1).trim();
+    String firstName = fields.get(2).trim();
+    String lastName = fields.get(3).trim();
+    if (username.isEmpty() || username.length() > 100 || email.length() > 255 || email.indexOf('@') < 1
+        || firstName.isEmpty() || firstName.length() > 100 || lastName.isEmpty() || lastName.length() > 100) {
+      return null;
+    }
+    return new ImportRow(username, email, firstName, lastName);
+  }
+
+  /**
+   * Поля строки CSV: кавычки экранируются удвоением, перевод строки внутри поля не поддерживается.
+   * null - незакрытая кавычка
+   */
+  static List<String> parseLine(String line) {
+    List<String> fields = new ArrayList<>(4);
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  // Все поля в кавычках: в формате csv у COPY пустое поле без кавычек - NULL
+  private static String csvLine(String... values) {
+    StringBuilder line = new StringBuilder(160);
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      line.append('"').append(values[i].replace("\"", "\"\"")).append('"');
+    }
+    return line.append('\n').toString();
+  }
+}
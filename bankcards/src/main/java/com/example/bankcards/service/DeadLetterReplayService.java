@@ -0,0 +1,156 @@
+package com.example.bankcards.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.config.KafkaRetryConfig;
+import com.example.bankcards.dto.DeadLetterReplayResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Возвращает записи из dead-letter топика в основной после исправления причины сбоя.
+ * Записи читаются и пишутся байтами, как лежат в DLT, без десериализации. Прочитанное
+ * отмечается offset-ами группы bankcards-dlt-replay, поэтому повторный вызов продолжает с места
+ * остановки, а записи, пришедшие в DLT после начала вызова, ждут следующего
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterReplayService {
+
+  static final String REPLAY_GROUP = "bankcards-dlt-replay";
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+  private final ConsumerFactory<String, byte[]> consumerFactory;
+  private final ProducerFactory<String, byte[]> producerFactory;
+  private final KafkaRetryConfig retryConfig;
+  private final MeterRegistry meterRegistry;
+
+  private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+  @PostConstruct
+  void init() {
+    kafkaTemplate = new KafkaTemplate<>(producerFactory,
+        Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+  }
+
+  public DeadLetterReplayResponse replay(String topic, Integer maxRecords) {
+    if (!KafakaConfig.RETRYABLE_TOPICS.contains(topic)) {
+      throw new IllegalArgumentException("Топик без dead-letter очереди: " + topic);
+    }
+    int limit = maxRecords != null
+        ? Math.min(Math.max(maxRecords, 1), retryConfig.getReplayMaxRecords())
+        : retryConfig.getReplayMaxRecords();
+    String deadLetterTopic = topic + KafakaConfig.DLT_SUFFIX;
+
+    Properties overrides = new Properties();
+    overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+    overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(limit, 500));
+
+    try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, overrides)) {
+      List<PartitionInfo> partitionInfos = consumer.partitionsFor(deadLetterTopic);
+      if (partitionInfos == null || partitionInfos.isEmpty()) {
+        return new DeadLetterReplayResponse(topic, 0, 0);
+      }
+      List<TopicPartition> partitions = partitionInfos.stream()
+          .map(info -> new TopicPartition(deadLetterTopic, info.partition()))
+          .toList();
+      consumer.assign(partitions);
+      Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+      int replayed = 0;
+      while (replayed < limit && !reachedEnd(consumer, partitions, endOffsets)) {
+        Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+        try {
+          for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (replayed >= limit || record.offset() >= endOffsets.get(partition)) {
+              continue;
+            }
+            send(topic, record);
+            processed.put(partition, new OffsetAndMetadata(record.offset() + 1));
+            replayed++;
+          }
+        } finally {
+          // Отправленное до ошибки отмечается, чтобы следующий вызов не вернул его второй раз
+          if (!processed.isEmpty()) {
+            consumer.commitSync(processed);
+          }
+        }
+      }
+
+      meterRegistry.counter("bank.kafka.dlt.replayed", "topic", topic).increment(replayed);
+      long remaining = remaining(consumer, partitions, endOffsets);
+      log.info("Replayed {} records from {}, {} left", replayed, deadLetterTopic, remaining);
+      return new DeadLetterReplayResponse(topic, replayed, remaining);
+    }
+  }
+
+  /**
+   * Служебные заголовки retry и DLT не копируются: в основном топике запись начинает попытки заново
+   */
+  private void send(String topic, ConsumerRecord<String, byte[]> record) {
+    RecordHeaders headers = new RecordHeaders();
+    for (Header header : record.headers()) {
+      if (!header.key().startsWith("kafka_") && !header.key().startsWith("retry_topic-")) {
+        headers.add(header);
+      }
+    }
+    try {
+      kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), headers))
+          .get(retryConfig.getReplaySendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Повтор dead-letter записей прерван", e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new IllegalStateException("Не удалось вернуть запись в " + topic, e);
+    }
+  }
+
+  private static boolean reachedEnd(Consumer<String, byte[]> consumer, List<TopicPartition> partitions,
+      Map<TopicPartition, Long> endOffsets) {
+    return partitions.stream().allMatch(partition -> consumer.position(partition) >= endOffsets.get(partition));
+  }
+
+  private static long remaining(Consumer<String, byte[]> consumer, List<TopicPartition> partitions,
+      Map<TopicPartition, Long> endOffsets) {
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+    return partitions.stream()
+        .mapToLong(partition -> {
+          OffsetAndMetadata offset = committed.get(partition);
+          return Math.max(0, endOffsets.get(partition) - (offset != null ? offset.offset() : 0));
+        })
+        .sum();
+  }
+}
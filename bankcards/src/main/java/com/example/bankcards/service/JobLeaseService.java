@@ -0,0 +1,54 @@
+package com.example.bankcards.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Аренда фоновых задач в таблице job_leases. Задачу выполняет узел, который взял аренду;
+ * аренда истекает сама, если узел упал, поэтому долгие задачи продлевают ее по ходу работы.
+ * Время берется из БД, расхождение часов узлов не влияет
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobLeaseService {
+
+  private static final String NODE_ID = ManagementFactory.getRuntimeMXBean().getName()
+      + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Берет или продлевает аренду. true - задачу выполняет этот узел
+   */
+  public boolean tryAcquire(String name, Duration ttl) {
+    int updated = jdbcTemplate.update(
+        "INSERT INTO job_leases (name, owner, acquired_at, expires_at) " +
+            "VALUES (?, ?, now(), now() + make_interval(secs => ?)) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, " +
+            "acquired_at = CASE WHEN job_leases.owner = EXCLUDED.owner THEN job_leases.acquired_at " +
+            "ELSE EXCLUDED.acquired_at END, " +
+            "expires_at = EXCLUDED.expires_at " +
+            "WHERE job_leases.owner = EXCLUDED.owner OR job_leases.expires_at < now()",
+        name, NODE_ID, (double) ttl.toSeconds());
+    if (updated == 0) {
+      log.debug("Job lease {} is held by another node", name);
+    }
+    return updated > 0;
+  }
+
+  public void release(String name) {
+    jdbcTemplate.update("DELETE FROM job_leases WHERE name = ? AND owner = ?", name, NODE_ID);
+  }
+
+  public String getNodeId() {
+    return NODE_ID;
+  }
+}
@@ -0,0 +1,193 @@
+package com.example.bankcards.service;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import com.example.bankcards.config.JwksConfig;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Источник ключей для проверки подписи JWT. Набор ключей загружается фоновым потоком сразу после
+ * старта и обновляется раз в refreshInterval; старт и запросы не ждут HTTP к серверу авторизации.
+ * Пока обновление идет или падает, запросы проверяются последним загруженным набором
+ * (stale-while-revalidate). Неизвестный kid (ротация ключа) запускает одно внеочередное обновление
+ * не чаще minKeyMissInterval, запрос ждет его не дольше keyMissWait
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JwkSetPrefetcher implements JWKSource<SecurityContext> {
+
+  private final JwksConfig jwksConfig;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicReference<CompletableFuture<JWKSet>> inFlight = new AtomicReference<>();
+  private final AtomicLong lastKeyMissRefresh = new AtomicLong();
+  private volatile JWKSet jwkSet;
+  private volatile long fetchedAt;
+
+  private ScheduledExecutorService scheduler;
+  private RestClient restClient;
+  private Counter keyMisses;
+
+  @PostConstruct
+  void init() {
+    Gauge.builder("bank.jwks.keys", this, JwkSetPrefetcher::keyCount)
+        .description("Ключей в загруженном JWK set")
+        .register(meterRegistry);
+    Gauge.builder("bank.jwks.age", this, JwkSetPrefetcher::ageSeconds)
+        .description("Секунд с последней успешной загрузки JWK set")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    keyMisses = Counter.builder("bank.jwks.key.miss")
+        .description("Токены с kid, которого нет в загруженном JWK set")
+        .register(meterRegistry);
+
+    var requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(jwksConfig.getConnectTimeout());
+    requestFactory.setReadTimeout(jwksConfig.getReadTimeout());
+    restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jwks-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long tick = jwksConfig.getRetryInterval().toMillis();
+    scheduler.scheduleWithFixedDelay(this::refreshIfDue, 0, tick, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+    JWKSet current = jwkSet;
+    if (current == null) {
+      // Набор еще не загружен: ждем первую загрузку, это не промах по kid и не тратит лимит обновлений
+      return await(jwkSelector, refresh());
+    }
+    List<JWK> keys = jwkSelector.select(current);
+    if (!keys.isEmpty()) {
+      return keys;
+    }
+    keyMisses.increment();
+    CompletableFuture<JWKSet> refresh = refreshOnKeyMiss();
+    return refresh == null ? List.of() : await(jwkSelector, refresh);
+  }
+
+  private List<JWK> await(JWKSelector jwkSelector, CompletableFuture<JWKSet> refresh) {
+    try {
+      return jwkSelector.select(refresh.get(jwksConfig.getKeyMissWait().toMillis(), TimeUnit.MILLISECONDS));
+    } catch (TimeoutException | ExecutionException e) {
+      return List.of();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return List.of();
+    }
+  }
+
+  /**
+   * Запускает загрузку набора ключей, если она еще не идет. Одновременно идет не больше одной загрузки
+   */
+  CompletableFuture<JWKSet> refresh() {
+    CompletableFuture<JWKSet> created = new CompletableFuture<>();
+    CompletableFuture<JWKSet> running = inFlight.compareAndExchange(null, created);
+    if (running != null) {
+      return running;
+    }
+    try {
+      scheduler.execute(() -> load(created));
+    } catch (RejectedExecutionException e) {
+      inFlight.set(null);
+      created.completeExceptionally(e);
+    }
+    return created;
+  }
+
+  JWKSet fetch() throws ParseException {
+    String body = restClient.get().uri(jwksConfig.getJwkSetUri()).retrieve().body(String.class);
+    return JWKSet.parse(body).toPublicJWKSet();
+  }
+
+  private void refreshIfDue() {
+    if (jwkSet == null || System.currentTimeMillis() - fetchedAt >= jwksConfig.getRefreshInterval().toMillis()) {
+      refresh();
+    }
+  }
+
+  private CompletableFuture<JWKSet> refreshOnKeyMiss() {
+    CompletableFuture<JWKSet> running = inFlight.get();
+    if (running != null) {
+      return running;
+    }
+    long now = System.nanoTime();
+    long last = lastKeyMissRefresh.get();
+    if (last != 0 && now - last < jwksConfig.getMinKeyMissInterval().toNanos()) {
+      return null;
+    }
+    if (!lastKeyMissRefresh.compareAndSet(last, now)) {
+      return inFlight.get();
+    }
+    return refresh();
+  }
+
+  private void load(CompletableFuture<JWKSet> target) {
+    JWKSet loaded;
+    try {
+      loaded = fetch();
+    } catch (Exception e) {
+      inFlight.set(null);
+      meterRegistry.counter("bank.jwks.refresh", "result", "failure").increment();
+      log.warn("JWK set refresh from {} failed, keeping {} cached keys: {}", jwksConfig.getJwkSetUri(),
+          keyCount(), e.getMessage());
+      target.completeExceptionally(e);
+      return;
+    }
+    jwkSet = loaded;
+    fetchedAt = System.currentTimeMillis();
+    inFlight.set(null);
+    meterRegistry.counter("bank.jwks.refresh", "result", "success").increment();
+    log.debug("JWK set refreshed from {}: {} keys", jwksConfig.getJwkSetUri(), loaded.getKeys().size());
+    target.complete(loaded);
+  }
+
+  private int keyCount() {
+    JWKSet current = jwkSet;
+    return current == null ? 0 : current.getKeys().size();
+  }
+
+  private double ageSeconds() {
+    long loadedAt = fetchedAt;
+    return loadedAt == 0 ? Double.NaN : (System.currentTimeMillis() - loadedAt) / 1000.0;
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.bankcards.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bankcards.config.ProcessedEventsConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Идемпотентность обработчиков событий. markProcessed вызывается в транзакции обработчика первым делом:
+ * вставка в processed_events фиксируется вместе с результатом обработки и откатывается вместе с ним.
+ * Конкурентная доставка того же события ждет на первичном ключе и после коммита первой получает false.
+ * Перед БД стоит кэш id, обработанных на этом узле, - он заполняется только после коммита
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedEventStore {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO processed_events (consumer, event_id, processed_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+  private static final String CLEANUP_SQL = "DELETE FROM processed_events WHERE processed_at < ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ProcessedEventsConfig config;
+  private final MeterRegistry meterRegistry;
+
+  private Cache<String, Boolean> recent;
+  private Counter cachedDuplicates;
+  private Counter storedDuplicates;
+
+  @PostConstruct
+  void init() {
+    recent = Caffeine.newBuilder()
+        .maximumSize(config.getCacheSize())
+        .build();
+    cachedDuplicates = duplicates("cache");
+    storedDuplicates = duplicates("db");
+  }
+
+  /**
+   * Отмечает событие обработанным потребителем consumer. false - событие уже обработано, его нужно пропустить
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean markProcessed(String consumer, UUID eventId) {
+    String key = consumer + ':' + eventId;
+    if (recent.getIfPresent(key) != null) {
+      cachedDuplicates.increment();
+      return false;
+    }
+    boolean inserted = jdbcTemplate.update(INSERT_SQL, consumer, eventId,
+        Timestamp.valueOf(LocalDateTime.now())) > 0;
+    if (!inserted) {
+      storedDuplicates.increment();
+      recent.put(key, Boolean.TRUE);
+      return false;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        recent.put(key, Boolean.TRUE);
+      }
+    });
+    return true;
+  }
+
+  @Scheduled(cron = "${bank.processed-events.cleanup-cron:0 20 0 * * *}")
+  public void cleanup() {
+    LocalDateTime threshold = LocalDateTime.now().minus(config.getRetention());
+    int deleted = jdbcTemplate.update(CLEANUP_SQL, Timestamp.valueOf(threshold));
+    log.info("Removed {} processed event ids older than {}", deleted, threshold);
+  }
+
+  private Counter duplicates(String source) {
+    return Counter.builder("bank.kafka.duplicates")
+        .description("Повторно доставленные события, отброшенные без обработки")
+        .tag("source", source)
+        .register(meterRegistry);
+  }
+}
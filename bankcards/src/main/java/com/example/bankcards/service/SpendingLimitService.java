@@ -0,0 +1,387 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.SpendingLimitConfig;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.SpendingLimitExceededException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Дневные и месячные лимиты списаний по карте.
+ * Проверка идет только по счетчикам в памяти: ConcurrentHashMap по id карты, блокировка только
+ * на счетчике своей карты, запросов к БД на пути перевода нет. Списания после коммита перевода
+ * копятся по (карта, день) и раз в flushInterval пишутся в агрегат card_spending одним пакетом
+ * вместе с отметкой last_transaction_id - id последнего записанного перевода.
+ * Счетчик поднимается при первом обращении и перечитывается раз в resyncInterval: агрегат плюс
+ * переводы карты из transactions после отметки. Так учитываются и списания других узлов, и
+ * хвост, не записанный до падения узла. Откат перевода возвращает резерв
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpendingLimitService {
+
+  static final String PERIOD_DAY = "DAY";
+  static final String PERIOD_MONTH = "MONTH";
+
+  // Суммы уже проверены по счетчикам, здесь только накопление
+  private static final String FLUSH_SQL =
+      "INSERT INTO card_spending (card_id, period_type, period_start, amount, last_transaction_id) " +
+          "VALUES (?, 'DAY', ?, ?, ?), (?, 'MONTH', ?, ?, ?) " +
+          "ON CONFLICT (card_id, period_type, period_start) DO UPDATE " +
+          "SET amount = card_spending.amount + EXCLUDED.amount, " +
+          "last_transaction_id = GREATEST(card_spending.last_transaction_id, EXCLUDED.last_transaction_id), " +
+          "updated_at = now()";
+
+  // Агрегат и хвост переводов после его отметки одним запросом, чтобы они не разошлись с параллельной записью
+  private static final String LOAD_SQL =
+      "WITH spent AS (SELECT period_type, amount, last_transaction_id FROM card_spending WHERE card_id = ? " +
+          "AND ((period_type = 'DAY' AND period_start = ?) OR (period_type = 'MONTH' AND period_start = ?))) " +
+          "SELECT period_type, amount FROM spent " +
+          "UNION ALL SELECT 'DAY', COALESCE(SUM(t.amount), 0) FROM transactions t " +
+          "WHERE t.from_card_id = ? AND t.status = 'COMPLETED' AND t.created_at >= ? " +
+          "AND t.id > COALESCE((SELECT last_transaction_id FROM spent WHERE period_type = 'DAY'), 0) " +
+          "UNION ALL SELECT 'MONTH', COALESCE(SUM(t.amount), 0) FROM transactions t " +
+          "WHERE t.from_card_id = ? AND t.status = 'COMPLETED' AND t.created_at >= ? " +
+          "AND t.id > COALESCE((SELECT last_transaction_id FROM spent WHERE period_type = 'MONTH'), 0)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final SpendingLimitConfig limitConfig;
+
+  private final ConcurrentHashMap<Long, SpendingCounter> counters = new ConcurrentHashMap<>();
+  // Закоммиченные, но еще не записанные в card_spending списания
+  private final ConcurrentHashMap<PendingKey, PendingSpend> pending = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService executor;
+
+  private record PendingKey(long cardId, LocalDate day) {
+  }
+
+  private record PendingSpend(long cents, long lastTransactionId) {
+
+    PendingSpend plus(PendingSpend other) {
+      return new PendingSpend(cents + other.cents, Math.max(lastTransactionId, other.lastTransactionId));
+    }
+  }
+
+  private record ReservationKey(long cardId) {
+  }
+
+  @PostConstruct
+  void init() {
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "spending-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = limitConfig.getFlushInterval().toMillis();
+    executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    // Дописываем накопленное, иначе после рестарта счетчики поднимутся без последних списаний
+    flushSafely();
+  }
+
+  /**
+   * Резервирует сумму в дневном и месячном лимитах карты. Вызывается внутри транзакции перевода:
+   * после коммита сумма уходит в очередь записи в card_spending, после отката возвращается в лимит
+   */
+  public void reserve(Card card, BigDecimal amount) {
+    LocalDate today = LocalDate.now();
+    BigDecimal dailyLimit = card.getDailyLimit() != null ? card.getDailyLimit() : limitConfig.getDailyDefault();
+    BigDecimal monthlyLimit = card.getMonthlyLimit() != null ? card.getMonthlyLimit() : limitConfig.getMonthlyDefault();
+    long cents = toCents(amount);
+    Long cardId = card.getId();
+
+    SpendingCounter counter = counterFor(cardId, today);
+    String exceeded = counter.tryReserve(today, cents, toCents(dailyLimit), toCents(monthlyLimit));
+    if (exceeded != null) {
+      log.debug("Spending limit exceeded. Card: {}, Amount: {}, Period: {}", cardId, amount, exceeded);
+      throw new SpendingLimitExceededException(exceededMessage(exceeded));
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      committed(cardId, counter, today, cents, 0);
+      return;
+    }
+    Reservation reservation = new Reservation(cardId, counter, today, cents);
+    TransactionSynchronizationManager.registerSynchronization(reservation);
+    ReservationKey key = new ReservationKey(cardId);
+    if (!TransactionSynchronizationManager.hasResource(key)) {
+      TransactionSynchronizationManager.bindResource(key, reservation);
+    }
+  }
+
+  /**
+   * Привязывает резерв текущей транзакции к записи перевода в transactions. Без id перевод после
+   * записи в card_spending еще раз попадет в хвост при загрузке счетчика: лимит строже, но не нарушается
+   */
+  public void attachTransaction(Long cardId, Long transactionId) {
+    Object bound = TransactionSynchronizationManager.getResource(new ReservationKey(cardId));
+    if (bound instanceof Reservation reservation && transactionId != null) {
+      reservation.transactionId = transactionId;
+    }
+  }
+
+  /**
+   * Пишет накопленные списания в card_spending одной транзакцией и возвращает число записанных пар
+   * (карта, день). При ошибке суммы остаются в очереди до следующей записи
+   */
+  int flush() {
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    Map<PendingKey, PendingSpend> batch = new HashMap<>(pending);
+    List<Object[]> rows = new ArrayList<>(batch.size());
+    batch.forEach((key, spend) -> {
+      BigDecimal amount = BigDecimal.valueOf(spend.cents(), 2);
+      rows.add(new Object[] { key.cardId(), key.day(), amount, spend.lastTransactionId(),
+          key.cardId(), key.day().withDayOfMonth(1), amount, spend.lastTransactionId() });
+    });
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, rows));
+    // Вычитаем записанное: суммы, добавленные во время записи, остаются до следующего раза
+    batch.forEach((key, flushed) -> pending.computeIfPresent(key, (k, left) -> left.cents() == flushed.cents()
+        ? null : new PendingSpend(left.cents() - flushed.cents(), left.lastTransactionId())));
+    return batch.size();
+  }
+
+  /**
+   * Сбрасывает счетчики за прошедшие дни и удаляет из card_spending строки прошлых периодов
+   */
+  @Scheduled(cron = "${bank.limits.cleanup-cron:0 10 0 * * *}")
+  public void cleanup() {
+    LocalDate today = LocalDate.now();
+    counters.forEach((cardId, counter) -> {
+      synchronized (counter) {
+        if (counter.isStale(today)) {
+          counter.retired = true;
+          counters.remove(cardId, counter);
+        }
+      }
+    });
+    int deleted = jdbcTemplate.update(
+        "DELETE FROM card_spending WHERE (period_type = 'DAY' AND period_start < ?) " +
+            "OR (period_type = 'MONTH' AND period_start < ?)",
+        today, today.withDayOfMonth(1));
+    log.debug("Spending counters cleaned up: {} in memory, {} rows deleted", counters.size(), deleted);
+  }
+
+  private void flushSafely() {
+    try {
+      int written = flush();
+      if (written > 0) {
+        log.debug("Spending flushed to card_spending: {} card days", written);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Spending flush failed, {} card days stay queued: {}", pending.size(), e.getMessage());
+    }
+  }
+
+  /**
+   * Списание зафиксировано. Под блокировкой счетчика, чтобы не разойтись с его перечитыванием:
+   * если счетчик уже заменен, новый загружен без этой суммы и получает ее здесь
+   */
+  private void committed(Long cardId, SpendingCounter counter, LocalDate day, long cents, long transactionId) {
+    synchronized (counter) {
+      pending.merge(new PendingKey(cardId, day), new PendingSpend(cents, transactionId), PendingSpend::plus);
+      if (counter.retired) {
+        SpendingCounter current = counters.get(cardId);
+        if (current != null) {
+          current.add(day, cents);
+        }
+      }
+    }
+  }
+
+  private SpendingCounter counterFor(Long cardId, LocalDate today) {
+    SpendingCounter counter = counters.get(cardId);
+    if (counter == null) {
+      // Загрузка вне блокировки ConcurrentHashMap: при гонке остается первый загруженный счетчик
+      SpendingCounter loaded = load(cardId, today);
+      SpendingCounter existing = counters.putIfAbsent(cardId, loaded);
+      return existing != null ? existing : loaded;
+    }
+    if (!counter.isResyncDue(System.nanoTime(), limitConfig.getResyncInterval().toNanos())) {
+      return counter;
+    }
+    synchronized (counter) {
+      if (counter.retired) {
+        SpendingCounter current = counters.get(cardId);
+        return current != null ? current : counterFor(cardId, today);
+      }
+      SpendingCounter reloaded = load(cardId, today);
+      counter.retired = true;
+      counters.put(cardId, reloaded);
+      return reloaded;
+    }
+  }
+
+  /**
+   * Незаписанные списания этого узла уже есть в transactions после отметки, очередь не читается.
+   * Перевод, закоммиченный между загрузкой и afterCompletion, посчитается дважды до следующего
+   * перечитывания, но не потеряется
+   */
+  private SpendingCounter load(Long cardId, LocalDate today) {
+    long[] spent = new long[2];
+    LocalDate monthStart = today.withDayOfMonth(1);
+    jdbcTemplate.query(LOAD_SQL, rs -> {
+      int index = PERIOD_DAY.equals(rs.getString("period_type")) ? 0 : 1;
+      spent[index] += toCents(rs.getBigDecimal("amount"));
+    }, cardId, today, monthStart, cardId, today.atStartOfDay(), cardId, monthStart.atStartOfDay());
+    return new SpendingCounter(today, spent[0], spent[1]);
+  }
+
+  private static String exceededMessage(String period) {
+    if (PERIOD_DAY.equals(period)) {
+      return "Превышен дневной лимит списаний по карте";
+    }
+    if (PERIOD_MONTH.equals(period)) {
+      return "Превышен месячный лимит списаний по карте";
+    }
+    return "Превышен лимит списаний по карте";
+  }
+
+  private static long toCents(BigDecimal amount) {
+    return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /**
+   * Резерв суммы в транзакции перевода: после коммита уходит в очередь записи, после отката возвращается
+   */
+  private final class Reservation implements TransactionSynchronization {
+    private final long cardId;
+    private final SpendingCounter counter;
+    private final LocalDate day;
+    private final long cents;
+    private long transactionId;
+
+    private Reservation(long cardId, SpendingCounter counter, LocalDate day, long cents) {
+      this.cardId = cardId;
+      this.counter = counter;
+      this.day = day;
+      this.cents = cents;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(new ReservationKey(cardId));
+      if (status == STATUS_COMMITTED) {
+        committed(cardId, counter, day, cents, transactionId);
+      } else {
+        counter.release(day, cents);
+      }
+    }
+  }
+
+  /**
+   * Списания по одной карте за текущие день и месяц в копейках
+   */
+  static final class SpendingCounter {
+    private final long loadedAt = System.nanoTime();
+    // Заменен перечитанным счетчиком или удален очисткой; меняется под блокировкой счетчика
+    boolean retired;
+    private LocalDate day;
+    private YearMonth month;
+    private long daySpent;
+    private long monthSpent;
+
+    SpendingCounter(LocalDate day, long daySpent, long monthSpent) {
+      this.day = day;
+      this.month = YearMonth.from(day);
+      this.daySpent = daySpent;
+      this.monthSpent = monthSpent;
+    }
+
+    /**
+     * Резервирует сумму; возвращает период, лимит которого был бы превышен, или null
+     */
+    synchronized String tryReserve(LocalDate today, long cents, long dailyLimit, long monthlyLimit) {
+      roll(today);
+      if (daySpent + cents > dailyLimit) {
+        return PERIOD_DAY;
+      }
+      if (monthSpent + cents > monthlyLimit) {
+        return PERIOD_MONTH;
+      }
+      daySpent += cents;
+      monthSpent += cents;
+      return null;
+    }
+
+    synchronized void release(LocalDate reservedOn, long cents) {
+      if (reservedOn.equals(day)) {
+        daySpent -= cents;
+      }
+      if (YearMonth.from(reservedOn).equals(month)) {
+        monthSpent -= cents;
+      }
+    }
+
+    synchronized void add(LocalDate spentOn, long cents) {
+      roll(spentOn);
+      if (spentOn.equals(day)) {
+        daySpent += cents;
+      }
+      if (YearMonth.from(spentOn).equals(month)) {
+        monthSpent += cents;
+      }
+    }
+
+    boolean isResyncDue(long now, long resyncIntervalNanos) {
+      return now - loadedAt >= resyncIntervalNanos;
+    }
+
+    synchronized boolean isStale(LocalDate today) {
+      return day.isBefore(today);
+    }
+
+    synchronized long getDaySpent() {
+      return daySpent;
+    }
+
+    synchronized long getMonthSpent() {
+      return monthSpent;
+    }
+
+    private void roll(LocalDate today) {
+      if (today.equals(day)) {
+        return;
+      }
+      if (!YearMonth.from(today).equals(month)) {
+        month = YearMonth.from(today);
+        monthSpent = 0;
+      }
+      day = today;
+      daySpent = 0;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package com.example.bankcards.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.config.StatementJobConfig;
+import com.example.bankcards.dto.StatementJobResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Формирование месячных выписок по всем картам.
+ * Карты обходятся по id чанками, чанки одной волны выполняются параллельно, каждый - одним
+ * INSERT ... SELECT. После волны в statement_job_checkpoints сохраняется последний id,
+ * перезапуск продолжает с него, а повторно обработанные карты отсекает ON CONFLICT
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementJobService {
+
+  static final String LEASE_NAME = "statement-job";
+
+  private static final String STATUS_RUNNING = "RUNNING";
+  private static final String STATUS_COMPLETED = "COMPLETED";
+  private static final String STATUS_FAILED = "FAILED";
+
+  // Остаток на конец периода восстанавливается от текущего баланса вычитанием движений после периода
+  private static final String INSERT_STATEMENTS_SQL = "WITH chunk AS (" +
+      "  SELECT id, balance FROM cards WHERE id > ? AND id <= ? AND created_at < ?" +
+      "), moves AS (" +
+      "  SELECT t.to_card_id AS card_id, t.amount AS delta, t.created_at FROM transactions t" +
+      "  JOIN chunk ON chunk.id = t.to_card_id WHERE t.created_at >= ?" +
+      "  UNION ALL" +
+      "  SELECT t.from_card_id, -t.amount, t.created_at FROM transactions t" +
+      "  JOIN chunk ON chunk.id = t.from_card_id WHERE t.created_at >= ?" +
+      "), totals AS (" +
+      "  SELECT card_id," +
+      "    SUM(CASE WHEN created_at < ? AND delta > 0 THEN delta ELSE 0 END) AS total_in," +
+      "    SUM(CASE WHEN created_at < ? AND delta < 0 THEN -delta ELSE 0 END) AS total_out," +
+      "    COUNT(*) FILTER (WHERE created_at < ?) AS transaction_count," +
+      "    SUM(CASE WHEN created_at >= ? THEN delta ELSE 0 END) AS net_after" +
+      "  FROM moves GROUP BY card_id" +
+      ") " +
+      "INSERT INTO card_statements (card_id, period, opening_balance, total_in, total_out, closing_balance," +
+      "  transaction_count) " +
+      "SELECT c.id, ?," +
+      "  c.balance - COALESCE(t.net_after, 0) - COALESCE(t.total_in, 0) + COALESCE(t.total_out, 0)," +
+      "  COALESCE(t.total_in, 0), COALESCE(t.total_out, 0)," +
+      "  c.balance - COALESCE(t.net_after, 0)," +
+      "  COALESCE(t.transaction_count, 0) " +
+      "FROM chunk c LEFT JOIN totals t ON t.card_id = c.id " +
+      "ON CONFLICT (card_id, period) DO NOTHING";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JobLeaseService jobLeaseService;
+  private final StatementJobConfig jobConfig;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+
+  /**
+   * Выписки за прошедший месяц, по расписанию в начале следующего
+   */
+  @Scheduled(cron = "${bank.statements.cron:0 30 1 1 * *}")
+  public void generatePreviousMonth() {
+    run(YearMonth.now().minusMonths(1));
+  }
+
+  /**
+   * Запускает формирование в фоне и сразу возвращает состояние контрольной точки
+   */
+  public StatementJobResponse start(YearMonth period) {
+    if (!period.isBefore(YearMonth.now())) {
+      throw new IllegalArgumentException("Выписку можно сформировать только за завершенный месяц");
+    }
+    if (running.get()) {
+      throw new IllegalStateException("Формирование выписок уже выполняется");
+    }
+    launcher.execute(() -> run(period));
+    return getStatus(period);
+  }
+
+  public StatementJobResponse getStatus(YearMonth period) {
+    List<StatementJobResponse> rows = jdbcTemplate.query(
+        "SELECT status, last_card_id, processed_cards, started_at, updated_at, completed_at " +
+            "FROM statement_job_checkpoints WHERE period = ?",
+        (rs, rowNum) -> new StatementJobResponse(period,
+            rs.getString("status"),
+            rs.getLong("last_card_id"),
+            rs.getLong("processed_cards"),
+            toLocalDateTime(rs.getTimestamp("started_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("completed_at"))),
+        period.atDay(1));
+    return rows.isEmpty()
+        ? new StatementJobResponse(period, "NOT_STARTED", 0L, 0L, null, null, null)
+        : rows.get(0);
+  }
+
+  /**
+   * Формирует выписки за период, продолжая с контрольной точки
+   */
+  public void run(YearMonth period) {
+    if (!running.compareAndSet(false, true)) {
+      log.warn("Statement job for {} skipped: another run is in progress", period);
+      return;
+    }
+    if (!jobLeaseService.tryAcquire(LEASE_NAME, jobConfig.getLeaseTtl())) {
+      running.set(false);
+      log.info("Statement job for {} skipped: lease is held by another node", period);
+      return;
+    }
+    LocalDate periodDate = period.atDay(1);
+    try {
+      jdbcTemplate.update("INSERT INTO statement_job_checkpoints (period, last_card_id, status, processed_cards) " +
+          "VALUES (?, 0, 'RUNNING', 0) ON CONFLICT (period) DO NOTHING", periodDate);
+      StatementJobResponse checkpoint = getStatus(period);
+      if (STATUS_COMPLETED.equals(checkpoint.status())) {
+        log.info("Statements for {} are already generated", period);
+        return;
+      }
+      jdbcTemplate.update("UPDATE statement_job_checkpoints SET status = ?, started_at = COALESCE(started_at, ?), " +
+          "updated_at = ? WHERE period = ?", STATUS_RUNNING, LocalDateTime.now(), LocalDateTime.now(), periodDate);
+      log.info("Statement job for {} started from card id {}", period, checkpoint.lastCardId());
+
+      processWaves(period, checkpoint.lastCardId());
+
+      jdbcTemplate.update("UPDATE statement_job_checkpoints SET status = ?, completed_at = ?, updated_at = ? " +
+          "WHERE period = ?", STATUS_COMPLETED, LocalDateTime.now(), LocalDateTime.now(), periodDate);
+      log.info("Statement job for {} completed", period);
+    } catch (RuntimeException e) {
+      log.error("Statement job for {} failed", period, e);
+      jdbcTemplate.update("UPDATE statement_job_checkpoints SET status = ?, updated_at = ? WHERE period = ?",
+          STATUS_FAILED, LocalDateTime.now(), periodDate);
+    } finally {
+      jobLeaseService.release(LEASE_NAME);
+      running.set(false);
+    }
+  }
+
+  private void processWaves(YearMonth period, long startAfterId) {
+    LocalDate periodDate = period.atDay(1);
+    LocalDateTime periodStart = periodDate.atStartOfDay();
+    LocalDateTime periodEnd = period.plusMonths(1).atDay(1).atStartOfDay();
+    Timer chunkTimer = Timer.builder("bank.statement.chunk")
+        .description("Формирование выписок по одному чанку карт")
+        .register(meterRegistry);
+
+    long lastId = startAfterId;
+    try (ExecutorService workers = Executors.newFixedThreadPool(jobConfig.getParallelism())) {
+      while (true) {
+        List<long[]> chunks = nextWave(lastId);
+        if (chunks.isEmpty()) {
+          return;
+        }
+        List<CompletableFuture<Integer>> results = new ArrayList<>(chunks.size());
+        for (long[] chunk : chunks) {
+          results.add(CompletableFuture.supplyAsync(() -> chunkTimer.record(() -> jdbcTemplate.update(
+              INSERT_STATEMENTS_SQL,
+              chunk[0], chunk[1], periodEnd,
+              periodStart, periodStart,
+              periodEnd, periodEnd, periodEnd, periodEnd,
+              periodDate)), workers));
+        }
+        long inserted = results.stream().mapToLong(CompletableFuture::join).sum();
+
+        // Контрольная точка сдвигается только после завершения всей волны
+        lastId = chunks.get(chunks.size() - 1)[1];
+        jdbcTemplate.update("UPDATE statement_job_checkpoints SET last_card_id = ?, " +
+            "processed_cards = processed_cards + ?, updated_at = ? WHERE period = ?",
+            lastId, inserted, LocalDateTime.now(), periodDate);
+        meterRegistry.counter("bank.statement.cards").increment(inserted);
+        log.debug("Statement wave for {} done: {} chunks, {} statements, last card id {}",
+            period, chunks.size(), inserted, lastId);
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, jobConfig.getLeaseTtl())) {
+          throw new IllegalStateException("Аренда задачи формирования выписок потеряна");
+        }
+
+        pause();
+      }
+    }
+  }
+
+  /**
+   * Границы (после id, до id включительно) следующих чанков по индексу первичного ключа
+   */
+  private List<long[]> nextWave(long afterId) {
+    List<long[]> chunks = new ArrayList<>(jobConfig.getParallelism());
+    long lower = afterId;
+    for (int i = 0; i < jobConfig.getParallelism(); i++) {
+      Long upper = jdbcTemplate.queryForObject(
+          "SELECT MAX(id) FROM (SELECT id FROM cards WHERE id > ? ORDER BY id LIMIT ?) c",
+          Long.class, lower, jobConfig.getChunkSize());
+      if (upper == null) {
+        break;
+      }
+      chunks.add(new long[] { lower, upper });
+      lower = upper;
+    }
+    return chunks;
+  }
+
+  private void pause() {
+    if (jobConfig.getPauseBetweenWaves().isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(jobConfig.getPauseBetweenWaves());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Формирование выписок прервано", e);
+    }
+  }
+
+  private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+    return timestamp != null ? timestamp.toLocalDateTime() : null;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    launcher.shutdownNow();
+  }
+}
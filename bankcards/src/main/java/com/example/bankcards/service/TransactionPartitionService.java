@@ -0,0 +1,99 @@
+package com.example.bankcards.service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.config.TransactionPartitionConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Обслуживание месячных секций таблицы transactions: создает секции наперед и отсоединяет
+ * старые для архивации. Отсоединенная секция остается обычной таблицей transactions_pYYYYMM,
+ * ее выгружают и удаляют вне приложения
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionService {
+
+  private static final String PARTITION_PREFIX = "transactions_p";
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+  private static final Pattern PARTITION_NAME = Pattern.compile("^transactions_p(\\d{6})$");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionPartitionConfig partitionConfig;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${bank.transactions.partitions.maintenance-cron:0 0 3 * * *}")
+  public void maintainPartitions() {
+    YearMonth current = YearMonth.now();
+    for (int i = 0; i <= partitionConfig.getMonthsAhead(); i++) {
+      createPartition(current.plusMonths(i));
+    }
+    if (partitionConfig.getRetentionMonths() > 0) {
+      YearMonth oldestKept = current.minusMonths(partitionConfig.getRetentionMonths());
+      for (YearMonth month : findAttachedPartitions()) {
+        if (month.isBefore(oldestKept)) {
+          detachPartition(month);
+        }
+      }
+    }
+  }
+
+  /**
+   * Создает секцию месяца, если ее еще нет
+   */
+  public void createPartition(YearMonth month) {
+    try {
+      jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+          + " PARTITION OF transactions FOR VALUES FROM ('" + month.atDay(1)
+          + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    } catch (DataAccessException e) {
+      // Параллельный запуск на другом узле или строки месяца уже лежат в секции по умолчанию
+      log.warn("Failed to create transactions partition {}: {}", partitionName(month), e.getMessage());
+    }
+  }
+
+  /**
+   * Отсоединяет секцию месяца от transactions. Данные остаются в таблице transactions_pYYYYMM
+   */
+  public void detachPartition(YearMonth month) {
+    String name = partitionName(month);
+    jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + name);
+    log.info("Transactions partition {} detached for archival", name);
+  }
+
+  List<YearMonth> findAttachedPartitions() {
+    List<String> names = jdbcTemplate.queryForList(
+        "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'transactions'",
+        String.class);
+    List<YearMonth> months = new ArrayList<>();
+    for (String name : names) {
+      Matcher matcher = PARTITION_NAME.matcher(name);
+      if (matcher.matches()) {
+        months.add(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX));
+      }
+    }
+    return months;
+  }
+
+  private static String partitionName(YearMonth month) {
+    return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+  }
+}
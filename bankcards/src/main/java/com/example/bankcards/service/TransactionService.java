@@ -1,7 +1,10 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.InternalTransferRequest;
+import com.example.bankcards.dto.TransactionHistoryResponse;
 
 public interface TransactionService {
   void transferBetweenOwnCards(InternalTransferRequest request);
+
+  TransactionHistoryResponse getCardTransactions(Long cardId, String cursor, Integer limit);
 }
@@ -1,16 +1,40 @@
 package com.example.bankcards.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.bankcards.dto.InternalTransferRequest;
+import com.example.bankcards.dto.TransactionHistoryResponse;
+import com.example.bankcards.dto.TransactionResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.exception.CardExpiredException;
 import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.SpendingLimitExceededException;
+import com.example.bankcards.jfr.TransferEvent;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
+import com.example.common.auth.event.TransferCompletedEvent;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,17 +45,69 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
+  static final int DEFAULT_HISTORY_LIMIT = 20;
+  static final int MAX_HISTORY_LIMIT = 100;
+
+  // Все значения transferOutcome: таймеры регистрируются один раз, а не на каждый перевод
+  private static final List<String> TRANSFER_OUTCOMES = List.of("success", "insufficient_funds", "limit_exceeded",
+      "expired", "blocked", "not_found", "invalid", "conflict", "error");
+
   private final AuthenticationFacade authenticationFacade;
   private final CardRepository cardRepository;
   private final TransactionRepository transactionRepository;
   private final AuditService auditService;
+  private final SpendingLimitService spendingLimitService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MeterRegistry meterRegistry;
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<String, Timer> transferTimers = new HashMap<>();
+
+  @PostConstruct
+  void init() {
+    for (String outcome : TRANSFER_OUTCOMES) {
+      transferTimers.put(outcome, Timer.builder("bank.transfer")
+          .description("Переводы между своими картами")
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+  }
 
+  /**
+   * Транзакция открывается внутри, а не аннотацией: исход в bank.transfer и TransferEvent фиксируется
+   * после коммита, поэтому ошибка flush или коммита (например, конфликт версий карты) не считается успехом
+   */
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public void transferBetweenOwnCards(InternalTransferRequest request) {
+    TransferEvent event = new TransferEvent();
+    event.begin();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try {
+      transactionTemplate.executeWithoutResult(status -> transfer(request, event));
+      outcome = "success";
+    } catch (RuntimeException e) {
+      outcome = transferOutcome(e);
+      throw e;
+    } finally {
+      sample.stop(transferTimers.get(outcome));
+      event.end();
+      if (event.shouldCommit()) {
+        event.fromCardId = request.fromCardId();
+        event.toCardId = request.toCardId();
+        event.outcome = outcome;
+        event.commit();
+      }
+    }
+  }
+
+  private void transfer(InternalTransferRequest request, TransferEvent event) {
     if (request.fromCardId().equals(request.toCardId())) {
       throw new IllegalArgumentException("Нельзя переводить средства на ту же карту");
     }
 
+    long cardLoadStart = System.nanoTime();
     Card fromCard = cardRepository
         .findByIdAndOwner_Username(request.fromCardId(), authenticationFacade.getAuthenticationName())
         .orElseThrow(() -> new EntityNotFoundException("Карта списания не найдена"));
@@ -39,7 +115,15 @@ public class TransactionServiceImpl implements TransactionService {
     Card toCard = cardRepository.findByIdAndOwner_Username(request.toCardId(), authenticationFacade
         .getAuthenticationName())
         .orElseThrow(() -> new EntityNotFoundException("Карта зачисления не найдена"));
+    event.cardLoadTime = System.nanoTime() - cardLoadStart;
 
+    // Истекшая карта могла еще не попасть под CardExpirySweeper
+    if (isExpired(fromCard)) {
+      throw new CardExpiredException("Срок действия карты списания истек");
+    }
+    if (isExpired(toCard)) {
+      throw new CardExpiredException("Срок действия карты зачисления истек");
+    }
     if (fromCard.getStatus() != CardStatus.ACTIVE) {
       throw new IllegalStateException("Карта списания заблокирована");
     }
@@ -49,6 +133,7 @@ public class TransactionServiceImpl implements TransactionService {
     if (fromCard.getBalance().compareTo(request.amount()) < 0) {
       throw new InsufficientFundsException("Недостаточно средств");
     }
+    spendingLimitService.reserve(fromCard, request.amount());
 
     fromCard.setBalance(fromCard.getBalance().subtract(request.amount()));
     toCard.setBalance(toCard.getBalance().add(request.amount()));
@@ -62,6 +147,12 @@ public class TransactionServiceImpl implements TransactionService {
         .build();
 
     Transaction savedTx = transactionRepository.save(tx);
+    spendingLimitService.attachTransaction(fromCard.getId(), savedTx.getId());
+
+    // Уходит в Kafka после коммита, см. TransferEventPublisher
+    eventPublisher.publishEvent(new TransferCompletedEvent(savedTx.getId(), fromCard.getId(), toCard.getId(),
+        fromCard.getOwner().getId(), request.amount(), LocalDateTime.now()));
+    eventPublisher.publishEvent(CardChangedEvent.cards(fromCard.getId(), toCard.getId()));
 
     // Аудит перевода денег
     auditService.logTransfer(fromCard.getId(), toCard.getId(),
@@ -72,4 +163,132 @@ public class TransactionServiceImpl implements TransactionService {
         fromCard.getCardNumberMasked(), toCard.getCardNumberMasked(),
         request.amount(), savedTx.getId());
   }
+
+  /**
+   * История операций карты с keyset-пагинацией по (created_at, id). Месячные окна
+   * обходятся от курсора назад до месяца выпуска карты, пока страница не заполнится
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public TransactionHistoryResponse getCardTransactions(Long cardId, String cursor, Integer limit) {
+    int pageSize = limit != null ? limit : DEFAULT_HISTORY_LIMIT;
+    if (pageSize < 1 || pageSize > MAX_HISTORY_LIMIT) {
+      throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_HISTORY_LIMIT);
+    }
+
+    Card card = cardRepository.findByIdAndOwner_Username(cardId, authenticationFacade.getAuthenticationName())
+        .orElseThrow(() -> new EntityNotFoundException("Карта не найдена"));
+
+    LocalDateTime cursorCreatedAt;
+    long cursorId;
+    LocalDateTime windowStart;
+    if (cursor != null && !cursor.isBlank()) {
+      HistoryCursor position = HistoryCursor.decode(cursor);
+      cursorCreatedAt = position.createdAt();
+      cursorId = position.id();
+      windowStart = monthStart(cursorCreatedAt);
+    } else {
+      windowStart = monthStart(LocalDateTime.now());
+      cursorCreatedAt = windowStart.plusMonths(1);
+      cursorId = Long.MAX_VALUE;
+    }
+    LocalDateTime floor = card.getCreatedAt() != null ? monthStart(card.getCreatedAt()) : windowStart;
+
+    // Лишняя строка показывает, есть ли продолжение
+    List<Transaction> found = new ArrayList<>(pageSize + 1);
+    while (true) {
+      found.addAll(transactionRepository.findCardHistoryWindow(cardId, windowStart, windowStart.plusMonths(1),
+          cursorCreatedAt, cursorId, pageSize + 1 - found.size()));
+      if (found.size() > pageSize || !windowStart.isAfter(floor)) {
+        break;
+      }
+      windowStart = windowStart.minusMonths(1);
+    }
+
+    boolean hasMore = found.size() > pageSize;
+    List<TransactionResponse> items = found.stream()
+        .limit(pageSize)
+        .map(tx -> mapToResponse(tx, cardId))
+        .toList();
+    String nextCursor = hasMore ? HistoryCursor.of(items.get(items.size() - 1)).encode() : null;
+    log.debug("Card history requested. Card: {}, Page size: {}, Returned: {}", cardId, pageSize, items.size());
+    return new TransactionHistoryResponse(items, nextCursor);
+  }
+
+  private static TransactionResponse mapToResponse(Transaction tx, Long cardId) {
+    Long fromCardId = tx.getFromCard().getId();
+    return new TransactionResponse(
+        tx.getId(),
+        fromCardId,
+        tx.getToCard().getId(),
+        cardId.equals(fromCardId) ? "OUTGOING" : "INCOMING",
+        tx.getAmount(),
+        tx.getDescription(),
+        tx.getStatus(),
+        tx.getCreatedAt());
+  }
+
+  private static boolean isExpired(Card card) {
+    return card.getStatus() == CardStatus.EXPIRED
+        || (card.getExpiryDate() != null && card.getExpiryDate().isBefore(LocalDate.now()));
+  }
+
+  private static LocalDateTime monthStart(LocalDateTime dateTime) {
+    return dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay();
+  }
+
+  /**
+   * Позиция последней выданной операции, передается клиенту в base64url
+   */
+  private record HistoryCursor(LocalDateTime createdAt, long id) {
+
+    static HistoryCursor of(TransactionResponse last) {
+      return new HistoryCursor(last.createdAt(), last.id());
+    }
+
+    static HistoryCursor decode(String cursor) {
+      try {
+        String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        if (position.length != 2) {
+          throw new IllegalArgumentException("Некорректный курсор");
+        }
+        return new HistoryCursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+      } catch (DateTimeParseException | IllegalArgumentException e) {
+        throw new IllegalArgumentException("Некорректный курсор", e);
+      }
+    }
+
+    String encode() {
+      String position = createdAt + "|" + id;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Метка исхода перевода для метрик
+   */
+  private static String transferOutcome(RuntimeException e) {
+    if (e instanceof InsufficientFundsException) {
+      return "insufficient_funds";
+    }
+    if (e instanceof SpendingLimitExceededException) {
+      return "limit_exceeded";
+    }
+    if (e instanceof CardExpiredException) {
+      return "expired";
+    }
+    if (e instanceof IllegalStateException) {
+      return "blocked";
+    }
+    if (e instanceof EntityNotFoundException) {
+      return "not_found";
+    }
+    if (e instanceof IllegalArgumentException) {
+      return "invalid";
+    }
+    if (e instanceof OptimisticLockingFailureException) {
+      return "conflict";
+    }
+    return "error";
+  }
 }
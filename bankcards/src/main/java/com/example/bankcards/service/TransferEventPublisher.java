@@ -0,0 +1,28 @@
+package com.example.bankcards.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.KafakaConfig;
+import com.example.common.auth.event.TransferCompletedEvent;
+import com.example.common.kafka.ReliableKafkaSender;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Отправляет завершенные переводы в transfer-events-topic после коммита транзакции,
+ * откаченный перевод в топик не попадает. Ключ - карта списания.
+ * Ошибку отправки обрабатывает ReliableKafkaSender: запись уходит в спул и повторяется
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferEventPublisher {
+
+  private final ReliableKafkaSender kafkaSender;
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onTransferCompleted(TransferCompletedEvent event) {
+    kafkaSender.send(KafakaConfig.TRANSFER_EVENTS_TOPIC, String.valueOf(event.fromCardId()), event);
+  }
+}
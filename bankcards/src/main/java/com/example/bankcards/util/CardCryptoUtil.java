@@ -1,6 +1,9 @@
 package com.example.bankcards.util;
 
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
@@ -8,16 +11,28 @@ import javax.crypto.spec.SecretKeySpec;
 import org.springframework.stereotype.Component;
 
 import com.example.bankcards.config.CryptoConfig;
+import com.example.bankcards.jfr.CardCryptoEvent;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
-@RequiredArgsConstructor
 public class CardCryptoUtil {
   private static final String ALGORITHM = "AES";
   private static final int CARD_LENGTH = 16;
+  private static final String ENCRYPT = "encrypt";
+  private static final String DECRYPT = "decrypt";
 
   private final CryptoConfig cryptoConfig;
+  // operation -> [success, failure]: таймеры регистрируются один раз, а не на каждую операцию
+  private final Map<String, Timer[]> timers;
+
+  public CardCryptoUtil(CryptoConfig cryptoConfig, MeterRegistry meterRegistry) {
+    this.cryptoConfig = cryptoConfig;
+    this.timers = Map.of(
+        ENCRYPT, new Timer[] { timer(meterRegistry, ENCRYPT, "success"), timer(meterRegistry, ENCRYPT, "failure") },
+        DECRYPT, new Timer[] { timer(meterRegistry, DECRYPT, "success"), timer(meterRegistry, DECRYPT, "failure") });
+  }
 
   public String maskCardNumber(String cardNumber) {
     if (cardNumber == null || cardNumber.length() < CardCryptoUtil.CARD_LENGTH) {
@@ -27,32 +42,64 @@ public class CardCryptoUtil {
   }
 
   public String encrypt(String data) {
-    try {
-      String key = cryptoConfig.getEncryptionKey();
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(), ALGORITHM);
-      Cipher cipher = Cipher.getInstance(ALGORITHM);
-      cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-      byte[] encryptedBytes = cipher.doFinal(data.getBytes());
-      return Base64.getEncoder().encodeToString(encryptedBytes);
-    } catch (Exception e) {
-      throw new RuntimeException("Ошибка при шифровании карты", e);
-    }
+    return timed(ENCRYPT, () -> {
+      try {
+        String key = cryptoConfig.getEncryptionKey();
+        SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(), ALGORITHM);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        byte[] encryptedBytes = cipher.doFinal(data.getBytes());
+        return Base64.getEncoder().encodeToString(encryptedBytes);
+      } catch (Exception e) {
+        throw new RuntimeException("Ошибка при шифровании карты", e);
+      }
+    });
   }
 
   /**
    * Расшифровка номера карты
    */
   public String decrypt(String encryptedData) {
+    return timed(DECRYPT, () -> {
+      try {
+        String key = cryptoConfig.getEncryptionKey();
+        SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(), ALGORITHM);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, secretKey);
+        byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
+        return new String(cipher.doFinal(decodedBytes));
+      } catch (Exception e) {
+        throw new RuntimeException("Ошибка при расшифровке карты", e);
+      }
+    });
+  }
+
+  private String timed(String operation, Supplier<String> action) {
+    CardCryptoEvent event = new CardCryptoEvent();
+    event.begin();
+    long started = System.nanoTime();
+    boolean success = false;
     try {
-      String key = cryptoConfig.getEncryptionKey();
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(), ALGORITHM);
-      Cipher cipher = Cipher.getInstance(ALGORITHM);
-      cipher.init(Cipher.DECRYPT_MODE, secretKey);
-      byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
-      return new String(cipher.doFinal(decodedBytes));
-    } catch (Exception e) {
-      throw new RuntimeException("Ошибка при расшифровке карты", e);
+      String result = action.get();
+      success = true;
+      return result;
+    } finally {
+      timers.get(operation)[success ? 0 : 1].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = operation;
+        event.success = success;
+        event.commit();
+      }
     }
   }
 
+  private static Timer timer(MeterRegistry meterRegistry, String operation, String outcome) {
+    return Timer.builder("bank.card.crypto")
+        .description("Шифрование и расшифровка номеров карт")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
 }
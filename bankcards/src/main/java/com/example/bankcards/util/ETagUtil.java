@@ -0,0 +1,30 @@
+package com.example.bankcards.util;
+
+/**
+ * Сравнение ETag с заголовком If-None-Match
+ */
+public final class ETagUtil {
+
+  private ETagUtil() {
+  }
+
+  /**
+   * true - If-None-Match содержит etag или *. Для If-None-Match сравнение слабое,
+   * поэтому префикс W/ от клиента или прокси не мешает совпадению
+   */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.trim();
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if (value.equals("*") || value.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
@@ -9,8 +10,11 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,13 +27,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
+import com.example.bankcards.dto.CardExportFormat;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardStatusService;
 
 /**
  * Unit тесты для AdminCardController
@@ -47,6 +57,9 @@ class AdminCardControllerTest {
   @Mock
   private AdminCardService cardService;
 
+  @Mock
+  private BulkCardStatusService bulkCardStatusService;
+
   @InjectMocks
   private AdminCardController adminCardController;
 
@@ -231,6 +244,30 @@ class AdminCardControllerTest {
     verify(cardService).updateStatus(eq(1L), eq(CardStatus.BLOCKED));
   }
 
+  @Test
+  @DisplayName("Потоковая выгрузка карт в CSV")
+  void exportCards_Csv_StreamsServiceOutput() throws Exception {
+    // Arrange
+    when(cardService.exportCards(eq("Тест"), eq(CardExportFormat.CSV), any(OutputStream.class))).thenReturn(1L);
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = adminCardController.exportCards("Тест", "CSV");
+    response.getBody().writeTo(new ByteArrayOutputStream());
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(CardExportFormat.CSV.getMediaType(), response.getHeaders().getContentType());
+    assertEquals("attachment; filename=\"cards.csv\"",
+        response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    verify(cardService).exportCards(eq("Тест"), eq(CardExportFormat.CSV), any(OutputStream.class));
+  }
+
+  @Test
+  @DisplayName("Неизвестный формат выгрузки")
+  void exportCards_UnknownFormat_ThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> adminCardController.exportCards(null, "xml"));
+  }
+
   // ==================== ТЕСТЫ ПУСТЫХ РЕЗУЛЬТАТОВ ====================
 
   @Test
@@ -252,4 +289,20 @@ class AdminCardControllerTest {
 
     verify(cardService).findCards(eq("nonexistent"), eq(pageable));
   }
+
+  @Test
+  @DisplayName("Массовая смена статуса возвращает итог")
+  void updateCardsStatus_ReturnsSummary() {
+    // Arrange
+    BulkCardStatusRequest request = new BulkCardStatusRequest(CardStatus.BLOCKED, List.of(1L, 2L), null);
+    BulkCardStatusResponse summary = new BulkCardStatusResponse(CardStatus.BLOCKED, 2, 0, 5);
+    when(bulkCardStatusService.updateStatus(request)).thenReturn(summary);
+
+    // Act
+    ResponseEntity<BulkCardStatusResponse> response = adminCardController.updateCardsStatus(request);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(summary, response.getBody());
+  }
 }
@@ -11,6 +11,8 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -27,8 +29,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.example.bankcards.dto.CardholderImportResponse;
 import com.example.bankcards.dto.CardholderResponse;
 import com.example.bankcards.service.AdminCardholderService;
+import com.example.bankcards.service.CardholderImportService;
 
 /**
  * Unit тесты для AdminCardholderController
@@ -45,6 +49,9 @@ class AdminCardholderControllerTest {
   @Mock
   private AdminCardholderService cardholderService;
 
+  @Mock
+  private CardholderImportService cardholderImportService;
+
   @InjectMocks
   private AdminCardholderController adminCardholderController;
 
@@ -368,4 +375,20 @@ class AdminCardholderControllerTest {
     // Assert
     verify(cardholderService).deleteCardholder(eq(999999L));
   }
+
+  @Test
+  @DisplayName("Импорт держателей возвращает итог импорта")
+  void importCardholders_ReturnsSummary() throws Exception {
+    // Arrange
+    InputStream body = new ByteArrayInputStream("username,email,first_name,last_name\n".getBytes());
+    CardholderImportResponse summary = new CardholderImportResponse(0, 0, 0, 0, 1, 0);
+    when(cardholderImportService.importCsv(body)).thenReturn(summary);
+
+    // Act
+    ResponseEntity<CardholderImportResponse> response = adminCardholderController.importCardholders(body);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(summary, response.getBody());
+  }
 }
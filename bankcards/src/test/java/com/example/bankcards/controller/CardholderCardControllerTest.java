@@ -2,6 +2,7 @@ package com.example.bankcards.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
@@ -12,7 +13,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -27,10 +31,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.dto.BalanceSnapshot;
+import com.example.bankcards.dto.CardListSnapshot;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.InternalTransferRequest;
+import com.example.bankcards.dto.TransactionHistoryResponse;
+import com.example.bankcards.dto.TransactionResponse;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.service.BalanceChangeNotifier;
+import com.example.bankcards.service.CardEventStreamService;
 import com.example.bankcards.service.CardholderCardService;
 import com.example.bankcards.service.TransactionService;
 
@@ -47,12 +60,24 @@ import com.example.bankcards.service.TransactionService;
 @DisplayName("Тесты CardholderCardController")
 class CardholderCardControllerTest {
 
+  private static final String ETAG = "\"0123456789abcdef0123456789abcdef\"";
+  private static final String BALANCE_ETAG = "\"3\"";
+
   @Mock
   private CardholderCardService cardService;
 
   @Mock
   private TransactionService transactionService;
 
+  @Mock
+  private BalanceChangeNotifier balanceChangeNotifier;
+
+  @Spy
+  private BalancePollConfig balancePollConfig = new BalancePollConfig();
+
+  @Mock
+  private CardEventStreamService cardEventStreamService;
+
   @InjectMocks
   private CardholderCardController cardholderCardController;
 
@@ -84,10 +109,10 @@ class CardholderCardControllerTest {
   void getCardholderCards_WithoutSearch_ReturnsPage() {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse));
-    when(cardService.findCardholderCards(eq(null), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable, null);
 
     // Assert
     assertNotNull(response);
@@ -98,7 +123,7 @@ class CardholderCardControllerTest {
     assertEquals(CardStatus.ACTIVE, response.getBody().getContent().get(0).status());
     assertEquals(BigDecimal.valueOf(1000.50), response.getBody().getContent().get(0).balance());
 
-    verify(cardService).findCardholderCards(eq(null), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq(null), any(Pageable.class));
   }
 
   @Test
@@ -106,10 +131,10 @@ class CardholderCardControllerTest {
   void getCardholderCards_WithSearch_ReturnsFilteredPage() {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse));
-    when(cardService.findCardholderCards(eq("1234"), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq("1234"), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("1234", pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("1234", pageable, null);
 
     // Assert
     assertNotNull(response);
@@ -118,7 +143,7 @@ class CardholderCardControllerTest {
     assertEquals(1, response.getBody().getContent().size());
     assertEquals("**** **** **** 1234", response.getBody().getContent().get(0).cardNumberMasked());
 
-    verify(cardService).findCardholderCards(eq("1234"), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq("1234"), any(Pageable.class));
   }
 
   @Test
@@ -126,10 +151,10 @@ class CardholderCardControllerTest {
   void getCardholderCards_WithEmptySearch_ReturnsAllCards() {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse));
-    when(cardService.findCardholderCards(eq(""), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq(""), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("", pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("", pageable, null);
 
     // Assert
     assertNotNull(response);
@@ -137,7 +162,7 @@ class CardholderCardControllerTest {
     assertNotNull(response.getBody());
     assertEquals(1, response.getBody().getContent().size());
 
-    verify(cardService).findCardholderCards(eq(""), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq(""), any(Pageable.class));
   }
 
   @Test
@@ -177,10 +202,10 @@ class CardholderCardControllerTest {
   void getCardholderCardBalance_ValidCardId_ReturnsBalance() {
     // Arrange
     BigDecimal expectedBalance = BigDecimal.valueOf(1500.75);
-    when(cardService.getCardholderCardBalance(anyLong())).thenReturn(expectedBalance);
+    when(cardService.getCardholderCardBalanceSnapshot(anyLong())).thenReturn(new BalanceSnapshot(expectedBalance, BALANCE_ETAG));
 
     // Act
-    ResponseEntity<BigDecimal> response = cardholderCardController.getCardholderCardBalance(1L);
+    ResponseEntity<BigDecimal> response = cardholderCardController.getCardholderCardBalance(1L, null);
 
     // Assert
     assertNotNull(response);
@@ -188,7 +213,7 @@ class CardholderCardControllerTest {
     assertNotNull(response.getBody());
     assertEquals(expectedBalance, response.getBody());
 
-    verify(cardService).getCardholderCardBalance(eq(1L));
+    verify(cardService).getCardholderCardBalanceSnapshot(eq(1L));
   }
 
   // ==================== ТЕСТЫ ПАГИНАЦИИ ====================
@@ -199,12 +224,12 @@ class CardholderCardControllerTest {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse),
         PageRequest.of(1, 5), 15);
-    when(cardService.findCardholderCards(eq(null), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     Pageable paginatedPageable = PageRequest.of(1, 5);
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, paginatedPageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, paginatedPageable, null);
 
     // Assert
     assertNotNull(response);
@@ -216,7 +241,7 @@ class CardholderCardControllerTest {
     assertEquals(1, response.getBody().getNumber());
     assertEquals(5, response.getBody().getSize());
 
-    verify(cardService).findCardholderCards(eq(null), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq(null), any(Pageable.class));
   }
 
   // ==================== ТЕСТЫ ВЫЗОВА СЕРВИСОВ ====================
@@ -226,13 +251,13 @@ class CardholderCardControllerTest {
   void getCardholderCards_CallsServiceWithCorrectParameters() {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.emptyList());
-    when(cardService.findCardholderCards(eq("masked"), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq("masked"), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    cardholderCardController.getCardholderCards("masked", pageable);
+    cardholderCardController.getCardholderCards("masked", pageable, null);
 
     // Assert
-    verify(cardService).findCardholderCards(eq("masked"), eq(pageable));
+    verify(cardService).getCardholderCardList(eq("masked"), eq(pageable));
   }
 
   @Test
@@ -265,13 +290,13 @@ class CardholderCardControllerTest {
   @DisplayName("Просмотр баланса передает ID в сервис")
   void getCardholderCardBalance_PassesCardIdToService() {
     // Arrange
-    when(cardService.getCardholderCardBalance(anyLong())).thenReturn(BigDecimal.ZERO);
+    when(cardService.getCardholderCardBalanceSnapshot(anyLong())).thenReturn(new BalanceSnapshot(BigDecimal.ZERO, BALANCE_ETAG));
 
     // Act
-    cardholderCardController.getCardholderCardBalance(999L);
+    cardholderCardController.getCardholderCardBalance(999L, null);
 
     // Assert
-    verify(cardService).getCardholderCardBalance(eq(999L));
+    verify(cardService).getCardholderCardBalanceSnapshot(eq(999L));
   }
 
   // ==================== ТЕСТЫ ГРАНИЧНЫХ СЛУЧАЕВ ====================
@@ -281,16 +306,16 @@ class CardholderCardControllerTest {
   void getCardholderCards_NullParameters_HandlesCorrectly() {
     // Arrange
     Page<CardResponse> cardPage = new PageImpl<>(Collections.emptyList());
-    doReturn(cardPage).when(cardService).findCardholderCards(isNull(), isNull());
+    doReturn(new CardListSnapshot(cardPage, ETAG)).when(cardService).getCardholderCardList(isNull(), isNull());
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, null);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, null, null);
 
     // Assert
     assertNotNull(response);
     assertEquals(HttpStatus.OK, response.getStatusCode());
 
-    verify(cardService).findCardholderCards(isNull(), isNull());
+    verify(cardService).getCardholderCardList(isNull(), isNull());
   }
 
   @Test
@@ -298,10 +323,10 @@ class CardholderCardControllerTest {
   void getCardholderCards_NoResults_ReturnsEmptyPage() {
     // Arrange
     Page<CardResponse> emptyPage = new PageImpl<>(Collections.emptyList());
-    when(cardService.findCardholderCards(eq("nonexistent"), any(Pageable.class))).thenReturn(emptyPage);
+    when(cardService.getCardholderCardList(eq("nonexistent"), any(Pageable.class))).thenReturn(new CardListSnapshot(emptyPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("nonexistent", pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards("nonexistent", pageable, null);
 
     // Assert
     assertNotNull(response);
@@ -310,7 +335,7 @@ class CardholderCardControllerTest {
     assertEquals(0, response.getBody().getContent().size());
     assertEquals(0, response.getBody().getTotalElements());
 
-    verify(cardService).findCardholderCards(eq("nonexistent"), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq("nonexistent"), any(Pageable.class));
   }
 
   @Test
@@ -352,20 +377,20 @@ class CardholderCardControllerTest {
     BigDecimal balance1 = BigDecimal.valueOf(100.50);
     BigDecimal balance2 = BigDecimal.valueOf(999999.99);
 
-    when(cardService.getCardholderCardBalance(1L)).thenReturn(balance1);
-    when(cardService.getCardholderCardBalance(999999L)).thenReturn(balance2);
+    when(cardService.getCardholderCardBalanceSnapshot(1L)).thenReturn(new BalanceSnapshot(balance1, BALANCE_ETAG));
+    when(cardService.getCardholderCardBalanceSnapshot(999999L)).thenReturn(new BalanceSnapshot(balance2, BALANCE_ETAG));
 
     // Тест баланса карты 1
-    ResponseEntity<BigDecimal> response1 = cardholderCardController.getCardholderCardBalance(1L);
+    ResponseEntity<BigDecimal> response1 = cardholderCardController.getCardholderCardBalance(1L, null);
     assertNotNull(response1);
     assertEquals(balance1, response1.getBody());
-    verify(cardService).getCardholderCardBalance(eq(1L));
+    verify(cardService).getCardholderCardBalanceSnapshot(eq(1L));
 
     // Тест баланса карты 999999
-    ResponseEntity<BigDecimal> response2 = cardholderCardController.getCardholderCardBalance(999999L);
+    ResponseEntity<BigDecimal> response2 = cardholderCardController.getCardholderCardBalance(999999L, null);
     assertNotNull(response2);
     assertEquals(balance2, response2.getBody());
-    verify(cardService).getCardholderCardBalance(eq(999999L));
+    verify(cardService).getCardholderCardBalanceSnapshot(eq(999999L));
   }
 
   // ==================== ТЕСТЫ РАЗЛИЧНЫХ ТИПОВ КАРТ ====================
@@ -377,17 +402,17 @@ class CardholderCardControllerTest {
     CardResponse activeCard = new CardResponse(2L, "Тест Пользователь", "**** **** **** 5678",
         CardStatus.ACTIVE, BigDecimal.valueOf(500.0), false, null, 1L);
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(activeCard));
-    when(cardService.findCardholderCards(eq(null), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable, null);
 
     // Assert
     assertNotNull(response);
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(CardStatus.ACTIVE, response.getBody().getContent().get(0).status());
 
-    verify(cardService).findCardholderCards(eq(null), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq(null), any(Pageable.class));
   }
 
   @Test
@@ -397,10 +422,10 @@ class CardholderCardControllerTest {
     CardResponse blockedCard = new CardResponse(3L, "Тест Пользователь", "**** **** **** 9999",
         CardStatus.BLOCKED, BigDecimal.valueOf(0.0), true, null, 1L);
     Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(blockedCard));
-    when(cardService.findCardholderCards(eq(null), any(Pageable.class))).thenReturn(cardPage);
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
 
     // Act
-    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable);
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable, null);
 
     // Assert
     assertNotNull(response);
@@ -408,7 +433,103 @@ class CardholderCardControllerTest {
     assertEquals(CardStatus.BLOCKED, response.getBody().getContent().get(0).status());
     assertEquals(true, response.getBody().getContent().get(0).isBlockRequested());
 
-    verify(cardService).findCardholderCards(eq(null), any(Pageable.class));
+    verify(cardService).getCardholderCardList(eq(null), any(Pageable.class));
+  }
+
+  @Test
+  @DisplayName("Список карт отдается с ETag")
+  void getCardholderCards_ReturnsETag() {
+    // Arrange
+    Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse));
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
+
+    // Act
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable,
+        "\"stale\"");
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(ETAG, response.getHeaders().getETag());
+    assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+    assertNotNull(response.getBody());
+  }
+
+  @Test
+  @DisplayName("Совпадение If-None-Match - 304 без тела")
+  void getCardholderCards_MatchingETag_ReturnsNotModified() {
+    // Arrange
+    Page<CardResponse> cardPage = new PageImpl<>(Collections.singletonList(testCardResponse));
+    when(cardService.getCardholderCardList(eq(null), any(Pageable.class))).thenReturn(new CardListSnapshot(cardPage, ETAG));
+
+    // Act
+    ResponseEntity<Page<CardResponse>> response = cardholderCardController.getCardholderCards(null, pageable,
+        "\"stale\", W/" + ETAG);
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(ETAG, response.getHeaders().getETag());
+    assertNull(response.getBody());
+  }
+
+  @Test
+  @DisplayName("Баланс с совпавшим If-None-Match - 304")
+  void getCardholderCardBalance_MatchingETag_ReturnsNotModified() {
+    // Arrange
+    when(cardService.getCardholderCardBalanceSnapshot(1L))
+        .thenReturn(new BalanceSnapshot(BigDecimal.valueOf(100.50), BALANCE_ETAG));
+
+    // Act
+    ResponseEntity<BigDecimal> response = cardholderCardController.getCardholderCardBalance(1L, BALANCE_ETAG);
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(BALANCE_ETAG, response.getHeaders().getETag());
+    assertNull(response.getBody());
+  }
+
+  @Test
+  @DisplayName("Long-poll баланса отдает новый баланс после изменения")
+  void pollCardholderCardBalance_Changed_ReturnsNewBalance() throws Exception {
+    // Arrange
+    when(cardService.awaitCardholderCardBalanceChange(1L, BALANCE_ETAG, 20))
+        .thenReturn(new BalanceSnapshot(BigDecimal.valueOf(90.50), "\"4\""));
+
+    // Act
+    WebAsyncTask<ResponseEntity<BigDecimal>> task =
+        cardholderCardController.pollCardholderCardBalance(1L, 20, BALANCE_ETAG);
+    ResponseEntity<BigDecimal> response = task.getCallable().call();
+
+    // Assert
+    assertEquals(35_000L, task.getTimeout());
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("\"4\"", response.getHeaders().getETag());
+    assertEquals(BigDecimal.valueOf(90.50), response.getBody());
+  }
+
+  @Test
+  @DisplayName("Long-poll баланса без изменений - 304 по таймауту")
+  void pollCardholderCardBalance_Unchanged_ReturnsNotModified() throws Exception {
+    // Arrange
+    when(cardService.awaitCardholderCardBalanceChange(1L, BALANCE_ETAG, null))
+        .thenReturn(new BalanceSnapshot(BigDecimal.valueOf(100.50), BALANCE_ETAG));
+
+    // Act
+    ResponseEntity<BigDecimal> response =
+        cardholderCardController.pollCardholderCardBalance(1L, null, BALANCE_ETAG).getCallable().call();
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Подписка на поток событий карт")
+  void subscribeToCardEvents_ReturnsEmitter() {
+    // Arrange
+    SseEmitter emitter = new SseEmitter();
+    when(cardEventStreamService.subscribe()).thenReturn(emitter);
+
+    // Act & Assert
+    assertEquals(emitter, cardholderCardController.subscribeToCardEvents());
   }
 
   // ==================== ТЕСТЫ РАЗЛИЧНЫХ СУММ ПЕРЕВОДА ====================
@@ -463,4 +584,23 @@ class CardholderCardControllerTest {
 
     verify(transactionService).transferBetweenOwnCards(eq(negativeTransfer));
   }
+
+  @Test
+  @DisplayName("Получение истории операций карты")
+  void getCardTransactions_ValidRequest_ReturnsHistory() {
+    // Arrange
+    TransactionHistoryResponse history = new TransactionHistoryResponse(
+        List.of(new TransactionResponse(10L, 1L, 2L, "OUTGOING", new BigDecimal("100.00"),
+            "Перевод между своими картами", "COMPLETED", LocalDateTime.now())),
+        "next");
+    when(transactionService.getCardTransactions(1L, null, 20)).thenReturn(history);
+
+    // Act
+    ResponseEntity<TransactionHistoryResponse> response = cardholderCardController.getCardTransactions(1L, null, 20);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(history, response.getBody());
+    verify(transactionService).getCardTransactions(1L, null, 20);
+  }
 }
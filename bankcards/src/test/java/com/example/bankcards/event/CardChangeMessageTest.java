@@ -0,0 +1,79 @@
+package com.example.bankcards.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты бинарного формата CardChangeMessage
+ */
+@DisplayName("Тесты CardChangeMessage")
+class CardChangeMessageTest {
+
+  @Test
+  @DisplayName("Кодирование и декодирование сохраняют сообщение")
+  void encodeDecode_RoundTrip() {
+    // Arrange
+    CardChangeMessage message = new CardChangeMessage("node-1", 1_740_000_000_000L, List.of(3L, 1L, 300_000L), 7L);
+
+    // Act
+    CardChangeMessage decoded = CardChangeMessage.decode(message.encode());
+
+    // Assert
+    assertEquals("node-1", decoded.nodeId());
+    assertEquals(1_740_000_000_000L, decoded.publishedAtMillis());
+    assertEquals(List.of(1L, 3L, 300_000L), decoded.cardIds());
+    assertEquals(7L, decoded.cardholderId());
+  }
+
+  @Test
+  @DisplayName("Событие без держателя")
+  void encodeDecode_WithoutCardholder() {
+    // Act
+    CardChangeMessage decoded = CardChangeMessage.decode(
+        CardChangeMessage.of("node-1", 1L, CardChangedEvent.cards(42L)).encode());
+
+    // Assert
+    assertNull(decoded.cardholderId());
+    assertEquals(List.of(42L), decoded.cardIds());
+    assertTrue(decoded.toEvent().remote());
+  }
+
+  @Test
+  @DisplayName("Соседние id карт кодируются разницей, по байту на карту")
+  void encode_ConsecutiveIds_Compact() {
+    // Arrange
+    List<Long> cardIds = LongStream.rangeClosed(1_000_000, 1_000_999).boxed().toList();
+
+    // Act
+    byte[] payload = CardChangeMessage.of("node-1", 1_740_000_000_000L, CardChangedEvent.cards(cardIds)).encode();
+
+    // Assert
+    assertTrue(payload.length < 1_100, "payload " + payload.length + " bytes");
+  }
+
+  @Test
+  @DisplayName("Неизвестная версия формата отклоняется")
+  void decode_UnknownVersion_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> CardChangeMessage.decode(new byte[] { 9, 0, 0, 0, 0 }));
+  }
+
+  @Test
+  @DisplayName("Обрезанное сообщение отклоняется ошибкой формата")
+  void decode_Truncated_Throws() {
+    // Arrange
+    byte[] payload = new CardChangeMessage("node-1", 1_740_000_000_000L, List.of(1L, 2L), 7L).encode();
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class,
+        () -> CardChangeMessage.decode(Arrays.copyOf(payload, payload.length - 1)));
+  }
+}
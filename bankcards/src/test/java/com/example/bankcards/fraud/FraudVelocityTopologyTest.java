@@ -0,0 +1,136 @@
+package com.example.bankcards.fraud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.config.FraudConfig;
+import com.example.bankcards.config.KafakaConfig;
+import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.auth.event.TransferCompletedEvent;
+import com.example.common.serialization.EventCodecs;
+
+/**
+ * Тесты топологии FraudVelocityTopology на TopologyTestDriver
+ */
+@DisplayName("Тесты FraudVelocityTopology")
+class FraudVelocityTopologyTest {
+
+  private static final Instant WINDOW_START = Instant.parse("2025-03-01T10:00:00Z");
+
+  private TopologyTestDriver driver;
+  private TestInputTopic<String, TransferCompletedEvent> transfers;
+  private TestOutputTopic<String, RequestBlockCardEvent> blockRequests;
+  private long transactionId;
+
+  @BeforeEach
+  void setUp() {
+    FraudConfig config = new FraudConfig();
+    config.setWindow(Duration.ofMinutes(1));
+    config.setGrace(Duration.ofSeconds(10));
+    config.setCardMaxCount(3);
+    config.setCardMaxAmount(new BigDecimal("10000.00"));
+    config.setCardholderMaxCount(5);
+    config.setCardholderMaxAmount(new BigDecimal("50000.00"));
+
+    StreamsBuilder builder = new StreamsBuilder();
+    FraudVelocityTopology.build(builder, config);
+
+    Properties props = new Properties();
+    props.put(StreamsConfig.APPLICATION_ID_CONFIG, "fraud-velocity-test");
+    props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+    driver = new TopologyTestDriver(builder.build(), props);
+
+    transfers = driver.createInputTopic(KafakaConfig.TRANSFER_EVENTS_TOPIC, new StringSerializer(),
+        EventCodecs.serde(TransferCompletedEvent.class).serializer());
+    blockRequests = driver.createOutputTopic(KafakaConfig.BLOCK_CARD_TOPIC, new StringDeserializer(),
+        EventCodecs.serde(RequestBlockCardEvent.class).deserializer());
+  }
+
+  @AfterEach
+  void tearDown() {
+    driver.close();
+  }
+
+  @Test
+  @DisplayName("Превышение числа переводов по карте - один запрос блокировки на окно")
+  void cardCountExceeded_EmitsSingleBlockRequest() {
+    // Act
+    for (int i = 0; i < 5; i++) {
+      transfer(1L, 10L, "100.00", WINDOW_START.plusSeconds(i));
+    }
+
+    // Assert
+    List<RequestBlockCardEvent> requests = blockRequests.readValuesToList();
+    assertEquals(1, requests.size());
+    assertEquals(1L, requests.get(0).cardId());
+    assertEquals(10L, requests.get(0).ownerId());
+  }
+
+  @Test
+  @DisplayName("Превышение суммы переводов по карте")
+  void cardAmountExceeded_EmitsBlockRequest() {
+    // Act
+    transfer(1L, 10L, "6000.00", WINDOW_START);
+    transfer(1L, 10L, "6000.00", WINDOW_START.plusSeconds(5));
+
+    // Assert
+    assertEquals(List.of(1L), blockRequests.readValuesToList().stream().map(RequestBlockCardEvent::cardId).toList());
+  }
+
+  @Test
+  @DisplayName("Превышение по держателю блокирует карту, которой порог был превышен")
+  void cardholderCountExceeded_BlocksLastCard() {
+    // Act: по каждой карте порог не превышен, по держателю - шестым переводом
+    transfer(1L, 10L, "100.00", WINDOW_START);
+    transfer(2L, 10L, "100.00", WINDOW_START.plusSeconds(1));
+    transfer(3L, 10L, "100.00", WINDOW_START.plusSeconds(2));
+    transfer(1L, 10L, "100.00", WINDOW_START.plusSeconds(3));
+    transfer(2L, 10L, "100.00", WINDOW_START.plusSeconds(4));
+    transfer(3L, 10L, "100.00", WINDOW_START.plusSeconds(5));
+
+    // Assert
+    List<RequestBlockCardEvent> requests = blockRequests.readValuesToList();
+    assertEquals(1, requests.size());
+    assertEquals(3L, requests.get(0).cardId());
+  }
+
+  @Test
+  @DisplayName("Переводы в разных окнах не суммируются")
+  void transfersInDifferentWindows_NoBlockRequest() {
+    // Act
+    for (int i = 0; i < 3; i++) {
+      transfer(1L, 10L, "100.00", WINDOW_START.plusSeconds(i));
+    }
+    transfer(1L, 10L, "100.00", WINDOW_START.plus(Duration.ofMinutes(1)));
+
+    // Assert
+    assertTrue(blockRequests.isEmpty());
+  }
+
+  private void transfer(Long fromCardId, Long ownerId, String amount, Instant timestamp) {
+    transactionId++;
+    transfers.pipeInput(String.valueOf(fromCardId),
+        new TransferCompletedEvent(transactionId, fromCardId, 99L, ownerId, new BigDecimal(amount),
+            LocalDateTime.now()),
+        timestamp);
+  }
+}
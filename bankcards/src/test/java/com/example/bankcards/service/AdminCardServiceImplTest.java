@@ -11,9 +11,14 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,22 +26,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardLimitsRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.repository.CardListingRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.CardholderRepository;
 import com.example.bankcards.util.CardCryptoUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -67,6 +79,18 @@ class AdminCardServiceImplTest {
   @Mock
   private AuditService auditService;
 
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private CardListingRepository cardListingRepository;
+
+  @Mock
+  private CardListingProjector cardListingProjector;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private AdminCardServiceImpl adminCardService;
 
@@ -77,6 +101,9 @@ class AdminCardServiceImplTest {
 
   @BeforeEach
   void setUp() {
+    // @InjectMocks не вызывает @PostConstruct
+    adminCardService.init();
+
     // Настройка тестовых данных
     testCardholder = Cardholder.builder()
         .id(1L)
@@ -122,6 +149,88 @@ class AdminCardServiceImplTest {
     verify(auditService).logCardsListView(10, "findAll");
   }
 
+  @Test
+  @DisplayName("Поиск карт из проекции card_listing, когда она свежая")
+  void findCards_FreshProjection_ReadsListing() {
+    // Arrange
+    when(cardListingProjector.readFromProjection()).thenReturn(true);
+    when(cardListingRepository.search("ivan", pageable)).thenReturn(new PageImpl<>(java.util.List.of()));
+
+    // Act
+    Page<CardResponse> result = adminCardService.findCards("IVAN", pageable);
+
+    // Assert
+    assertNotNull(result);
+    verify(cardListingRepository).search("ivan", pageable);
+    verify(cardRepository, never()).findByOwnerNameAndCardNumberMasked(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("Потоковая выгрузка карт в CSV")
+  void exportCards_Csv_WritesHeaderAndRows() throws Exception {
+    // Arrange
+    CardResponse quotedName = new CardResponse(2L, "Иванов, Иван", "**** **** **** 5678", CardStatus.BLOCKED,
+        new BigDecimal("10.50"), false, null, 1L);
+    when(cardRepository.streamByOwnerNameAndCardNumberMasked(""))
+        .thenReturn(Stream.of(CardMapper.mapToResponse(testCard), quotedName));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    long count = adminCardService.exportCards(" ", CardExportFormat.CSV, out);
+
+    // Assert
+    assertEquals(2, count);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("id,ownerName,cardNumberMasked,status,balance,isBlockRequested,blockRequestedAt,cardholderId",
+        lines[0]);
+    assertEquals("1,Test User,**** **** **** 1234,ACTIVE,0,false,,1", lines[1]);
+    assertEquals("2,\"Иванов, Иван\",**** **** **** 5678,BLOCKED,10.50,false,,1", lines[2]);
+    verify(auditService).logCardsExport("CSV", "", 2);
+  }
+
+  @Test
+  @DisplayName("Потоковая выгрузка карт в NDJSON")
+  void exportCards_Ndjson_WritesOneObjectPerLine() throws Exception {
+    // Arrange
+    when(cardRepository.streamByOwnerNameAndCardNumberMasked("1234"))
+        .thenReturn(Stream.of(CardMapper.mapToResponse(testCard)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    long count = adminCardService.exportCards("1234", CardExportFormat.NDJSON, out);
+
+    // Assert
+    assertEquals(1, count);
+    String body = out.toString(StandardCharsets.UTF_8);
+    assertTrue(body.startsWith("{\"id\":1,"));
+    assertTrue(body.endsWith("}\n"));
+    verify(auditService).logCardsExport("NDJSON", "1234", 1);
+  }
+
+  @Test
+  @DisplayName("NDJSON не сбрасывает буфер клиенту после каждой строки")
+  void exportCards_Ndjson_FlushesInBatches() throws Exception {
+    // Arrange
+    CardResponse card = CardMapper.mapToResponse(testCard);
+    when(cardRepository.streamByOwnerNameAndCardNumberMasked("1234")).thenReturn(Stream.of(card, card, card));
+    AtomicInteger flushes = new AtomicInteger();
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushes.incrementAndGet();
+      }
+    };
+
+    // Act
+    long count = adminCardService.exportCards("1234", CardExportFormat.NDJSON, out);
+
+    // Assert
+    assertEquals(3, count);
+    assertEquals(3, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    assertEquals(1, flushes.get());
+  }
+
   @Test
   @DisplayName("Успешный поиск карт с фильтром")
   void findCards_WithFilter_ReturnsPage() {
@@ -262,6 +371,42 @@ class AdminCardServiceImplTest {
     verify(auditService, never()).logCardStatusChange(any(), any(), any());
   }
 
+  @Test
+  @DisplayName("Изменение лимитов списаний по карте")
+  void updateLimits_ValidData_Success() {
+    // Arrange
+    Card card = Card.builder()
+        .id(1L)
+        .cardNumberMasked("**** **** **** 1234")
+        .status(CardStatus.ACTIVE)
+        .owner(testCardholder)
+        .build();
+
+    when(cardRepository.findById(1L)).thenReturn(java.util.Optional.of(card));
+
+    // Act
+    assertDoesNotThrow(() -> adminCardService.updateLimits(1L,
+        new CardLimitsRequest(new BigDecimal("5000.00"), null)));
+
+    // Assert
+    verify(cardRepository).save(card);
+    verify(auditService).logCardLimitsChange(1L, "5000.00", "null");
+    assertEquals(new BigDecimal("5000.00"), card.getDailyLimit());
+    assertEquals(null, card.getMonthlyLimit());
+  }
+
+  @Test
+  @DisplayName("Запрос блокировки из Kafka отмечается на карте один раз")
+  void markBlockRequested_MarksOnlyOnce() {
+    // Arrange
+    LocalDateTime requestedAt = LocalDateTime.of(2025, 3, 1, 10, 0);
+    when(cardRepository.markBlockRequested(1L, requestedAt)).thenReturn(1, 0);
+
+    // Act & Assert
+    assertTrue(adminCardService.markBlockRequested(1L, requestedAt));
+    assertEquals(false, adminCardService.markBlockRequested(1L, requestedAt));
+  }
+
   @Test
   @DisplayName("Успешное удаление карты")
   void deleteCard_ValidId_Success() {
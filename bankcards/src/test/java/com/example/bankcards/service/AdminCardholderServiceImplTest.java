@@ -3,6 +3,7 @@ package com.example.bankcards.service;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -22,6 +23,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,11 +31,14 @@ import org.springframework.data.domain.Pageable;
 
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CardholderResponse;
+import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
 import com.example.bankcards.repository.CardholderRepository;
 import com.example.common.auth.event.UserCreatedEvent;
 
+import jakarta.validation.ValidationException;
+
 /**
  * Тесты для AdminCardholderServiceImpl
  * 
@@ -56,6 +61,12 @@ class AdminCardholderServiceImplTest {
   @Mock
   private AuditService auditService;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private ProcessedEventStore processedEventStore;
+
   @InjectMocks
   private AdminCardholderServiceImpl adminCardholderService;
 
@@ -141,29 +152,75 @@ class AdminCardholderServiceImplTest {
   @DisplayName("Успешная регистрация нового держателя")
   void registerCardholder_WithValidUserEvent_SavesCardholder() {
     // Arrange
-    when(cardholderRepository.save(any(Cardholder.class))).thenReturn(testCardholder);
+    when(processedEventStore.markProcessed("user-registration", testUserEvent.eventId())).thenReturn(true);
+    when(cardholderRepository.insertIfAbsent("user123", "ivan@example.com", "John", "Doe",
+        testUserEvent.createdAt())).thenReturn(Optional.of(1L));
     when(cardService.createCard(any())).thenReturn(testCardResponse);
 
     // Act & Assert
     assertDoesNotThrow(() -> adminCardholderService.registerCardholder(testUserEvent));
+    verify(cardService).createCard(new CreateCardRequest(1L));
+    verify(auditService).logCardholderRegister(1L, testCardResponse.id(), testCardResponse.cardNumberMasked());
+  }
+
+  @Test
+  @DisplayName("Повторная доставка события регистрации пропускается без обращения к держателям")
+  void registerCardholder_WithProcessedEventId_SkipsRegistration() {
+    // Arrange
+    when(processedEventStore.markProcessed("user-registration", testUserEvent.eventId())).thenReturn(false);
+
+    // Act
+    adminCardholderService.registerCardholder(testUserEvent);
+
+    // Assert
+    verify(cardholderRepository, never()).insertIfAbsent(any(), any(), any(), any(), any());
+    verify(cardService, never()).createCard(any());
+  }
+
+  @Test
+  @DisplayName("Событие без eventId, отправленное до его появления, проверяется только уникальностью держателя")
+  void registerCardholder_WithoutEventId_ChecksUniqueCardholderOnly() {
+    // Arrange
+    UserCreatedEvent legacyEvent = new UserCreatedEvent("user123", "ivan@example.com", "John", "Doe",
+        LocalDateTime.now(), null);
+    when(cardholderRepository.insertIfAbsent(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+    // Act
+    adminCardholderService.registerCardholder(legacyEvent);
+
+    // Assert
+    verify(processedEventStore, never()).markProcessed(anyString(), any());
+    verify(cardService, never()).createCard(any());
   }
 
   @Test
   @DisplayName("Попытка регистрации уже существующего держателя")
   void registerCardholder_WithExistingEmail_SkipsRegistration() {
     // Arrange
-    when(cardholderRepository.findByEmail("ivan@example.com")).thenReturn(Optional.of(testCardholder));
+    when(processedEventStore.markProcessed("user-registration", testUserEvent.eventId())).thenReturn(true);
+    when(cardholderRepository.insertIfAbsent(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
 
     // Act
     adminCardholderService.registerCardholder(testUserEvent);
 
     // Assert
-    verify(cardholderRepository).findByEmail("ivan@example.com");
-    verify(cardholderRepository, never()).save(any());
     verify(cardService, never()).createCard(any());
     verify(auditService, never()).logCardholderRegister(any(), any(), any());
   }
 
+  @Test
+  @DisplayName("Событие с пустым именем отклоняется ошибкой валидации и не вставляется")
+  void registerCardholder_WithBlankName_ThrowsValidationException() {
+    // Arrange
+    UserCreatedEvent blankNameEvent = new UserCreatedEvent("user123", "ivan@example.com", " ", "Doe",
+        LocalDateTime.now(), testUserEvent.eventId());
+
+    // Act & Assert
+    assertThrows(ValidationException.class, () -> adminCardholderService.registerCardholder(blankNameEvent));
+    verify(cardholderRepository, never()).insertIfAbsent(any(), any(), any(), any(), any());
+    verify(cardService, never()).createCard(any());
+  }
+
   @Test
   @DisplayName("Успешная блокировка держателя")
   void blockCardholder_WithValidId_BlocksCardholder() {
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для BalanceChangeNotifier
+ */
+@DisplayName("Тесты BalanceChangeNotifier")
+class BalanceChangeNotifierTest {
+
+  private MeterRegistry meterRegistry;
+  private BalanceChangeNotifier notifier;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    notifier = new BalanceChangeNotifier(new BalancePollConfig(), meterRegistry);
+    notifier.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    notifier.shutdown();
+  }
+
+  @Test
+  @DisplayName("Изменение карты будит всех ожидающих этой карты")
+  void onCardChanged_CompletesWaitersOfCard() {
+    // Arrange
+    CompletableFuture<Void> first = notifier.subscribe(1L);
+    CompletableFuture<Void> second = notifier.subscribe(1L);
+    CompletableFuture<Void> other = notifier.subscribe(2L);
+
+    // Act
+    notifier.onCardChanged(CardChangedEvent.cards(1L));
+
+    // Assert
+    assertTrue(notifier.await(first, Duration.ZERO));
+    assertTrue(notifier.await(second, Duration.ZERO));
+    assertFalse(other.isDone());
+    assertEquals(1, meterRegistry.get("bank.balance.poll.waiters").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Без изменений ожидание заканчивается по таймауту")
+  void await_NoChange_TimesOut() {
+    // Arrange
+    CompletableFuture<Void> changed = notifier.subscribe(1L);
+
+    // Act & Assert
+    assertFalse(notifier.await(changed, Duration.ofMillis(10)));
+  }
+
+  @Test
+  @DisplayName("Отписка убирает ожидающего")
+  void unsubscribe_RemovesWaiter() {
+    // Arrange
+    CompletableFuture<Void> changed = notifier.subscribe(1L);
+
+    // Act
+    notifier.unsubscribe(1L, changed);
+
+    // Assert
+    assertEquals(0, meterRegistry.get("bank.balance.poll.waiters").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Ожидание идет на виртуальном потоке")
+  void executor_RunsOnVirtualThread() throws Exception {
+    // Act
+    boolean virtual = notifier.executor().submit(() -> Thread.currentThread().isVirtual()).get();
+
+    // Assert
+    assertTrue(virtual);
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import com.example.bankcards.config.BulkCardStatusConfig;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для BulkCardStatusService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты BulkCardStatusService")
+class BulkCardStatusServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Spy
+  private BulkCardStatusConfig bulkConfig = new BulkCardStatusConfig();
+
+  @Mock
+  private AuditService auditService;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private BulkCardStatusService bulkCardStatusService;
+
+  @BeforeEach
+  void setUp() {
+    bulkConfig.setChunkSize(2);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  @DisplayName("Список id обновляется отсортированными чанками, аудит и событие - на чанк")
+  void updateStatus_ByIds_UpdatesSortedChunks() {
+    // Arrange
+    when(jdbcTemplate.query(contains("WHERE id = ANY(?)"), any(ResultSetExtractor.class), any(), eq("BLOCKED"),
+        eq("BLOCKED")))
+        .thenReturn(updated(1L, "ACTIVE", 2L, "EXPIRED"), updated(5L, "ACTIVE"));
+    BulkCardStatusRequest request = new BulkCardStatusRequest(CardStatus.BLOCKED, List.of(5L, 2L, 1L, 9L, 2L), null);
+
+    // Act
+    BulkCardStatusResponse response = bulkCardStatusService.updateStatus(request);
+
+    // Assert
+    assertEquals(3, response.updated());
+    assertEquals(1, response.skipped());
+    ArgumentCaptor<Object> chunks = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate, times(2)).query(anyString(), any(ResultSetExtractor.class), chunks.capture(),
+        eq("BLOCKED"), eq("BLOCKED"));
+    assertArrayEquals(new Long[] { 1L, 2L }, (Long[]) chunks.getAllValues().get(0));
+    assertArrayEquals(new Long[] { 5L, 9L }, (Long[]) chunks.getAllValues().get(1));
+    verify(auditService).logCardsStatusChanged("BLOCKED", updated(1L, "ACTIVE", 2L, "EXPIRED"));
+    verify(auditService).logCardsStatusChanged("BLOCKED", updated(5L, "ACTIVE"));
+    verify(eventPublisher).publishEvent(CardChangedEvent.cards(List.of(1L, 2L)));
+    assertEquals(3.0, meterRegistry.get("bank.card.status.bulk.updated").tag("status", "BLOCKED").counter().count());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  @DisplayName("Фильтр обходится по id, пока чанк заполнен")
+  void updateStatus_ByFilter_PagesById() {
+    // Arrange
+    when(jdbcTemplate.query(contains("AND owner_id = ? AND COALESCE(is_block_requested, false) = ?"),
+        any(ResultSetExtractor.class), any(Object[].class)))
+        .thenReturn(updated(3L, "ACTIVE", 4L, "ACTIVE"), updated(7L, "ACTIVE"));
+    BulkCardStatusRequest request = new BulkCardStatusRequest(CardStatus.BLOCKED, null,
+        new BulkCardStatusRequest.Filter(2L, null, false));
+
+    // Act
+    BulkCardStatusResponse response = bulkCardStatusService.updateStatus(request);
+
+    // Assert
+    assertEquals(3, response.updated());
+    assertEquals(0, response.skipped());
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate, times(2)).query(anyString(), any(ResultSetExtractor.class), args.capture());
+    assertArrayEquals(new Object[] { 0L, "BLOCKED", 2L, false, 2, "BLOCKED" }, args.getAllValues().get(0));
+    assertEquals(4L, args.getAllValues().get(1)[0]);
+  }
+
+  @Test
+  @DisplayName("Запрос без id и без условий фильтра отклоняется")
+  void updateStatus_WithoutTarget_Throws() {
+    // Arrange
+    BulkCardStatusRequest request = new BulkCardStatusRequest(CardStatus.BLOCKED, List.of(),
+        new BulkCardStatusRequest.Filter(null, null, null));
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> bulkCardStatusService.updateStatus(request));
+    verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("Одновременно список id и фильтр отклоняются")
+  void updateStatus_IdsAndFilter_Throws() {
+    // Arrange
+    BulkCardStatusRequest request = new BulkCardStatusRequest(CardStatus.BLOCKED, List.of(1L),
+        new BulkCardStatusRequest.Filter(2L, null, null));
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> bulkCardStatusService.updateStatus(request));
+  }
+
+  private static SortedMap<Long, String> updated(Object... idAndFromStatus) {
+    SortedMap<Long, String> updated = new TreeMap<>();
+    for (int i = 0; i < idAndFromStatus.length; i += 2) {
+      updated.put((Long) idAndFromStatus[i], (String) idAndFromStatus[i + 1]);
+    }
+    return updated;
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.example.bankcards.config.JwtCacheConfig;
+
+/**
+ * Тесты для CachingJwtAuthenticationManager
+ */
+@DisplayName("Тесты CachingJwtAuthenticationManager")
+class CachingJwtAuthenticationManagerTest {
+
+  private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+  private AuthenticationManager delegate;
+  private JwtCacheConfig cacheConfig;
+  private MutableClock clock;
+  private CachingJwtAuthenticationManager manager;
+
+  @BeforeEach
+  void setUp() {
+    delegate = mock(AuthenticationManager.class);
+    cacheConfig = new JwtCacheConfig();
+    clock = new MutableClock(NOW);
+    manager = new CachingJwtAuthenticationManager(delegate, cacheConfig, clock);
+  }
+
+  @Test
+  @DisplayName("Повторный токен берется из кэша без проверки подписи, details - свои у каждого запроса")
+  void authenticate_SameToken_VerifiedOnce() {
+    // Arrange
+    when(delegate.authenticate(any())).thenReturn(authentication(NOW.plusSeconds(300)));
+
+    // Act
+    Authentication first = manager.authenticate(bearer("token", "10.0.0.1"));
+    Authentication second = manager.authenticate(bearer("token", "10.0.0.2"));
+
+    // Assert
+    verify(delegate, times(1)).authenticate(any());
+    assertNotSame(first, second);
+    assertTrue(second.isAuthenticated());
+    assertEquals("testuser", second.getName());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+    assertEquals("10.0.0.2", second.getDetails());
+  }
+
+  @Test
+  @DisplayName("Истекший токен проверяется заново")
+  void authenticate_ExpiredToken_VerifiedAgain() {
+    // Arrange
+    when(delegate.authenticate(any())).thenReturn(authentication(NOW.plusSeconds(60)));
+    manager.authenticate(bearer("token", null));
+
+    // Act
+    clock.advance(Duration.ofSeconds(61));
+    manager.authenticate(bearer("token", null));
+
+    // Assert
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  @Test
+  @DisplayName("Ошибка проверки не кэшируется")
+  void authenticate_InvalidToken_NotCached() {
+    // Arrange
+    when(delegate.authenticate(any())).thenThrow(new InvalidBearerTokenException("bad signature"));
+
+    // Act & Assert
+    assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer("token", null)));
+    assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer("token", null)));
+    assertEquals(0, manager.size());
+  }
+
+  @Test
+  @DisplayName("С выключенным кэшем каждый запрос проверяется")
+  void authenticate_CacheDisabled_AlwaysVerified() {
+    // Arrange
+    cacheConfig.setEnabled(false);
+    when(delegate.authenticate(any())).thenReturn(authentication(NOW.plusSeconds(300)));
+
+    // Act
+    manager.authenticate(bearer("token", null));
+    manager.authenticate(bearer("token", null));
+
+    // Assert
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+    BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+    bearer.setDetails(details);
+    return bearer;
+  }
+
+  private static JwtAuthenticationToken authentication(Instant expiresAt) {
+    Jwt jwt = Jwt.withTokenValue("token")
+        .header("alg", "RS256")
+        .subject("testuser")
+        .issuedAt(NOW)
+        .expiresAt(expiresAt)
+        .build();
+    return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_USER")), "testuser");
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
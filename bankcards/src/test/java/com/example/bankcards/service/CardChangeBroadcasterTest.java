@@ -0,0 +1,80 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.ProducerFactory;
+
+import com.example.bankcards.config.CardChangeBroadcastConfig;
+import com.example.bankcards.event.CardChangeMessage;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardChangeBroadcaster
+ */
+@DisplayName("Тесты CardChangeBroadcaster")
+class CardChangeBroadcasterTest {
+
+  private ApplicationEventPublisher eventPublisher;
+  private MeterRegistry meterRegistry;
+  private CardChangeBroadcaster broadcaster;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    CardChangeBroadcastConfig config = new CardChangeBroadcastConfig();
+    config.setNodeId("node-a");
+    eventPublisher = mock(ApplicationEventPublisher.class);
+    meterRegistry = new SimpleMeterRegistry();
+    ProducerFactory<String, byte[]> producerFactory = mock(ProducerFactory.class);
+    when(producerFactory.copyWithConfigurationOverride(anyMap())).thenReturn(producerFactory);
+    broadcaster = new CardChangeBroadcaster(producerFactory, config, eventPublisher, meterRegistry);
+    broadcaster.init();
+  }
+
+  @Test
+  @DisplayName("Сообщение другого узла публикуется локально как remote")
+  void onRemoteMessage_OtherNode_PublishesRemoteEvent() {
+    // Arrange
+    byte[] payload = new CardChangeMessage("node-b", System.currentTimeMillis(), List.of(1L, 2L), null).encode();
+
+    // Act
+    broadcaster.onRemoteMessage(payload);
+
+    // Assert
+    ArgumentCaptor<CardChangedEvent> captor = ArgumentCaptor.forClass(CardChangedEvent.class);
+    verify(eventPublisher).publishEvent(captor.capture());
+    assertEquals(List.of(1L, 2L), captor.getValue().cardIds());
+    assertTrue(captor.getValue().remote());
+    assertEquals(1, meterRegistry.get("bank.card.change.broadcast.lag").timer().count());
+  }
+
+  @Test
+  @DisplayName("Собственное сообщение узла пропускается")
+  void onRemoteMessage_OwnNode_Ignored() {
+    // Arrange
+    byte[] payload = new CardChangeMessage("node-a", System.currentTimeMillis(), List.of(1L), null).encode();
+
+    // Act
+    broadcaster.onRemoteMessage(payload);
+
+    // Assert
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.bankcards.config.CardEventStreamConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardEventStreamService
+ */
+@DisplayName("Тесты CardEventStreamService")
+class CardEventStreamServiceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private AuthenticationFacade authenticationFacade;
+  private CardEventStreamConfig streamConfig;
+  private MeterRegistry meterRegistry;
+  private BlockingQueue<String> sent;
+  private CardEventStreamService service;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    authenticationFacade = mock(AuthenticationFacade.class);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    streamConfig = new CardEventStreamConfig();
+    meterRegistry = new SimpleMeterRegistry();
+    sent = new LinkedBlockingQueue<>();
+    service = new CardEventStreamService(jdbcTemplate, authenticationFacade, streamConfig, meterRegistry) {
+      @Override
+      SseEmitter createEmitter(long timeoutMillis) {
+        return new CapturingEmitter(sent);
+      }
+    };
+    service.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  @DisplayName("Новое соединение получает событие ready")
+  void subscribe_SendsReady() throws InterruptedException {
+    // Act
+    SseEmitter emitter = service.subscribe();
+
+    // Assert
+    assertNotNull(emitter);
+    assertEquals(1, service.connectionCount());
+    assertTrue(sent.poll(5, TimeUnit.SECONDS).contains("event:ready"));
+  }
+
+  @Test
+  @DisplayName("Соединение сверх лимита пользователя закрывает самое старое")
+  void subscribe_OverUserLimit_EvictsOldest() {
+    // Arrange
+    streamConfig.setMaxConnectionsPerUser(2);
+
+    // Act
+    service.subscribe();
+    service.subscribe();
+    service.subscribe();
+
+    // Assert
+    assertEquals(2, service.connectionCount());
+  }
+
+  @Test
+  @DisplayName("Соединение сверх лимита узла - 503")
+  void subscribe_OverNodeLimit_ServiceUnavailable() {
+    // Arrange
+    streamConfig.setMaxConnections(1);
+    service.subscribe();
+
+    // Act & Assert
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.subscribe());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    assertEquals(1, service.connectionCount());
+  }
+
+  @Test
+  @DisplayName("Поток не занимает слоты Tomcat, зарезервированные для API")
+  void subscribe_OverServerReserve_ServiceUnavailable() {
+    // Arrange
+    streamConfig.setServerMaxConnections(3);
+    streamConfig.setReservedConnections(2);
+    service.subscribe();
+
+    // Act & Assert
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.subscribe());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    assertEquals(1, service.connectionCount());
+  }
+
+  @Test
+  @DisplayName("Изменение карты уходит соединениям владельца")
+  void fanOut_SendsCardToOwner() throws Exception {
+    // Arrange
+    service.subscribe();
+    assertTrue(sent.poll(5, TimeUnit.SECONDS).contains("event:ready"));
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("username")).thenReturn("testuser");
+    when(rs.getLong("id")).thenReturn(1L);
+    when(rs.getString("status")).thenReturn("BLOCKED");
+    when(rs.getBigDecimal("balance")).thenReturn(new BigDecimal("10.00"));
+    when(rs.getLong("version")).thenReturn(4L);
+    doAnswer(invocation -> {
+      invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+      return null;
+    }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+
+    // Act
+    service.fanOut(CardChangedEvent.cards(1L));
+
+    // Assert
+    String event = sent.poll(5, TimeUnit.SECONDS);
+    assertNotNull(event);
+    assertTrue(event.contains("event:card"));
+  }
+
+  @Test
+  @DisplayName("Переполнение буфера заменяет события одним resync")
+  void connection_Overflow_ReplacedWithResync() throws InterruptedException {
+    // Arrange: отправка не запускается, пока тест не выполнит задачу вручную
+    List<Runnable> tasks = new ArrayList<>();
+    CardEventStreamService.Connection connection = new CardEventStreamService.Connection("testuser",
+        new CapturingEmitter(sent), 2, tasks::add, c -> {
+        }, meterRegistry.counter("test.overflow"));
+
+    // Act
+    connection.offer(new CardEventStreamService.Outgoing(CardEventStreamService.EVENT_CARD, "1"));
+    connection.offer(new CardEventStreamService.Outgoing(CardEventStreamService.EVENT_CARD, "2"));
+    connection.offer(new CardEventStreamService.Outgoing(CardEventStreamService.EVENT_CARD, "3"));
+
+    // Assert
+    assertEquals(1, tasks.size());
+    assertEquals(1, connection.pending());
+    assertEquals(1, meterRegistry.counter("test.overflow").count());
+    tasks.get(0).run();
+    assertTrue(sent.poll(1, TimeUnit.SECONDS).contains("event:resync"));
+    assertEquals(0, connection.pending());
+  }
+
+  /**
+   * Emitter без HTTP-ответа: текст каждого события складывается в очередь
+   */
+  private static final class CapturingEmitter extends SseEmitter {
+
+    private final BlockingQueue<String> sent;
+
+    private CapturingEmitter(BlockingQueue<String> sent) {
+      this.sent = sent;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      StringBuilder text = new StringBuilder();
+      builder.build().forEach(part -> text.append(part.getData()));
+      sent.add(text.toString());
+    }
+  }
+}
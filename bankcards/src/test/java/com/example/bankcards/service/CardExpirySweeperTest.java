@@ -0,0 +1,102 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.config.CardExpiryConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardExpirySweeper
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты CardExpirySweeper")
+class CardExpirySweeperTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private JobLeaseService jobLeaseService;
+
+  @Spy
+  private CardExpiryConfig expiryConfig = new CardExpiryConfig();
+
+  @Mock
+  private AuditService auditService;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private CardExpirySweeper sweeper;
+
+  @BeforeEach
+  void setUp() {
+    expiryConfig.setChunkSize(2);
+  }
+
+  @Test
+  @DisplayName("Карты переводятся в EXPIRED чанками до неполного чанка")
+  void expireCards_UpdatesInChunks() {
+    // Arrange
+    when(jobLeaseService.tryAcquire(eq(CardExpirySweeper.LEASE_NAME), any())).thenReturn(true);
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(LocalDate.now()), eq(2)))
+        .thenReturn(List.of(1L, 2L), List.of(3L));
+
+    // Act
+    long expired = sweeper.expireCards();
+
+    // Assert
+    assertEquals(3, expired);
+    assertEquals(3.0, meterRegistry.get("bank.card.expired").counter().count());
+    assertEquals(1, meterRegistry.get("bank.card.expiry.sweep").timer().count());
+    verify(auditService).logCardsExpired(2, 1L, 2L);
+    verify(auditService).logCardsExpired(1, 3L, 3L);
+    verify(jobLeaseService, times(2)).tryAcquire(eq(CardExpirySweeper.LEASE_NAME), any());
+    verify(jobLeaseService).release(CardExpirySweeper.LEASE_NAME);
+  }
+
+  @Test
+  @DisplayName("Аренда у другого узла - проход пропускается")
+  void expireCards_LeaseHeldByAnotherNode_Skips() {
+    // Arrange
+    when(jobLeaseService.tryAcquire(eq(CardExpirySweeper.LEASE_NAME), any())).thenReturn(false);
+
+    // Act
+    long expired = sweeper.expireCards();
+
+    // Assert
+    assertEquals(0, expired);
+    verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any(), any());
+    verify(auditService, never()).logCardsExpired(anyInt(), anyLong(), anyLong());
+    verify(jobLeaseService, never()).release(anyString());
+  }
+}
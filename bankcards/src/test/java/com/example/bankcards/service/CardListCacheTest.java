@@ -0,0 +1,157 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.bankcards.config.CardListCacheConfig;
+import com.example.bankcards.dto.CardListSnapshot;
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardListCache
+ */
+@DisplayName("Тесты CardListCache")
+class CardListCacheTest {
+
+  private CardListCacheConfig cacheConfig;
+  private CardListCache cardListCache;
+  private Pageable pageable;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    cacheConfig = new CardListCacheConfig();
+    cardListCache = new CardListCache(cacheConfig, new SimpleMeterRegistry());
+    cardListCache.init();
+    pageable = PageRequest.of(0, 10);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  @DisplayName("Повторный запрос отдается из кэша с тем же ETag")
+  void get_SecondRequest_ServedFromCache() {
+    // Act
+    CardListSnapshot first = cardListCache.get("testuser", null, pageable, loader("1000.00"));
+    CardListSnapshot second = cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Assert
+    assertEquals(1, loads.get());
+    assertSame(first, second);
+  }
+
+  @Test
+  @DisplayName("Изменение карты из списка сбрасывает кэш пользователя")
+  void onCardChanged_CachedCard_Invalidates() {
+    // Arrange
+    CardListSnapshot before = cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Act
+    cardListCache.onCardChanged(CardChangedEvent.cards(1L));
+    CardListSnapshot after = cardListCache.get("testuser", null, pageable, loader("900.00"));
+
+    // Assert
+    assertEquals(2, loads.get());
+    assertNotEquals(before.etag(), after.etag());
+  }
+
+  @Test
+  @DisplayName("Событие по держателю сбрасывает кэш его списков")
+  void onCardChanged_Cardholder_Invalidates() {
+    // Arrange
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Act
+    cardListCache.onCardChanged(CardChangedEvent.cardholder(7L));
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Assert
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  @DisplayName("Изменение чужой карты не трогает кэш")
+  void onCardChanged_OtherCard_KeepsCache() {
+    // Arrange
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Act
+    cardListCache.onCardChanged(CardChangedEvent.cards(42L));
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Assert
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  @DisplayName("Страница, при загрузке которой пришло событие, не кэшируется")
+  void get_EventDuringLoad_NotCached() {
+    // Arrange
+    Supplier<Page<CardResponse>> racingLoader = () -> {
+      Page<CardResponse> page = loader("1000.00").get();
+      cardListCache.onCardChanged(CardChangedEvent.cards(1L));
+      return page;
+    };
+
+    // Act
+    cardListCache.get("testuser", null, pageable, racingLoader);
+    cardListCache.get("testuser", null, pageable, loader("900.00"));
+
+    // Assert
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  @DisplayName("Одинаковое содержимое дает одинаковый ETag")
+  void snapshot_SameContent_SameETag() {
+    // Act
+    String first = CardListCache.snapshot(loader("1000.00").get()).etag();
+    String second = CardListCache.snapshot(loader("1000.00").get()).etag();
+    String changed = CardListCache.snapshot(loader("1000.01").get()).etag();
+
+    // Assert
+    assertEquals(first, second);
+    assertNotEquals(first, changed);
+    assertEquals(34, first.length());
+  }
+
+  @Test
+  @DisplayName("Выключенный кэш всегда загружает список")
+  void get_Disabled_AlwaysLoads() {
+    // Arrange
+    cacheConfig.setEnabled(false);
+
+    // Act
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+    cardListCache.get("testuser", null, pageable, loader("1000.00"));
+
+    // Assert
+    assertEquals(2, loads.get());
+  }
+
+  private Supplier<Page<CardResponse>> loader(String balance) {
+    return () -> {
+      loads.incrementAndGet();
+      CardResponse card = new CardResponse(1L, "Тест Пользователь", "**** **** **** 1234", CardStatus.ACTIVE,
+          new BigDecimal(balance), false, null, 7L);
+      return new PageImpl<>(List.of(card), pageable, 1);
+    };
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.config.CardListingConfig;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardListingProjector
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты CardListingProjector")
+class CardListingProjectorTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Spy
+  private CardListingConfig listingConfig = new CardListingConfig();
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks
+  private CardListingProjector projector;
+
+  @BeforeEach
+  void setUp() {
+    // Фоновый сброс не должен сработать во время теста
+    listingConfig.setFlushInterval(Duration.ofHours(1));
+    listingConfig.setBatchSize(2);
+    projector.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    projector.shutdown();
+  }
+
+  @Test
+  @DisplayName("До перестройки списки читаются из cards")
+  void readFromProjection_BeforeRebuild_False() {
+    assertFalse(projector.readFromProjection());
+    assertEquals(1, meterRegistry.get("bank.card.listing.reads").tag("source", "cards").counter().count());
+  }
+
+  @Test
+  @DisplayName("Перестройка обходит карты чанками и удаляет лишние строки")
+  void rebuild_UpsertsInChunksAndMarksReady() {
+    // Arrange
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), anyLong(), anyInt()))
+        .thenReturn(2L, 3L, null);
+
+    // Act
+    projector.rebuild();
+
+    // Assert
+    verify(jdbcTemplate).update(startsWith("INSERT INTO card_listing"), eq(0L), eq(2L));
+    verify(jdbcTemplate).update(startsWith("INSERT INTO card_listing"), eq(2L), eq(3L));
+    verify(jdbcTemplate).update(startsWith("DELETE FROM card_listing l WHERE TRUE"));
+    assertTrue(projector.readFromProjection());
+  }
+
+  @Test
+  @DisplayName("Изменения копятся до сброса и применяются пачками по batchSize")
+  void flush_AppliesPendingInBatches() {
+    // Arrange
+    projector.onCardChanged(CardChangedEvent.cards(1L, 2L, 3L));
+    projector.onCardChanged(CardChangedEvent.cards(1L));
+    projector.onCardChanged(CardChangedEvent.cardholder(7L));
+
+    // Act
+    projector.flush();
+
+    // Assert
+    ArgumentCaptor<Object> ids = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate, times(3)).update(startsWith("INSERT INTO card_listing"), ids.capture());
+    assertEquals(4, ids.getAllValues().stream().mapToInt(batch -> ((Long[]) batch).length).sum());
+    assertEquals(0, projector.lagNanos());
+  }
+
+  @Test
+  @DisplayName("Отставание больше maxStaleness - чтение из cards")
+  void readFromProjection_LagAboveMaxStaleness_False() {
+    // Arrange
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), anyLong(), anyInt()))
+        .thenReturn(null);
+    projector.rebuild();
+    listingConfig.setMaxStaleness(Duration.ZERO);
+
+    // Act
+    projector.onCardChanged(CardChangedEvent.cards(1L));
+
+    // Assert
+    assertFalse(projector.readFromProjection());
+    verify(jdbcTemplate, never()).update(startsWith("INSERT INTO card_listing"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("События с других узлов проекцию не трогают")
+  void onCardChanged_Remote_Ignored() {
+    // Act
+    projector.onCardChanged(new CardChangedEvent(List.of(1L), null, true));
+    projector.flush();
+
+    // Assert
+    assertEquals(0, projector.lagNanos());
+    verify(jdbcTemplate, never()).update(startsWith("INSERT INTO card_listing"), any(Object.class));
+  }
+}
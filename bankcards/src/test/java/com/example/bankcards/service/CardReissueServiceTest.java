@@ -0,0 +1,140 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.config.CardReissueConfig;
+import com.example.bankcards.util.CardCryptoUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardReissueService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты CardReissueService")
+class CardReissueServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private JobLeaseService jobLeaseService;
+
+  @Mock
+  private CardCryptoUtil cardCryptoUtil;
+
+  @Spy
+  private CardConfig cardConfig = new CardConfig();
+
+  @Spy
+  private CardReissueConfig reissueConfig = new CardReissueConfig();
+
+  @Mock
+  private AuditService auditService;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private CardReissueService reissueService;
+
+  @BeforeEach
+  void setUp() {
+    reissueConfig.setChunkSize(10);
+  }
+
+  @Test
+  @DisplayName("Чанк перевыпускается: новые карты, блокировка старых и перенос остатка")
+  @SuppressWarnings("unchecked")
+  void reissueExpiringCards_ReissuesChunkAndMovesBalances() {
+    // Arrange
+    when(jobLeaseService.tryAcquire(eq(CardReissueService.LEASE_NAME), any())).thenReturn(true);
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    when(jdbcTemplate.query(startsWith("SELECT id, owner_id"), any(RowMapper.class), any(), eq(10)))
+        .thenAnswer(invocation -> {
+          RowMapper<Object> mapper = invocation.getArgument(1);
+          java.sql.ResultSet rs = org.mockito.Mockito.mock(java.sql.ResultSet.class);
+          when(rs.getLong("id")).thenReturn(5L, 6L);
+          when(rs.getLong("owner_id")).thenReturn(2L, 2L);
+          when(rs.getString("owner_name")).thenReturn("Test User", "Test User");
+          when(rs.getBigDecimal("balance")).thenReturn(new BigDecimal("100.00"), BigDecimal.ZERO);
+          when(rs.getBigDecimal("daily_limit")).thenReturn(new BigDecimal("500.00"), null);
+          when(rs.getBigDecimal("monthly_limit")).thenReturn(null, null);
+          return List.of(mapper.mapRow(rs, 0), mapper.mapRow(rs, 1));
+        });
+    when(jdbcTemplate.queryForList(startsWith("SELECT nextval"), eq(Long.class), eq(2))).thenReturn(List.of(50L, 51L));
+    when(cardCryptoUtil.encrypt(anyString())).thenReturn("encrypted");
+    when(cardCryptoUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 0000");
+
+    // Act
+    long reissued = reissueService.reissueExpiringCards();
+
+    // Assert
+    assertEquals(2, reissued);
+    ArgumentCaptor<List<Object[]>> newCards = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO cards"), newCards.capture());
+    assertEquals(new BigDecimal("500.00"), newCards.getValue().get(0)[7]);
+    assertEquals(null, newCards.getValue().get(1)[7]);
+    ArgumentCaptor<List<Object[]>> replacements = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cards SET balance = 0"), replacements.capture());
+    assertEquals(50L, replacements.getValue().get(0)[0]);
+    assertEquals(5L, replacements.getValue().get(0)[1]);
+    ArgumentCaptor<List<Object[]>> transfers = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transactions"), transfers.capture());
+    assertEquals(1, transfers.getValue().size());
+    assertEquals(new BigDecimal("100.00"), transfers.getValue().get(0)[2]);
+    verify(auditService).logCardsReissued(2, 5L, 6L);
+    verify(jobLeaseService).release(CardReissueService.LEASE_NAME);
+    assertEquals(2.0, meterRegistry.get("bank.card.reissued").counter().count());
+  }
+
+  @Test
+  @DisplayName("Аренда у другого узла - перевыпуск пропускается")
+  void reissueExpiringCards_LeaseHeldByAnotherNode_Skips() {
+    // Arrange
+    when(jobLeaseService.tryAcquire(eq(CardReissueService.LEASE_NAME), any())).thenReturn(false);
+
+    // Act
+    long reissued = reissueService.reissueExpiringCards();
+
+    // Assert
+    assertEquals(0, reissued);
+    verify(transactionTemplate, never()).execute(any());
+    verify(auditService, never()).logCardsReissued(anyInt(), any(), any());
+  }
+}
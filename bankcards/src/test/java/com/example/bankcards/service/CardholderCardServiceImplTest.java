@@ -9,13 +9,17 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,18 +27,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 
+import com.example.bankcards.config.BalancePollConfig;
+import com.example.bankcards.config.CardListCacheConfig;
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.dto.BalanceSnapshot;
+import com.example.bankcards.dto.CardListSnapshot;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.repository.CardListingRepository;
 import com.example.bankcards.repository.CardRepository;
+import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.kafka.ReliableKafkaSender;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Тесты для CardholderCardServiceImpl
@@ -57,6 +74,27 @@ class CardholderCardServiceImplTest {
   @Mock
   private AuthenticationFacade authenticationFacade;
 
+  @Mock
+  private CardListingRepository cardListingRepository;
+
+  @Mock
+  private CardListingProjector cardListingProjector;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private CardListCache cardListCache;
+
+  @Mock
+  private BalanceChangeNotifier balanceChangeNotifier;
+
+  @Mock
+  private ReliableKafkaSender kafkaSender;
+
+  @Spy
+  private BalancePollConfig balancePollConfig = new BalancePollConfig();
+
   @InjectMocks
   private CardholderCardServiceImpl cardholderCardService;
 
@@ -165,6 +203,34 @@ class CardholderCardServiceImplTest {
     verify(cardRepository).findByOwner_Username(eq("testuser"), any(Pageable.class));
   }
 
+  @Test
+  @DisplayName("Список после изменения карты перечитывается из cards, а не из отстающей проекции")
+  void getCardholderCardList_ChangeBeforeProjectorFlush_ReloadsFreshPage() {
+    // Arrange: проекция включена, но изменение баланса в card_listing еще не записано
+    CardListCache realCache = new CardListCache(new CardListCacheConfig(), new SimpleMeterRegistry());
+    realCache.init();
+    CardholderCardServiceImpl service = new CardholderCardServiceImpl(cardRepository, auditService,
+        authenticationFacade, kafkaSender, cardListingRepository, cardListingProjector, eventPublisher, realCache,
+        balanceChangeNotifier, balancePollConfig);
+    lenient().when(cardListingProjector.readFromProjection()).thenReturn(true);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByOwner_Username(eq("testuser"), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(java.util.Collections.singletonList(activeCard)));
+    service.getCardholderCardList(null, pageable);
+
+    // Act
+    activeCard.setBalance(new BigDecimal("900.00"));
+    realCache.onCardChanged(CardChangedEvent.cards(activeCard.getId()));
+    CardListSnapshot reloaded = service.getCardholderCardList(null, pageable);
+    CardListSnapshot cached = service.getCardholderCardList(null, pageable);
+
+    // Assert
+    assertEquals(new BigDecimal("900.00"), reloaded.page().getContent().get(0).balance());
+    assertEquals(reloaded.etag(), cached.etag());
+    verify(cardRepository, times(2)).findByOwner_Username(eq("testuser"), any(Pageable.class));
+    verify(cardListingRepository, never()).searchByOwner(anyString(), anyString(), any(Pageable.class));
+  }
+
   @Test
   @DisplayName("Успешная блокировка активной карты")
   void blockOwnCard_ActiveCard_Success() {
@@ -179,6 +245,7 @@ class CardholderCardServiceImplTest {
     verify(cardRepository).findByIdAndOwner_Username(1L, "testuser");
     verify(cardRepository).save(activeCard);
     verify(auditService).logCardBlocking(1L, "**** **** **** 1234");
+    verify(kafkaSender).send(eq(KafakaConfig.BLOCK_CARD_TOPIC), any(RequestBlockCardEvent.class));
 
     // Проверяем, что карта помечена как заблокированная пользователем
     assertTrue(activeCard.getIsBlockRequested());
@@ -271,4 +338,86 @@ class CardholderCardServiceImplTest {
     verify(cardRepository).findByIdAndOwner_Username(2L, "testuser");
     verify(auditService).logBalanceView(2L, "**** **** **** 4321", new BigDecimal("500.00"));
   }
+
+  @Test
+  @DisplayName("Баланс возвращается с ETag по версии карты")
+  void getCardholderCardBalanceSnapshot_ReturnsVersionETag() {
+    // Arrange
+    activeCard.setVersion(7L);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(activeCard));
+
+    // Act
+    BalanceSnapshot result = cardholderCardService.getCardholderCardBalanceSnapshot(1L);
+
+    // Assert
+    assertEquals(new BigDecimal("1000.00"), result.balance());
+    assertEquals("\"7\"", result.etag());
+  }
+
+  @Test
+  @DisplayName("Long-poll с устаревшим ETag отвечает сразу")
+  void awaitCardholderCardBalanceChange_StaleETag_ReturnsImmediately() {
+    // Arrange
+    activeCard.setVersion(8L);
+    CompletableFuture<Void> changed = new CompletableFuture<>();
+    when(balanceChangeNotifier.subscribe(1L)).thenReturn(changed);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(activeCard));
+
+    // Act
+    BalanceSnapshot result = cardholderCardService.awaitCardholderCardBalanceChange(1L, "\"7\"", 10);
+
+    // Assert
+    assertEquals("\"8\"", result.etag());
+    verify(balanceChangeNotifier, never()).await(any(), any());
+    verify(balanceChangeNotifier).unsubscribe(1L, changed);
+  }
+
+  @Test
+  @DisplayName("Long-poll ждет изменения карты и перечитывает баланс")
+  void awaitCardholderCardBalanceChange_CardChanged_ReturnsNewBalance() {
+    // Arrange
+    activeCard.setVersion(7L);
+    Card changedCard = Card.builder()
+        .id(1L)
+        .cardNumberMasked("**** **** **** 1234")
+        .balance(new BigDecimal("900.00"))
+        .version(8L)
+        .owner(testCardholder)
+        .build();
+    CompletableFuture<Void> changed = new CompletableFuture<>();
+    when(balanceChangeNotifier.subscribe(1L)).thenReturn(changed);
+    when(balanceChangeNotifier.await(changed, Duration.ofSeconds(30))).thenReturn(true);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser"))
+        .thenReturn(java.util.Optional.of(activeCard), java.util.Optional.of(changedCard));
+
+    // Act: запрошенный timeout больше maxWait и обрезается до него
+    BalanceSnapshot result = cardholderCardService.awaitCardholderCardBalanceChange(1L, "\"7\"", 120);
+
+    // Assert
+    assertEquals(new BigDecimal("900.00"), result.balance());
+    assertEquals("\"8\"", result.etag());
+    verify(balanceChangeNotifier).unsubscribe(1L, changed);
+  }
+
+  @Test
+  @DisplayName("Long-poll без изменений возвращает текущий баланс по таймауту")
+  void awaitCardholderCardBalanceChange_Timeout_ReturnsCurrent() {
+    // Arrange
+    activeCard.setVersion(7L);
+    CompletableFuture<Void> changed = new CompletableFuture<>();
+    when(balanceChangeNotifier.subscribe(1L)).thenReturn(changed);
+    when(balanceChangeNotifier.await(changed, Duration.ofSeconds(5))).thenReturn(false);
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(activeCard));
+
+    // Act
+    BalanceSnapshot result = cardholderCardService.awaitCardholderCardBalanceChange(1L, "\"7\"", 5);
+
+    // Assert
+    assertEquals("\"7\"", result.etag());
+    verify(cardRepository).findByIdAndOwner_Username(1L, "testuser");
+  }
 }
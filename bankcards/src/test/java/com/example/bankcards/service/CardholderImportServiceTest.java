@@ -0,0 +1,126 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.CardConfig;
+import com.example.bankcards.config.CardholderImportConfig;
+import com.example.bankcards.dto.CardholderImportResponse;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.util.CardCryptoUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для CardholderImportService
+ */
+@DisplayName("Тесты CardholderImportService")
+class CardholderImportServiceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private AuditService auditService;
+  private ApplicationEventPublisher eventPublisher;
+  private MeterRegistry meterRegistry;
+  private List<String> copied;
+  private CardholderImportService importService;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    CardCryptoUtil cardCryptoUtil = mock(CardCryptoUtil.class);
+    when(cardCryptoUtil.encrypt(anyString())).thenReturn("encrypted");
+    when(cardCryptoUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 0000");
+    CardholderImportConfig importConfig = new CardholderImportConfig();
+    importConfig.setChunkSize(2);
+    auditService = mock(AuditService.class);
+    eventPublisher = mock(ApplicationEventPublisher.class);
+    meterRegistry = new SimpleMeterRegistry();
+    copied = new ArrayList<>();
+    importService = new CardholderImportService(jdbcTemplate, transactionTemplate, cardCryptoUtil, new CardConfig(),
+        importConfig, auditService, meterRegistry, eventPublisher) {
+      @Override
+      long copyIn(byte[] payload) {
+        copied.add(new String(payload, StandardCharsets.UTF_8));
+        return payload.length;
+      }
+    };
+  }
+
+  @Test
+  @DisplayName("Файл пишется чанками: некорректные строки отклоняются, повторы пропускаются")
+  void importCsv_WritesChunksAndCountsRows() throws Exception {
+    // Arrange
+    String csv = """
+        username,email,first_name,last_name
+        ivanov,ivanov@example.com,Иван,Иванов
+        petrov,petrov@example.com,"Петр, мл.",Петров
+        broken,no-email,Сидор,Сидоров
+        petrov,petrov2@example.com,Петр,Петров
+        sidorov,sidorov@example.com,Сидор,Сидоров
+        """;
+    when(jdbcTemplate.queryForList(startsWith("WITH inserted"), eq(Long.class), any()))
+        .thenReturn(List.of(10L, 11L), List.of());
+
+    // Act
+    CardholderImportResponse response = importService.importCsv(stream(csv));
+
+    // Assert
+    assertEquals(5, response.rows());
+    assertEquals(2, response.imported());
+    assertEquals(2, response.skipped());
+    assertEquals(1, response.rejected());
+    assertTrue(response.rowsPerSecond() > 0);
+    assertEquals(2, copied.size());
+    assertTrue(copied.get(0).contains("\"Петр, мл.\",\"Петров\",\"ПЕТР, МЛ. ПЕТРОВ\",\"encrypted\""));
+    verify(eventPublisher).publishEvent(CardChangedEvent.cards(List.of(10L, 11L)));
+    verify(auditService).logCardholdersImported(2, 2, 1);
+    assertEquals(2.0, meterRegistry.get("bank.cardholder.imported").counter().count());
+  }
+
+  @Test
+  @DisplayName("Файл без ожидаемого заголовка не импортируется")
+  void importCsv_WrongHeader_Throws() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream("login,mail\n")));
+  }
+
+  @Test
+  @DisplayName("Поля в кавычках разбираются с удвоенными кавычками и запятыми")
+  void parseLine_QuotedFields() {
+    // Act & Assert
+    assertEquals(List.of("a", "b, \"c\"", ""), CardholderImportService.parseLine("a,\"b, \"\"c\"\"\","));
+    assertNull(CardholderImportService.parseLine("a,\"b"));
+  }
+
+  private static InputStream stream(String csv) {
+    return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import com.example.bankcards.config.KafakaConfig;
+import com.example.bankcards.config.KafkaRetryConfig;
+import com.example.bankcards.dto.DeadLetterReplayResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для DeadLetterReplayService на MockConsumer и MockProducer
+ */
+@DisplayName("Тесты DeadLetterReplayService")
+class DeadLetterReplayServiceTest {
+
+  private static final String TOPIC = KafakaConfig.USER_REGISTRATION_TOPIC;
+  private static final String DLT = TOPIC + KafakaConfig.DLT_SUFFIX;
+  private static final TopicPartition PARTITION = new TopicPartition(DLT, 0);
+
+  private MockConsumer<String, byte[]> consumer;
+  private List<ProducerRecord<String, byte[]>> sent;
+  private MeterRegistry meterRegistry;
+  private DeadLetterReplayService service;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, null, null, null)));
+    consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+    consumer.updateEndOffsets(Map.of(PARTITION, 2L));
+    consumer.schedulePollTask(() -> {
+      consumer.addRecord(deadLetter(0, "first"));
+      consumer.addRecord(deadLetter(1, "second"));
+    });
+    ConsumerFactory<String, byte[]> consumerFactory = mock(ConsumerFactory.class);
+    when(consumerFactory.createConsumer(eq(DeadLetterReplayService.REPLAY_GROUP), isNull(), isNull(),
+        any(Properties.class))).thenReturn(consumer);
+
+    // KafkaTemplate закрывает продюсер после каждой отправки, поэтому на отправку свой MockProducer
+    sent = new ArrayList<>();
+    ProducerFactory<String, byte[]> producerFactory = mock(ProducerFactory.class);
+    when(producerFactory.copyWithConfigurationOverride(anyMap())).thenReturn(producerFactory);
+    when(producerFactory.createProducer()).thenAnswer(invocation -> new MockProducer<>(true, null,
+        new StringSerializer(), new ByteArraySerializer()) {
+      @Override
+      public synchronized Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+        sent.add(record);
+        return super.send(record, callback);
+      }
+    });
+
+    meterRegistry = new SimpleMeterRegistry();
+    service = new DeadLetterReplayService(consumerFactory, producerFactory, new KafkaRetryConfig(), meterRegistry);
+    service.init();
+  }
+
+  @Test
+  @DisplayName("Записи из DLT возвращаются в основной топик без служебных заголовков")
+  void replay_RepublishesToOriginalTopic() {
+    // Act
+    DeadLetterReplayResponse response = service.replay(TOPIC, null);
+
+    // Assert
+    assertEquals(new DeadLetterReplayResponse(TOPIC, 2, 0), response);
+    assertEquals(2, sent.size());
+    assertEquals(TOPIC, sent.get(0).topic());
+    assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), sent.get(0).value());
+    assertNotNull(sent.get(0).headers().lastHeader("__TypeId__"));
+    assertNull(sent.get(0).headers().lastHeader("kafka_dlt-exception-message"));
+    assertEquals(2, meterRegistry.get("bank.kafka.dlt.replayed").counter().count());
+  }
+
+  @Test
+  @DisplayName("maxRecords ограничивает повтор, остаток виден в ответе")
+  void replay_MaxRecords_LeavesRemaining() {
+    // Act
+    DeadLetterReplayResponse response = service.replay(TOPIC, 1);
+
+    // Assert
+    assertEquals(new DeadLetterReplayResponse(TOPIC, 1, 1), response);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  @DisplayName("Топик без DLT - IllegalArgumentException")
+  void replay_UnknownTopic_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> service.replay(KafakaConfig.CARD_CHANGE_TOPIC, null));
+  }
+
+  private static ConsumerRecord<String, byte[]> deadLetter(long offset, String value) {
+    ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(DLT, 0, offset, "key-" + offset,
+        value.getBytes(StandardCharsets.UTF_8));
+    record.headers().add("__TypeId__", "type".getBytes(StandardCharsets.UTF_8));
+    record.headers().add("kafka_dlt-exception-message", "blank name".getBytes(StandardCharsets.UTF_8));
+    return record;
+  }
+}
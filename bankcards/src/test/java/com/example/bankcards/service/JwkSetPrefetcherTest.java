@@ -0,0 +1,157 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.config.JwksConfig;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для JwkSetPrefetcher
+ */
+@DisplayName("Тесты JwkSetPrefetcher")
+class JwkSetPrefetcherTest {
+
+  private JwksConfig jwksConfig;
+  private MeterRegistry meterRegistry;
+  private AtomicInteger fetches;
+  private volatile JWKSet served;
+  private volatile boolean failing;
+  private JwkSetPrefetcher prefetcher;
+
+  @BeforeEach
+  void setUp() throws JOSEException {
+    jwksConfig = new JwksConfig();
+    meterRegistry = new SimpleMeterRegistry();
+    fetches = new AtomicInteger();
+    served = jwkSet("key-1");
+    prefetcher = new JwkSetPrefetcher(jwksConfig, meterRegistry) {
+      @Override
+      JWKSet fetch() {
+        fetches.incrementAndGet();
+        if (failing) {
+          throw new IllegalStateException("auth-server unavailable");
+        }
+        return served;
+      }
+    };
+  }
+
+  @AfterEach
+  void tearDown() {
+    prefetcher.shutdown();
+  }
+
+  @Test
+  @DisplayName("Набор ключей загружается в фоне после старта, первый запрос дожидается загрузки")
+  void get_AfterInit_UsesPrefetchedKeys() {
+    // Act
+    prefetcher.init();
+    List<JWK> keys = prefetcher.get(selector("key-1"), null);
+
+    // Assert
+    assertEquals(1, keys.size());
+    assertEquals(1, fetches.get());
+    assertEquals(0.0, meterRegistry.get("bank.jwks.key.miss").counter().count());
+  }
+
+  @Test
+  @DisplayName("Запросы до первой загрузки не тратят лимит внеочередных обновлений")
+  void get_BeforeFirstLoad_DoesNotSpendKeyMissLimit() throws JOSEException {
+    // Arrange
+    jwksConfig.setMinKeyMissInterval(Duration.ofHours(1));
+    prefetcher.init();
+    prefetcher.get(selector("key-1"), null);
+    served = jwkSet("key-2");
+
+    // Act
+    List<JWK> keys = prefetcher.get(selector("key-2"), null);
+
+    // Assert
+    assertEquals("key-2", keys.get(0).getKeyID());
+    assertEquals(1.0, meterRegistry.get("bank.jwks.key.miss").counter().count());
+  }
+
+  @Test
+  @DisplayName("Неизвестный kid запускает внеочередное обновление и находит новый ключ")
+  void get_UnknownKid_RefreshesAndFindsKey() throws JOSEException {
+    // Arrange
+    int fetched = initAndLoad();
+    served = jwkSet("key-2");
+
+    // Act
+    List<JWK> keys = prefetcher.get(selector("key-2"), null);
+
+    // Assert
+    assertEquals("key-2", keys.get(0).getKeyID());
+    assertEquals(fetched + 1, fetches.get());
+    assertEquals(1.0, meterRegistry.get("bank.jwks.key.miss").counter().count());
+  }
+
+  @Test
+  @DisplayName("При ошибке обновления запросы проверяются последним загруженным набором")
+  void refresh_Failure_KeepsStaleKeys() {
+    // Arrange
+    initAndLoad();
+    failing = true;
+
+    // Act & Assert
+    CompletionException error = assertThrows(CompletionException.class, () -> prefetcher.refresh().join());
+    assertTrue(error.getCause() instanceof IllegalStateException);
+    assertEquals(1, prefetcher.get(selector("key-1"), null).size());
+    assertEquals(1.0, meterRegistry.get("bank.jwks.refresh").tag("result", "failure").counter().count());
+  }
+
+  @Test
+  @DisplayName("Повторные неизвестные kid не обновляют набор чаще minKeyMissInterval")
+  void get_RepeatedUnknownKid_RateLimited() {
+    // Arrange
+    jwksConfig.setMinKeyMissInterval(Duration.ofHours(1));
+    int fetched = initAndLoad();
+
+    // Act
+    List<JWK> first = prefetcher.get(selector("forged"), null);
+    List<JWK> second = prefetcher.get(selector("forged"), null);
+
+    // Assert
+    assertTrue(first.isEmpty());
+    assertTrue(second.isEmpty());
+    assertEquals(fetched + 1, fetches.get());
+  }
+
+  /**
+   * Дожидается загрузки набора без обращения к get, чтобы не тратить лимит внеочередных обновлений
+   */
+  private int initAndLoad() {
+    prefetcher.init();
+    prefetcher.refresh().join();
+    return fetches.get();
+  }
+
+  private static JWKSelector selector(String keyId) {
+    return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+  }
+
+  private static JWKSet jwkSet(String keyId) throws JOSEException {
+    return new JWKSet(new RSAKeyGenerator(2048).keyID(keyId).generate().toPublicJWK());
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bankcards.config.ProcessedEventsConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для ProcessedEventStore
+ */
+@DisplayName("Тесты ProcessedEventStore")
+class ProcessedEventStoreTest {
+
+  private static final UUID EVENT_ID = UUID.fromString("8f14e45f-ceea-4672-9b4a-0a1b2c3d4e5f");
+
+  private JdbcTemplate jdbcTemplate;
+  private MeterRegistry meterRegistry;
+  private ProcessedEventStore store;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    meterRegistry = new SimpleMeterRegistry();
+    store = new ProcessedEventStore(jdbcTemplate, new ProcessedEventsConfig(), meterRegistry);
+    store.init();
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  @Test
+  @DisplayName("Новое событие вставляется и после коммита отсекается кэшем без запроса к БД")
+  void markProcessed_AfterCommit_DuplicateFromCache() {
+    // Arrange
+    when(jdbcTemplate.update(anyString(), eq("user-registration"), eq(EVENT_ID), any())).thenReturn(1);
+
+    // Act
+    boolean first = store.markProcessed("user-registration", EVENT_ID);
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    boolean second = store.markProcessed("user-registration", EVENT_ID);
+
+    // Assert
+    assertTrue(first);
+    assertFalse(second);
+    verify(jdbcTemplate, times(1)).update(anyString(), eq("user-registration"), eq(EVENT_ID), any());
+    assertEquals(1, meterRegistry.get("bank.kafka.duplicates").tag("source", "cache").counter().count());
+  }
+
+  @Test
+  @DisplayName("Без коммита id не попадает в кэш: откат обработки не теряет событие")
+  void markProcessed_WithoutCommit_NotCached() {
+    // Arrange
+    when(jdbcTemplate.update(anyString(), eq("user-registration"), eq(EVENT_ID), any())).thenReturn(1);
+
+    // Act
+    store.markProcessed("user-registration", EVENT_ID);
+    boolean retried = store.markProcessed("user-registration", EVENT_ID);
+
+    // Assert
+    assertTrue(retried);
+  }
+
+  @Test
+  @DisplayName("Id, уже записанный другим узлом, - дубликат")
+  void markProcessed_ExistingRow_Duplicate() {
+    // Arrange
+    when(jdbcTemplate.update(anyString(), eq("user-registration"), eq(EVENT_ID), any())).thenReturn(0);
+
+    // Act & Assert
+    assertFalse(store.markProcessed("user-registration", EVENT_ID));
+    assertEquals(1, meterRegistry.get("bank.kafka.duplicates").tag("source", "db").counter().count());
+  }
+
+  @Test
+  @DisplayName("Потребители дедуплицируются независимо")
+  void markProcessed_OtherConsumer_NotDuplicate() {
+    // Arrange
+    when(jdbcTemplate.update(anyString(), anyString(), eq(EVENT_ID), any())).thenReturn(1);
+    store.markProcessed("user-registration", EVENT_ID);
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+    // Act & Assert
+    assertTrue(store.markProcessed("block-card", EVENT_ID));
+  }
+}
@@ -0,0 +1,292 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.SpendingLimitConfig;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.SpendingLimitExceededException;
+
+/**
+ * Тесты для SpendingLimitService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты SpendingLimitService")
+class SpendingLimitServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Captor
+  private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+  @Spy
+  private SpendingLimitConfig limitConfig = new SpendingLimitConfig();
+
+  @InjectMocks
+  private SpendingLimitService spendingLimitService;
+
+  private Card card;
+
+  @BeforeEach
+  void setUp() {
+    limitConfig.setDailyDefault(new BigDecimal("1000.00"));
+    limitConfig.setMonthlyDefault(new BigDecimal("5000.00"));
+    card = Card.builder().id(1L).build();
+  }
+
+  @Test
+  @DisplayName("Проверка лимита идет в памяти: счетчик поднимается из БД один раз, записей нет")
+  void reserve_WithinLimit_NoDatabaseWrites() {
+    // Act
+    assertDoesNotThrow(() -> spendingLimitService.reserve(card, new BigDecimal("600.00")));
+    assertDoesNotThrow(() -> spendingLimitService.reserve(card, new BigDecimal("400.00")));
+
+    // Assert
+    verify(jdbcTemplate, times(1)).query(startsWith("WITH spent"), any(RowCallbackHandler.class),
+        any(Object[].class));
+    verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+  }
+
+  @Test
+  @DisplayName("Превышение дневного лимита отклоняется")
+  void reserve_DailyLimitExceeded_Throws() {
+    // Arrange
+    spendingLimitService.reserve(card, new BigDecimal("900.00"));
+
+    // Act & Assert
+    SpendingLimitExceededException exception = assertThrows(SpendingLimitExceededException.class,
+        () -> spendingLimitService.reserve(card, new BigDecimal("100.01")));
+
+    assertEquals("Превышен дневной лимит списаний по карте", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Индивидуальный лимит карты важнее лимита по умолчанию")
+  void reserve_CardLimit_OverridesDefault() {
+    // Arrange
+    card.setDailyLimit(new BigDecimal("50.00"));
+
+    // Act & Assert
+    assertThrows(SpendingLimitExceededException.class,
+        () -> spendingLimitService.reserve(card, new BigDecimal("60.00")));
+  }
+
+  @Test
+  @DisplayName("Сумма округляется до копеек, а не отбрасывает дробную часть")
+  void reserve_FractionalCents_Rounded() {
+    // Arrange
+    card.setDailyLimit(new BigDecimal("100.00"));
+
+    // Act & Assert
+    assertThrows(SpendingLimitExceededException.class,
+        () -> spendingLimitService.reserve(card, new BigDecimal("100.005")));
+  }
+
+  @Test
+  @DisplayName("Накопленные списания пишутся в card_spending одним пакетом")
+  void flush_PendingSpending_WritesBatchOnce() {
+    // Arrange
+    runTransactions();
+    spendingLimitService.reserve(card, new BigDecimal("600.00"));
+    spendingLimitService.reserve(card, new BigDecimal("150.00"));
+
+    // Act
+    int written = spendingLimitService.flush();
+    int writtenAgain = spendingLimitService.flush();
+
+    // Assert
+    assertEquals(1, written);
+    assertEquals(0, writtenAgain);
+    verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO card_spending"), rowsCaptor.capture());
+    Object[] row = rowsCaptor.getValue().get(0);
+    assertEquals(1L, row[0]);
+    assertEquals(new BigDecimal("750.00"), row[2]);
+    assertEquals(new BigDecimal("750.00"), row[6]);
+  }
+
+  @Test
+  @DisplayName("При ошибке записи списания остаются в очереди до следующей записи")
+  void flush_Failure_KeepsPending() {
+    // Arrange
+    doThrow(new DataAccessResourceFailureException("db down"))
+        .doAnswer(invocation -> {
+          invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+          return null;
+        })
+        .when(transactionTemplate).executeWithoutResult(any());
+    spendingLimitService.reserve(card, new BigDecimal("600.00"));
+
+    // Act & Assert
+    assertThrows(DataAccessResourceFailureException.class, () -> spendingLimitService.flush());
+    assertEquals(1, spendingLimitService.flush());
+    verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO card_spending"), anyList());
+  }
+
+  @Test
+  @DisplayName("Счетчик перечитывается из card_spending и учитывает списания других узлов")
+  void reserve_ResyncDue_ReloadsCounterFromAggregate() throws SQLException {
+    // Arrange: в агрегате 850.00 другого узла, 100.00 этого узла пока только в transactions
+    limitConfig.setResyncInterval(Duration.ZERO);
+    ResultSet rs = spendingRows("850.00", "100.00");
+    doNothing()
+        .doAnswer(invocation -> {
+          RowCallbackHandler handler = invocation.getArgument(1);
+          handler.processRow(rs);
+          handler.processRow(rs);
+          return null;
+        })
+        .when(jdbcTemplate).query(startsWith("WITH spent"), any(RowCallbackHandler.class),
+            any(Object[].class));
+    spendingLimitService.reserve(card, new BigDecimal("100.00"));
+
+    // Act & Assert: 850.00 + 100.00 + 100.00 > 1000.00
+    SpendingLimitExceededException exception = assertThrows(SpendingLimitExceededException.class,
+        () -> spendingLimitService.reserve(card, new BigDecimal("100.00")));
+
+    assertEquals("Превышен дневной лимит списаний по карте", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("После падения узла счетчик досчитывает переводы, не записанные в card_spending")
+  void reserve_UnflushedTail_RecoveredFromTransactions() throws SQLException {
+    // Arrange: в агрегате 300.00, еще 650.00 переводов после отметки last_transaction_id
+    ResultSet rs = spendingRows("300.00", "650.00");
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(1);
+      handler.processRow(rs);
+      handler.processRow(rs);
+      return null;
+    }).when(jdbcTemplate).query(startsWith("WITH spent"), any(RowCallbackHandler.class), any(Object[].class));
+
+    // Act & Assert
+    SpendingLimitExceededException exception = assertThrows(SpendingLimitExceededException.class,
+        () -> spendingLimitService.reserve(card, new BigDecimal("100.00")));
+
+    assertEquals("Превышен дневной лимит списаний по карте", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Id перевода пишется в card_spending как отметка записанного")
+  void flush_AttachedTransaction_WritesLastTransactionId() {
+    // Arrange
+    runTransactions();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      spendingLimitService.reserve(card, new BigDecimal("600.00"));
+      spendingLimitService.attachTransaction(1L, 42L);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Act
+    spendingLimitService.flush();
+
+    // Assert
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO card_spending"), rowsCaptor.capture());
+    Object[] row = rowsCaptor.getValue().get(0);
+    assertEquals(42L, row[3]);
+    assertEquals(42L, row[7]);
+  }
+
+  @Test
+  @DisplayName("Откат перевода возвращает резерв и ничего не пишет в card_spending")
+  void reserve_RolledBack_ReleasesReservation() {
+    // Arrange
+    runTransactions();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      spendingLimitService.reserve(card, new BigDecimal("900.00"));
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Act & Assert
+    assertDoesNotThrow(() -> spendingLimitService.reserve(card, new BigDecimal("900.00")));
+    spendingLimitService.flush();
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO card_spending"), rowsCaptor.capture());
+    assertEquals(new BigDecimal("900.00"), rowsCaptor.getValue().get(0)[2]);
+  }
+
+  /**
+   * Строки загрузки счетчика за день: агрегат и хвост из transactions
+   */
+  private static ResultSet spendingRows(String aggregate, String tail) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("period_type")).thenReturn(SpendingLimitService.PERIOD_DAY);
+    when(rs.getBigDecimal("amount")).thenReturn(new BigDecimal(aggregate), new BigDecimal(tail));
+    return rs;
+  }
+
+  private void runTransactions() {
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+  }
+
+  @Test
+  @DisplayName("Счетчик откатывает резерв и сбрасывается при смене дня")
+  void spendingCounter_ReleaseAndRoll() {
+    // Arrange
+    java.time.LocalDate day = java.time.LocalDate.of(2025, 3, 31);
+    SpendingLimitService.SpendingCounter counter = new SpendingLimitService.SpendingCounter(day, 0, 0);
+
+    // Act & Assert
+    assertEquals(null, counter.tryReserve(day, 700, 1000, 5000));
+    assertEquals(SpendingLimitService.PERIOD_DAY, counter.tryReserve(day, 400, 1000, 5000));
+    counter.release(day, 700);
+    assertEquals(0, counter.getDaySpent());
+
+    assertEquals(null, counter.tryReserve(day, 900, 1000, 5000));
+    assertEquals(null, counter.tryReserve(day.plusDays(1), 900, 1000, 5000));
+    assertEquals(900, counter.getDaySpent());
+    assertEquals(900, counter.getMonthSpent());
+  }
+}
@@ -0,0 +1,147 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.example.bankcards.config.StatementJobConfig;
+import com.example.bankcards.dto.StatementJobResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для StatementJobService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты StatementJobService")
+class StatementJobServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private JobLeaseService jobLeaseService;
+
+  @Spy
+  private StatementJobConfig jobConfig = new StatementJobConfig();
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks
+  private StatementJobService statementJobService;
+
+  private YearMonth period;
+  private LocalDate periodDate;
+
+  @BeforeEach
+  void setUp() {
+    jobConfig.setChunkSize(2);
+    jobConfig.setParallelism(2);
+    jobConfig.setPauseBetweenWaves(Duration.ZERO);
+    period = YearMonth.now().minusMonths(1);
+    periodDate = period.atDay(1);
+  }
+
+  @Test
+  @DisplayName("Чанки обрабатываются волной, контрольная точка сдвигается после волны")
+  void run_ProcessesChunksAndMovesCheckpoint() {
+    // Arrange
+    checkpoint("RUNNING", 0L);
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), eq(0L), eq(2))).thenReturn(2L);
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), eq(2L), eq(2))).thenReturn(4L);
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), eq(4L), eq(2))).thenReturn(null);
+    when(jdbcTemplate.update(startsWith("WITH chunk"), any(Object[].class))).thenReturn(2);
+
+    // Act
+    statementJobService.run(period);
+
+    // Assert
+    verify(jdbcTemplate, times(2)).update(startsWith("WITH chunk"), any(Object[].class));
+    verify(jdbcTemplate).update(startsWith("UPDATE statement_job_checkpoints SET last_card_id"),
+        eq(4L), eq(4L), any(), eq(periodDate));
+    verify(jdbcTemplate).update(startsWith("UPDATE statement_job_checkpoints SET status = ?, completed_at"),
+        eq("COMPLETED"), any(), any(), eq(periodDate));
+    assertEquals(4.0, meterRegistry.get("bank.statement.cards").counter().count());
+  }
+
+  @Test
+  @DisplayName("Перезапуск продолжает с сохраненного id")
+  void run_ResumesFromCheckpoint() {
+    // Arrange
+    checkpoint("FAILED", 4L);
+    when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), eq(4L), eq(2))).thenReturn(null);
+
+    // Act
+    statementJobService.run(period);
+
+    // Assert
+    verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), eq(0L), eq(2));
+    verify(jdbcTemplate, never()).update(startsWith("WITH chunk"), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("Завершенный период повторно не обрабатывается")
+  void run_CompletedPeriod_Skips() {
+    // Arrange
+    checkpoint("COMPLETED", 10L);
+
+    // Act
+    statementJobService.run(period);
+
+    // Assert
+    verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), any(), any());
+  }
+
+  @Test
+  @DisplayName("Текущий месяц нельзя закрыть выпиской")
+  void start_CurrentMonth_ThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> statementJobService.start(YearMonth.now()));
+  }
+
+  @Test
+  @DisplayName("Аренда у другого узла - запуск пропускается")
+  void run_LeaseHeldByAnotherNode_Skips() {
+    // Arrange
+    when(jobLeaseService.tryAcquire(eq(StatementJobService.LEASE_NAME), any())).thenReturn(false);
+
+    // Act
+    statementJobService.run(period);
+
+    // Assert
+    verify(jdbcTemplate, never()).update(startsWith("INSERT INTO statement_job_checkpoints"), any(Object[].class));
+    verify(jobLeaseService, never()).release(anyString());
+  }
+
+  private void checkpoint(String status, Long lastCardId) {
+    when(jobLeaseService.tryAcquire(eq(StatementJobService.LEASE_NAME), any())).thenReturn(true);
+    when(jdbcTemplate.query(startsWith("SELECT status"), ArgumentMatchers.<RowMapper<StatementJobResponse>>any(),
+        eq(periodDate)))
+        .thenReturn(List.of(new StatementJobResponse(period, status, lastCardId, 0L, null, null, null)));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.bankcards.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.config.TransactionPartitionConfig;
+
+/**
+ * Тесты для TransactionPartitionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты TransactionPartitionService")
+class TransactionPartitionServiceTest {
+
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Spy
+  private TransactionPartitionConfig partitionConfig = new TransactionPartitionConfig();
+
+  @InjectMocks
+  private TransactionPartitionService partitionService;
+
+  private YearMonth current;
+
+  @BeforeEach
+  void setUp() {
+    current = YearMonth.now();
+  }
+
+  @Test
+  @DisplayName("Секции создаются на текущий месяц и наперед")
+  void maintainPartitions_CreatesFuturePartitions() {
+    // Act
+    partitionService.maintainPartitions();
+
+    // Assert
+    verify(jdbcTemplate, times(4)).execute(startsWith("CREATE TABLE IF NOT EXISTS transactions_p"));
+    verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_p" + current.plusMonths(3).format(SUFFIX)
+        + " PARTITION OF transactions FOR VALUES FROM ('" + current.plusMonths(3).atDay(1)
+        + "') TO ('" + current.plusMonths(4).atDay(1) + "')");
+    verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+  }
+
+  @Test
+  @DisplayName("Секции старше срока хранения отсоединяются")
+  void maintainPartitions_DetachesExpiredPartitions() {
+    // Arrange
+    partitionConfig.setRetentionMonths(12);
+    String expired = "transactions_p" + current.minusMonths(13).format(SUFFIX);
+    String kept = "transactions_p" + current.minusMonths(12).format(SUFFIX);
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of(expired, kept, "transactions_default"));
+
+    // Act
+    partitionService.maintainPartitions();
+
+    // Assert
+    verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION " + expired);
+    verify(jdbcTemplate, never()).execute("ALTER TABLE transactions DETACH PARTITION " + kept);
+  }
+}
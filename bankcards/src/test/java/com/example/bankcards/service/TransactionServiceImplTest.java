@@ -2,17 +2,29 @@ package com.example.bankcards.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,17 +32,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.bankcards.dto.InternalTransferRequest;
+import com.example.bankcards.dto.TransactionHistoryResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Cardholder;
 import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.exception.CardExpiredException;
 import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.SpendingLimitExceededException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
+import com.example.common.auth.event.TransferCompletedEvent;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -58,6 +82,18 @@ class TransactionServiceImplTest {
   @Mock
   private AuditService auditService;
 
+  @Mock
+  private SpendingLimitService spendingLimitService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
   @InjectMocks
   private TransactionServiceImpl transactionService;
 
@@ -69,6 +105,13 @@ class TransactionServiceImplTest {
 
   @BeforeEach
   void setUp() {
+    // @InjectMocks не вызывает @PostConstruct
+    transactionService.init();
+    lenient().doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+
     // Настройка тестовых данных
     testCardholder = Cardholder.builder()
         .id(1L)
@@ -126,13 +169,37 @@ class TransactionServiceImplTest {
     // Assert
     verify(cardRepository).findByIdAndOwner_Username(1L, "testuser");
     verify(cardRepository).findByIdAndOwner_Username(2L, "testuser");
+    verify(spendingLimitService).reserve(fromCard, new BigDecimal("200.00"));
     verify(transactionRepository).save(any(Transaction.class));
+    verify(spendingLimitService).attachTransaction(1L, 1L);
+    verify(eventPublisher).publishEvent(any(TransferCompletedEvent.class));
     verify(auditService).logTransfer(eq(1L), eq(2L), eq("**** **** **** 1234"), eq("**** **** **** 4321"), eq("200.00"),
         eq("RUB"));
 
     // Проверяем, что баланс изменился корректно
     assertEquals(new BigDecimal("800.00"), fromCard.getBalance());
     assertEquals(new BigDecimal("700.00"), toCard.getBalance());
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "success").timer().count());
+  }
+
+  @Test
+  @DisplayName("Конфликт версий при коммите записывается как conflict, а не как успешный перевод")
+  void transferBetweenOwnCards_CommitConflict_RecordedAsConflict() {
+    // Arrange
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+    when(cardRepository.findByIdAndOwner_Username(2L, "testuser")).thenReturn(java.util.Optional.of(toCard));
+    when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      throw new ObjectOptimisticLockingFailureException(Card.class, 1L);
+    }).when(transactionTemplate).executeWithoutResult(any());
+
+    // Act & Assert
+    assertThrows(OptimisticLockingFailureException.class,
+        () -> transactionService.transferBetweenOwnCards(transferRequest));
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "conflict").timer().count());
+    assertEquals(0, meterRegistry.get("bank.transfer").tag("outcome", "success").timer().count());
   }
 
   @Test
@@ -212,6 +279,7 @@ class TransactionServiceImplTest {
         () -> transactionService.transferBetweenOwnCards(transferRequest));
 
     assertEquals("Карта списания заблокирована", exception.getMessage());
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "blocked").timer().count());
 
     verify(cardRepository).findByIdAndOwner_Username(1L, "testuser");
     verify(cardRepository).findByIdAndOwner_Username(2L, "testuser");
@@ -247,6 +315,25 @@ class TransactionServiceImplTest {
     verify(transactionRepository, never()).save(any());
   }
 
+  @Test
+  @DisplayName("Перевод с карты с истекшим сроком, еще не переведенной в EXPIRED")
+  void transferBetweenOwnCards_FromCardExpired_ThrowsException() {
+    // Arrange
+    fromCard.setExpiryDate(LocalDate.now().minusDays(1));
+
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+    when(cardRepository.findByIdAndOwner_Username(2L, "testuser")).thenReturn(java.util.Optional.of(toCard));
+
+    // Act & Assert
+    CardExpiredException exception = assertThrows(CardExpiredException.class,
+        () -> transactionService.transferBetweenOwnCards(transferRequest));
+
+    assertEquals("Срок действия карты списания истек", exception.getMessage());
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "expired").timer().count());
+    verify(transactionRepository, never()).save(any());
+  }
+
   @Test
   @DisplayName("Перевод с недостаточным балансом")
   void transferBetweenOwnCards_InsufficientFunds_ThrowsException() {
@@ -270,9 +357,106 @@ class TransactionServiceImplTest {
         () -> transactionService.transferBetweenOwnCards(transferRequest));
 
     assertEquals("Недостаточно средств", exception.getMessage());
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "insufficient_funds").timer().count());
 
     verify(cardRepository).findByIdAndOwner_Username(1L, "testuser");
     verify(cardRepository).findByIdAndOwner_Username(2L, "testuser");
     verify(transactionRepository, never()).save(any());
   }
+
+  @Test
+  @DisplayName("Перевод сверх лимита списаний")
+  void transferBetweenOwnCards_SpendingLimitExceeded_ThrowsException() {
+    // Arrange
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+    when(cardRepository.findByIdAndOwner_Username(2L, "testuser")).thenReturn(java.util.Optional.of(toCard));
+    doThrow(new SpendingLimitExceededException("Превышен дневной лимит списаний по карте"))
+        .when(spendingLimitService).reserve(fromCard, new BigDecimal("200.00"));
+
+    // Act & Assert
+    SpendingLimitExceededException exception = assertThrows(SpendingLimitExceededException.class,
+        () -> transactionService.transferBetweenOwnCards(transferRequest));
+
+    assertEquals("Превышен дневной лимит списаний по карте", exception.getMessage());
+    assertEquals(1, meterRegistry.get("bank.transfer").tag("outcome", "limit_exceeded").timer().count());
+    assertEquals(new BigDecimal("1000.00"), fromCard.getBalance());
+    verify(transactionRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("История операций: страница заполняется из нескольких месячных окон")
+  void getCardTransactions_WalksMonthWindowsBackwards() {
+    // Arrange
+    LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    fromCard.setCreatedAt(monthStart.minusMonths(2));
+    Transaction recent = historyTransaction(3L, fromCard, toCard, monthStart.plusHours(1));
+    Transaction older = historyTransaction(2L, toCard, fromCard, monthStart.minusDays(3));
+    Transaction oldest = historyTransaction(1L, fromCard, toCard, monthStart.minusDays(40));
+
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+    when(transactionRepository.findCardHistoryWindow(eq(1L), eq(monthStart), eq(monthStart.plusMonths(1)),
+        eq(monthStart.plusMonths(1)), eq(Long.MAX_VALUE), eq(3))).thenReturn(List.of(recent));
+    when(transactionRepository.findCardHistoryWindow(eq(1L), eq(monthStart.minusMonths(1)), eq(monthStart),
+        eq(monthStart.plusMonths(1)), eq(Long.MAX_VALUE), eq(2))).thenReturn(List.of(older, oldest));
+
+    // Act
+    TransactionHistoryResponse page = transactionService.getCardTransactions(1L, null, 2);
+
+    // Assert
+    assertEquals(2, page.items().size());
+    assertEquals(3L, page.items().get(0).id());
+    assertEquals("OUTGOING", page.items().get(0).direction());
+    assertEquals("INCOMING", page.items().get(1).direction());
+    assertNotNull(page.nextCursor());
+    verify(transactionRepository, times(2)).findCardHistoryWindow(eq(1L), any(), any(), any(), anyLong(),
+        anyInt());
+  }
+
+  @Test
+  @DisplayName("История операций: курсор продолжает с последней выданной операции")
+  void getCardTransactions_WithCursor_StopsAtCardCreationMonth() {
+    // Arrange
+    LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    fromCard.setCreatedAt(monthStart.minusMonths(1));
+    Transaction last = historyTransaction(7L, fromCard, toCard, monthStart.plusHours(5));
+
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+    when(transactionRepository.findCardHistoryWindow(eq(1L), eq(monthStart), eq(monthStart.plusMonths(1)),
+        eq(monthStart.plusHours(5)), eq(7L), eq(21))).thenReturn(List.of());
+    when(transactionRepository.findCardHistoryWindow(eq(1L), eq(monthStart.minusMonths(1)), eq(monthStart),
+        eq(monthStart.plusHours(5)), eq(7L), eq(21))).thenReturn(List.of());
+    String cursor = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+
+    // Act
+    TransactionHistoryResponse page = transactionService.getCardTransactions(1L, cursor, null);
+
+    // Assert
+    assertEquals(0, page.items().size());
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  @DisplayName("История операций: некорректный курсор")
+  void getCardTransactions_InvalidCursor_ThrowsException() {
+    when(authenticationFacade.getAuthenticationName()).thenReturn("testuser");
+    when(cardRepository.findByIdAndOwner_Username(1L, "testuser")).thenReturn(java.util.Optional.of(fromCard));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> transactionService.getCardTransactions(1L, "not-a-cursor", 10));
+  }
+
+  private static Transaction historyTransaction(Long id, Card from, Card to, LocalDateTime createdAt) {
+    return Transaction.builder()
+        .id(id)
+        .fromCard(from)
+        .toCard(to)
+        .amount(new BigDecimal("10.00"))
+        .status("COMPLETED")
+        .createdAt(createdAt)
+        .build();
+  }
 }
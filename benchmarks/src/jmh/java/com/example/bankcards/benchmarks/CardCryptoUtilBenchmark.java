@@ -0,0 +1,46 @@
+package com.example.bankcards.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.bankcards.config.CryptoConfig;
+import com.example.bankcards.util.CardCryptoUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Шифрование, расшифровка и маскирование номера карты
+ */
+@State(Scope.Benchmark)
+public class CardCryptoUtilBenchmark {
+
+  private static final String CARD_NUMBER = "4444551234567890";
+
+  private CardCryptoUtil cardCryptoUtil;
+  private String encryptedCardNumber;
+
+  @Setup
+  public void setUp() {
+    var cryptoConfig = new CryptoConfig();
+    cryptoConfig.setEncryptionKey("BenchKey1234567890123456789012ab");
+    cardCryptoUtil = new CardCryptoUtil(cryptoConfig, new SimpleMeterRegistry());
+    encryptedCardNumber = cardCryptoUtil.encrypt(CARD_NUMBER);
+  }
+
+  @Benchmark
+  public String encrypt() {
+    return cardCryptoUtil.encrypt(CARD_NUMBER);
+  }
+
+  @Benchmark
+  public String decrypt() {
+    return cardCryptoUtil.decrypt(encryptedCardNumber);
+  }
+
+  @Benchmark
+  public String maskCardNumber() {
+    return cardCryptoUtil.maskCardNumber(CARD_NUMBER);
+  }
+}
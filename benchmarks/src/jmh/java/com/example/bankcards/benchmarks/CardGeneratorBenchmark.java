@@ -0,0 +1,21 @@
+package com.example.bankcards.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.bankcards.util.CardGenerator;
+
+/**
+ * Генерация номера карты по алгоритму Луна
+ */
+@State(Scope.Benchmark)
+public class CardGeneratorBenchmark {
+
+  private final String bin = "444455";
+
+  @Benchmark
+  public String generate() {
+    return CardGenerator.generate(bin);
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.service.CardMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Сериализация страницы карт в JSON, как в ответе GET /api/admin/cards
+ */
+@State(Scope.Benchmark)
+public class CardPageSerializationBenchmark {
+
+  @Param({ "20", "100" })
+  private int pageSize;
+
+  private ObjectMapper objectMapper;
+  private Page<CardResponse> page;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    Cardholder cardholder = MapperBenchmark.BenchmarkData.cardholder(1L);
+    List<CardResponse> content = new ArrayList<>(pageSize);
+    for (long id = 1; id <= pageSize; id++) {
+      content.add(CardMapper.mapToResponse(MapperBenchmark.BenchmarkData.card(id, cardholder)));
+    }
+    page = new PageImpl<>(content, PageRequest.of(0, pageSize), pageSize * 50L);
+  }
+
+  @Benchmark
+  public byte[] serializePage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+}
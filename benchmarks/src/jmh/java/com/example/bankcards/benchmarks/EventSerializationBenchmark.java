@@ -0,0 +1,103 @@
+package com.example.bankcards.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.auth.event.TransferCompletedEvent;
+import com.example.common.auth.event.UserCreatedEvent;
+import com.example.common.serialization.BinaryEventDeserializer;
+import com.example.common.serialization.BinaryEventSerializer;
+
+/**
+ * Сериализация событий Kafka: прежний JsonSerializer с заголовками типа против BinaryEventSerializer.
+ * Пропускная способность - в операциях в секунду, размер записи (значение + заголовки)
+ * печатается при подготовке каждого набора параметров
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventSerializationBenchmark {
+
+  private static final String TOPIC = "events";
+
+  @Param({ "user", "block", "transfer" })
+  private String eventType;
+
+  private Object event;
+
+  private JsonSerializer<Object> jsonSerializer;
+  private JsonDeserializer<Object> jsonDeserializer;
+  private BinaryEventSerializer binarySerializer;
+  private BinaryEventDeserializer binaryDeserializer;
+
+  private byte[] json;
+  private RecordHeaders jsonHeaders;
+  private byte[] binary;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+    event = switch (eventType) {
+      case "user" -> new UserCreatedEvent("ivan.petrov", "ivan.petrov@example.com", "Иван", "Петров", now);
+      case "block" -> new RequestBlockCardEvent(184_467L, 12_345L, now);
+      case "transfer" -> new TransferCompletedEvent(9_876_543L, 184_467L, 184_468L, 12_345L,
+          new BigDecimal("1500.50"), now);
+      default -> throw new IllegalArgumentException(eventType);
+    };
+
+    jsonSerializer = new JsonSerializer<>();
+    jsonDeserializer = new JsonDeserializer<>();
+    jsonDeserializer.addTrustedPackages("com.example.common.*");
+    binarySerializer = new BinaryEventSerializer();
+    binaryDeserializer = new BinaryEventDeserializer();
+
+    jsonHeaders = new RecordHeaders();
+    json = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+    binary = binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+    System.out.printf("%n%s: json %d B (value %d + headers %d), binary %d B%n", eventType,
+        json.length + headersSize(jsonHeaders), json.length, headersSize(jsonHeaders), binary.length);
+  }
+
+  @Benchmark
+  public byte[] serializeJson() {
+    return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  @Benchmark
+  public byte[] serializeBinary() {
+    return binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  @Benchmark
+  public Object deserializeJson() {
+    return jsonDeserializer.deserialize(TOPIC, jsonHeaders, json);
+  }
+
+  @Benchmark
+  public Object deserializeBinary() {
+    return binaryDeserializer.deserialize(TOPIC, new RecordHeaders(), binary);
+  }
+
+  private static int headersSize(RecordHeaders headers) {
+    int size = 0;
+    for (Header header : headers) {
+      size += header.key().length() + header.value().length;
+    }
+    return size;
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.benchmarks;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import com.example.bankcards.config.JwtCacheConfig;
+import com.example.bankcards.service.CachingJwtAuthenticationManager;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Аутентификация bearer-токена ресурсным сервером: разбор, проверка RS256-подписи и claims,
+ * построение ролей - с кэшем проверенных JWT и без него. Операция соответствует одному запросу
+ * к /api/**, поэтому ops/s - верхняя граница запросов в секунду на поток без учета остального запроса.
+ * tokens - число разных токенов в обороте (активных пользователей)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtAuthenticationBenchmark {
+
+  @Param({ "true", "false" })
+  public boolean cacheEnabled;
+
+  @Param({ "1", "1000" })
+  public int tokens;
+
+  private CachingJwtAuthenticationManager manager;
+  private String[] tokenValues;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair keyPair = generator.generateKeyPair();
+    RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+        .privateKey((RSAPrivateKey) keyPair.getPrivate())
+        .keyID("bench")
+        .build();
+    NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+
+    tokenValues = new String[tokens];
+    Instant now = Instant.now();
+    for (int i = 0; i < tokens; i++) {
+      JwtClaimsSet claims = JwtClaimsSet.builder()
+          .issuer("http://auth-server:9000")
+          .subject("user" + i)
+          .issuedAt(now)
+          .expiresAt(now.plusSeconds(3600))
+          .claim("roles", List.of("USER"))
+          .build();
+      tokenValues[i] = encoder.encode(JwtEncoderParameters.from(
+          JwsHeader.with(SignatureAlgorithm.RS256).keyId("bench").build(), claims)).getTokenValue();
+    }
+
+    // Те же роли, что в AppSecurityConfig.jwtAuthenticationConverter
+    var rolesConverter = new JwtGrantedAuthoritiesConverter();
+    rolesConverter.setAuthoritiesClaimName("roles");
+    rolesConverter.setAuthorityPrefix("ROLE_");
+    var converter = new JwtAuthenticationConverter();
+    converter.setJwtGrantedAuthoritiesConverter(rolesConverter);
+
+    var cacheConfig = new JwtCacheConfig();
+    cacheConfig.setEnabled(cacheEnabled);
+    manager = new CachingJwtAuthenticationManager(
+        NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build(), converter, cacheConfig,
+        new SimpleMeterRegistry());
+  }
+
+  @Benchmark
+  public Authentication authenticate() {
+    String token = tokenValues[next];
+    next = next + 1 == tokens ? 0 : next + 1;
+    return manager.authenticate(new BearerTokenAuthenticationToken(token));
+  }
+}
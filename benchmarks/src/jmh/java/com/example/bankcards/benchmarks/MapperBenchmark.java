@@ -0,0 +1,80 @@
+package com.example.bankcards.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardholderResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Cardholder;
+import com.example.bankcards.service.CardMapper;
+import com.example.bankcards.service.CardholderMapper;
+
+/**
+ * Преобразование сущностей в DTO ответа
+ */
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+  private Card card;
+  private Cardholder cardholder;
+
+  @Setup
+  public void setUp() {
+    cardholder = BenchmarkData.cardholder(1L);
+    card = BenchmarkData.card(1L, cardholder);
+  }
+
+  @Benchmark
+  public CardResponse cardMapper() {
+    return CardMapper.mapToResponse(card);
+  }
+
+  @Benchmark
+  public CardholderResponse cardholderMapper() {
+    return CardholderMapper.mapToResponse(cardholder);
+  }
+
+  /**
+   * Тестовые данные, общие для бенчмарков
+   */
+  static final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Cardholder cardholder(Long id) {
+      return Cardholder.builder()
+          .id(id)
+          .username("user" + id)
+          .email("user" + id + "@example.com")
+          .firstName("John")
+          .lastName("Doe")
+          .enabled(true)
+          .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+          .build();
+    }
+
+    static Card card(Long id, Cardholder owner) {
+      return Card.builder()
+          .id(id)
+          .cardNumberEncrypted("encrypted")
+          .cardNumberMasked("**** **** **** " + String.format("%04d", id % 10000))
+          .ownerName(owner.getCardOwnerName())
+          .expiryDate(LocalDate.of(2029, 1, 1))
+          .status(CardStatus.ACTIVE)
+          .balance(new BigDecimal("1234.56"))
+          .isBlockRequested(false)
+          .owner(owner)
+          .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+          .build();
+    }
+  }
+}
@@ -1,12 +1,20 @@
 package com.example.common.auth.event;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 
+/**
+ * eventId - ключ идемпотентности потребителя, null у событий, отправленных до его появления
+ */
 public record RequestBlockCardEvent(Long cardId, Long ownerId,
-    @JsonSerialize(using = LocalDateTimeSerializer.class) @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime requestedAt) {
+    @JsonSerialize(using = LocalDateTimeSerializer.class) @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime requestedAt,
+    UUID eventId) {
 
+  public RequestBlockCardEvent(Long cardId, Long ownerId, LocalDateTime requestedAt) {
+    this(cardId, ownerId, requestedAt, UUID.randomUUID());
+  }
 }
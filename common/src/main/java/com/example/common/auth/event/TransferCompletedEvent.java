@@ -0,0 +1,13 @@
+package com.example.common.auth.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+public record TransferCompletedEvent(Long transactionId, Long fromCardId, Long toCardId, Long ownerId, BigDecimal amount,
+    @JsonSerialize(using = LocalDateTimeSerializer.class) @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime completedAt) {
+
+}
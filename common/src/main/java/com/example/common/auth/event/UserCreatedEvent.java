@@ -1,11 +1,20 @@
 package com.example.common.auth.event;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 
+/**
+ * eventId - ключ идемпотентности потребителя, null у событий, отправленных до его появления
+ */
 public record UserCreatedEvent(String username, String email, String firstName, String lastName,
-        @JsonSerialize(using = LocalDateTimeSerializer.class) @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime createdAt) {
+        @JsonSerialize(using = LocalDateTimeSerializer.class) @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime createdAt,
+        UUID eventId) {
+
+  public UserCreatedEvent(String username, String email, String firstName, String lastName, LocalDateTime createdAt) {
+    this(username, email, firstName, lastName, createdAt, UUID.randomUUID());
+  }
 }
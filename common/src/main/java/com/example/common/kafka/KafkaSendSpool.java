@@ -0,0 +1,193 @@
+package com.example.common.kafka;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.common.serialization.EventCodecs;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Локальный файловый спул записей, которые не удалось отправить в Kafka. Принимаются только события
+ * с бинарной схемой в EventCodecs, в спул они пишутся в том же формате, что уходит в брокер. Повторная отправка забирает файл целиком: pending.spool
+ * переименовывается в draining.spool, и тот удаляется только после release, поэтому падение узла
+ * посреди повтора не теряет записи, а в худшем случае отправляет их второй раз
+ */
+@Slf4j
+public class KafkaSendSpool {
+
+  static final String PENDING_FILE = "pending.spool";
+  static final String DRAINING_FILE = "draining.spool";
+
+  private final Path pending;
+  private final Path draining;
+  private final long maxBytes;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicLong sizeBytes = new AtomicLong();
+
+  public KafkaSendSpool(Path directory, long maxBytes) {
+    try {
+      Files.createDirectories(directory);
+      this.pending = directory.resolve(PENDING_FILE);
+      this.draining = directory.resolve(DRAINING_FILE);
+      this.maxBytes = maxBytes;
+      sizeBytes.set(fileSize(pending) + fileSize(draining));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Не удалось открыть спул Kafka в " + directory, e);
+    }
+  }
+
+  public record SpooledRecord(String topic, String key, Object value) {
+  }
+
+  /**
+   * Дописывает запись в спул. false - спул переполнен или у события нет бинарной схемы
+   */
+  public boolean append(String topic, String key, Object value) {
+    if (!EventCodecs.isRegistered(value.getClass())) {
+      log.error("Kafka spool accepts only registered events, got {}", value.getClass().getName());
+      return false;
+    }
+    byte[] entry;
+    try {
+      entry = encode(topic, key, value);
+    } catch (RuntimeException | IOException e) {
+      log.error("Kafka spool cannot serialize record for topic {}", topic, e);
+      return false;
+    }
+    lock.lock();
+    try {
+      if (sizeBytes.get() + entry.length > maxBytes) {
+        return false;
+      }
+      try (FileOutputStream out = new FileOutputStream(pending.toFile(), true)) {
+        out.write(entry);
+        out.getFD().sync();
+      }
+      sizeBytes.addAndGet(entry.length);
+      return true;
+    } catch (IOException e) {
+      log.error("Kafka spool write failed for topic {}", topic, e);
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Забирает все записи на повтор. Пока не вызван release, новые записи копятся в pending.spool
+   */
+  public List<SpooledRecord> take() {
+    lock.lock();
+    try {
+      if (!Files.exists(draining) && Files.exists(pending)) {
+        Files.move(pending, draining, StandardCopyOption.ATOMIC_MOVE);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+    return Files.exists(draining) ? read(draining) : List.of();
+  }
+
+  /**
+   * Завершает повтор: неотправленные записи возвращаются в pending.spool, draining.spool удаляется
+   */
+  public void release(List<SpooledRecord> unsent) {
+    lock.lock();
+    try {
+      long drained = fileSize(draining);
+      Files.deleteIfExists(draining);
+      sizeBytes.addAndGet(-drained);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+    unsent.forEach(record -> {
+      if (!append(record.topic(), record.key(), record.value())) {
+        log.error("Kafka spool dropped record for topic {} on release", record.topic());
+      }
+    });
+  }
+
+  public long sizeBytes() {
+    return sizeBytes.get();
+  }
+
+  /**
+   * Формат записи: длина, topic, ключ (признак и строка), значение в бинарном формате EventCodecs
+   */
+  private static byte[] encode(String topic, String key, Object value) throws IOException {
+    byte[] payload = EventCodecs.encode(value);
+    ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 64);
+    DataOutputStream out = new DataOutputStream(body);
+    out.writeUTF(topic);
+    out.writeBoolean(key != null);
+    if (key != null) {
+      out.writeUTF(key);
+    }
+    out.writeInt(payload.length);
+    out.write(payload);
+    out.flush();
+
+    ByteArrayOutputStream entry = new ByteArrayOutputStream(body.size() + 4);
+    DataOutputStream entryOut = new DataOutputStream(entry);
+    entryOut.writeInt(body.size());
+    body.writeTo(entryOut);
+    entryOut.flush();
+    return entry.toByteArray();
+  }
+
+  private List<SpooledRecord> read(Path file) {
+    List<SpooledRecord> records = new ArrayList<>();
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        int length;
+        try {
+          length = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        records.add(decode(body));
+      }
+    } catch (EOFException e) {
+      // Узел упал посреди записи: последняя запись неполная и в брокер не уходила
+      log.warn("Kafka spool {} has truncated tail, {} records recovered", file, records.size());
+    } catch (IOException | RuntimeException e) {
+      log.error("Kafka spool {} is unreadable after {} records", file, records.size(), e);
+    }
+    return records;
+  }
+
+  private static SpooledRecord decode(byte[] body) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+    String topic = in.readUTF();
+    String key = in.readBoolean() ? in.readUTF() : null;
+    byte[] payload = new byte[in.readInt()];
+    in.readFully(payload);
+    return new SpooledRecord(topic, key, EventCodecs.decode(payload));
+  }
+
+  private static long fileSize(Path file) throws IOException {
+    return Files.exists(file) ? Files.size(file) : 0;
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.common.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Отправка событий в Kafka с подтверждением. Результат send приходит асинхронно: успех и ошибка
+ * записываются в таймер bank.kafka.send с тегами topic и result, а неотправленная запись уходит
+ * в локальный спул и повторяется раз в retryInterval, пока брокер не примет ее.
+ * Вызывающий поток не ждет брокер, кроме случая, когда буфер продюсера заполнен (max.block.ms)
+ */
+@Slf4j
+public class ReliableKafkaSender implements AutoCloseable {
+
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final KafkaSendSpool spool;
+  private final Duration retryInterval;
+  private final Duration resendTimeout;
+  private final MeterRegistry meterRegistry;
+
+  private final Counter spooled;
+  private final Counter dropped;
+  private final Counter resent;
+  // topic -> [success, failure]: таймеры регистрируются один раз на топик, а не на каждую отправку
+  private final Map<String, Timer[]> sendTimers = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService executor;
+
+  public ReliableKafkaSender(KafkaTemplate<String, Object> kafkaTemplate, KafkaSendSpool spool,
+      Duration retryInterval, Duration resendTimeout, MeterRegistry meterRegistry) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.spool = spool;
+    this.retryInterval = retryInterval;
+    this.resendTimeout = resendTimeout;
+    this.meterRegistry = meterRegistry;
+    this.spooled = Counter.builder("bank.kafka.spool.appended")
+        .description("Записи, отложенные в локальный спул после ошибки отправки")
+        .register(meterRegistry);
+    this.dropped = Counter.builder("bank.kafka.spool.dropped")
+        .description("Записи, не поместившиеся в спул: событие потеряно")
+        .register(meterRegistry);
+    this.resent = Counter.builder("bank.kafka.spool.resent")
+        .description("Записи из спула, принятые брокером при повторе")
+        .register(meterRegistry);
+    Gauge.builder("bank.kafka.spool.size", spool, KafkaSendSpool::sizeBytes)
+        .description("Размер локального спула Kafka")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "kafka-spool");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Запускает повтор записей из спула, включая оставшиеся с прошлого запуска
+   */
+  public void start() {
+    long interval = retryInterval.toMillis();
+    executor.scheduleWithFixedDelay(this::resendSpooledSafely, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public CompletableFuture<SendResult<String, Object>> send(String topic, Object event) {
+    return send(topic, null, event);
+  }
+
+  public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object event) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    CompletableFuture<SendResult<String, Object>> future;
+    try {
+      future = kafkaTemplate.send(topic, key, event);
+    } catch (RuntimeException e) {
+      // Нет метаданных топика или буфер продюсера не освободился за max.block.ms
+      future = CompletableFuture.failedFuture(e);
+    }
+    return future.whenComplete((result, ex) -> {
+      sample.stop(sendTimers(topic)[ex == null ? 0 : 1]);
+      if (ex != null) {
+        log.warn("Kafka send to {} failed, record goes to spool: {}", topic, ex.toString());
+        spoolAsync(topic, key, event);
+      }
+    });
+  }
+
+  /**
+   * Отправляет записи из спула по одной с ожиданием подтверждения. На первой ошибке повтор прекращается,
+   * брокер, скорее всего, еще недоступен; оставшиеся записи возвращаются в спул
+   *
+   * @return количество отправленных записей
+   */
+  int resendSpooled() {
+    List<KafkaSendSpool.SpooledRecord> records = spool.take();
+    if (records.isEmpty()) {
+      return 0;
+    }
+    List<KafkaSendSpool.SpooledRecord> unsent = new ArrayList<>();
+    int sent = 0;
+    for (KafkaSendSpool.SpooledRecord record : records) {
+      if (!unsent.isEmpty()) {
+        unsent.add(record);
+        continue;
+      }
+      try {
+        kafkaTemplate.send(record.topic(), record.key(), record.value())
+            .get(resendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        sent++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        unsent.add(record);
+      } catch (ExecutionException | TimeoutException | RuntimeException e) {
+        log.warn("Kafka spool resend to {} failed: {}", record.topic(), e.toString());
+        unsent.add(record);
+      }
+    }
+    spool.release(unsent);
+    resent.increment(sent);
+    if (sent > 0) {
+      log.info("Kafka spool resent {} records, {} left", sent, unsent.size());
+    }
+    return sent;
+  }
+
+  private void resendSpooledSafely() {
+    try {
+      resendSpooled();
+    } catch (RuntimeException e) {
+      log.error("Kafka spool resend failed", e);
+    }
+  }
+
+  private void spoolAsync(String topic, String key, Object event) {
+    try {
+      // Запись в файл не должна занимать сетевой поток продюсера
+      executor.execute(() -> spool(topic, key, event));
+    } catch (RejectedExecutionException e) {
+      // Остановка: продюсер дописывает буфер уже после закрытия исполнителя
+      spool(topic, key, event);
+    }
+  }
+
+  private void spool(String topic, String key, Object event) {
+    if (spool.append(topic, key, event)) {
+      spooled.increment();
+    } else {
+      dropped.increment();
+      log.error("Kafka record for {} dropped: spool is full or unavailable", topic);
+    }
+  }
+
+  private Timer[] sendTimers(String topic) {
+    Timer[] timers = sendTimers.get(topic);
+    if (timers == null) {
+      timers = sendTimers.computeIfAbsent(topic,
+          name -> new Timer[] { sendTimer(name, "success"), sendTimer(name, "failure") });
+    }
+    return timers;
+  }
+
+  private Timer sendTimer(String topic, String result) {
+    return Timer.builder("bank.kafka.send")
+        .description("Время от отправки записи до подтверждения брокером")
+        .tag("topic", topic)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+    try {
+      executor.awaitTermination(resendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.common.serialization;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Десериализатор значений Kafka в пару к BinaryEventSerializer. Записи, отправленные до перехода
+ * на бинарный формат, читаются как JSON: тип берется из заголовка __TypeId__, но только
+ * среди зарегистрированных в EventCodecs событий, либо из defaultType
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final Class<?> defaultType;
+
+  public BinaryEventDeserializer() {
+    this(null);
+  }
+
+  public BinaryEventDeserializer(Class<?> defaultType) {
+    this.defaultType = defaultType;
+  }
+
+  @Override
+  public Object deserialize(String topic, byte[] data) {
+    return deserialize(topic, null, data);
+  }
+
+  @Override
+  public Object deserialize(String topic, Headers headers, byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    if (EventCodecs.isBinary(data)) {
+      return EventCodecs.decode(data);
+    }
+    Class<?> type = jsonType(headers);
+    if (type == null) {
+      throw new SerializationException("Неизвестный тип JSON-сообщения в " + topic);
+    }
+    try {
+      return objectMapper.readValue(data, type);
+    } catch (IOException e) {
+      throw new SerializationException("Не удалось прочитать JSON-сообщение в " + topic, e);
+    }
+  }
+
+  private Class<?> jsonType(Headers headers) {
+    Header header = headers != null ? headers.lastHeader(BinaryEventSerializer.TYPE_ID_HEADER) : null;
+    if (header != null) {
+      Class<?> registered = EventCodecs.registeredType(new String(header.value(), StandardCharsets.UTF_8));
+      if (registered != null) {
+        return registered;
+      }
+    }
+    return defaultType;
+  }
+}
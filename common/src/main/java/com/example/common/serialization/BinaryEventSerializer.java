@@ -0,0 +1,50 @@
+package com.example.common.serialization;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Сериализатор значений Kafka: события с бинарной схемой в EventCodecs пишутся компактно без заголовков,
+ * остальные объекты - JSON с заголовком __TypeId__, совместимым с JsonDeserializer.
+ * byte[] передается как есть: так в dead-letter топик попадают записи, которые не удалось прочитать
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+  static final String TYPE_ID_HEADER = "__TypeId__";
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  @Override
+  public byte[] serialize(String topic, Object data) {
+    return serialize(topic, null, data);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Headers headers, Object data) {
+    if (data == null) {
+      return null;
+    }
+    if (data instanceof byte[] raw) {
+      return raw;
+    }
+    if (EventCodecs.isRegistered(data.getClass())) {
+      return EventCodecs.encode(data);
+    }
+    if (headers != null) {
+      headers.remove(TYPE_ID_HEADER);
+      headers.add(TYPE_ID_HEADER, data.getClass().getName().getBytes(StandardCharsets.UTF_8));
+    }
+    try {
+      return objectMapper.writeValueAsBytes(data);
+    } catch (JsonProcessingException e) {
+      throw new SerializationException("Не удалось сериализовать " + data.getClass().getName(), e);
+    }
+  }
+}
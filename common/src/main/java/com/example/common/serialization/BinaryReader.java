@@ -0,0 +1,109 @@
+package com.example.common.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Чтение полей, записанных BinaryWriter. Выход за границы массива - SerializationException в вызывающем коде
+ */
+public final class BinaryReader {
+
+  private final byte[] buffer;
+  private int position;
+
+  public BinaryReader(byte[] buffer, int offset) {
+    this.buffer = buffer;
+    this.position = offset;
+  }
+
+  public int readByte() {
+    if (position >= buffer.length) {
+      throw new IllegalArgumentException("Неожиданный конец сообщения");
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  public long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Слишком длинный varint");
+  }
+
+  public int readVarInt() {
+    return Math.toIntExact(readVarLong());
+  }
+
+  public long readZigZag() {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public Long readNullableLong() {
+    return readByte() == 0 ? null : readZigZag();
+  }
+
+  public String readString() {
+    int length = readVarInt();
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = readBytes(length - 1);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public LocalDateTime readDateTime() {
+    if (readByte() == 0) {
+      return null;
+    }
+    long epochSecond = readZigZag();
+    return LocalDateTime.ofEpochSecond(epochSecond, readVarInt(), ZoneOffset.UTC);
+  }
+
+  public BigDecimal readDecimal() {
+    int kind = readByte();
+    if (kind == 0) {
+      return null;
+    }
+    int scale = Math.toIntExact(readZigZag());
+    if (kind == 1) {
+      return BigDecimal.valueOf(readZigZag(), scale);
+    }
+    return new BigDecimal(new BigInteger(readBytes(readVarInt())), scale);
+  }
+
+  public UUID readUuid() {
+    if (readByte() == 0) {
+      return null;
+    }
+    return new UUID(readFixedLong(), readFixedLong());
+  }
+
+  private long readFixedLong() {
+    byte[] bytes = readBytes(Long.BYTES);
+    long value = 0;
+    for (byte b : bytes) {
+      value = (value << 8) | (b & 0xFF);
+    }
+    return value;
+  }
+
+  public byte[] readBytes(int length) {
+    if (length < 0 || position + length > buffer.length) {
+      throw new IllegalArgumentException("Неожиданный конец сообщения");
+    }
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, position, bytes, 0, length);
+    position += length;
+    return bytes;
+  }
+}
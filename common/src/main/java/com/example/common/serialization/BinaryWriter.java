@@ -0,0 +1,140 @@
+package com.example.common.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Запись полей события в компактном бинарном формате.
+ * Целые - zigzag varint, необязательные поля - с признаком null в первом байте,
+ * строки - длина в байтах + 1 (0 - null), затем UTF-8
+ */
+public final class BinaryWriter {
+
+  private byte[] buffer;
+  private int position;
+
+  public BinaryWriter(int initialCapacity) {
+    this.buffer = new byte[Math.max(initialCapacity, 16)];
+  }
+
+  public BinaryWriter writeByte(int value) {
+    ensureCapacity(1);
+    buffer[position++] = (byte) value;
+    return this;
+  }
+
+  /**
+   * Беззнаковый LEB128: 7 бит на байт, старший бит - продолжение
+   */
+  public BinaryWriter writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return this;
+  }
+
+  public BinaryWriter writeVarInt(int value) {
+    return writeVarLong(value & 0xFFFFFFFFL);
+  }
+
+  public BinaryWriter writeZigZag(long value) {
+    return writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  public BinaryWriter writeNullableLong(Long value) {
+    if (value == null) {
+      return writeByte(0);
+    }
+    writeByte(1);
+    return writeZigZag(value);
+  }
+
+  public BinaryWriter writeString(String value) {
+    if (value == null) {
+      return writeVarInt(0);
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length + 1);
+    return writeBytes(bytes);
+  }
+
+  /**
+   * Время без зоны - секунды эпохи в UTC и наносекунды, как их хранит LocalDateTime
+   */
+  public BinaryWriter writeDateTime(LocalDateTime value) {
+    if (value == null) {
+      return writeByte(0);
+    }
+    writeByte(1);
+    writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+    return writeVarInt(value.getNano());
+  }
+
+  /**
+   * Масштаб и неприведенное значение; сумма до 2^63 занимает один varint
+   */
+  public BinaryWriter writeDecimal(BigDecimal value) {
+    if (value == null) {
+      return writeByte(0);
+    }
+    BigInteger unscaled = value.unscaledValue();
+    if (unscaled.bitLength() < 64) {
+      writeByte(1);
+      writeZigZag(value.scale());
+      return writeZigZag(unscaled.longValueExact());
+    }
+    writeByte(2);
+    writeZigZag(value.scale());
+    byte[] bytes = unscaled.toByteArray();
+    writeVarInt(bytes.length);
+    return writeBytes(bytes);
+  }
+
+  /**
+   * UUID - флаг и 16 байт как есть: случайные биты varint не сжимает
+   */
+  public BinaryWriter writeUuid(UUID value) {
+    if (value == null) {
+      return writeByte(0);
+    }
+    writeByte(1);
+    writeFixedLong(value.getMostSignificantBits());
+    return writeFixedLong(value.getLeastSignificantBits());
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, position);
+  }
+
+  /**
+   * Байты как есть, без длины: длину пишет вызывающий код
+   */
+  public BinaryWriter writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+    return this;
+  }
+
+  private BinaryWriter writeFixedLong(long value) {
+    ensureCapacity(Long.BYTES);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+    return this;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (position + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.common.serialization;
+
+/**
+ * Бинарная схема одного типа события. typeId записывается в каждое сообщение вместо имени класса
+ * и не переиспользуется. Новое поле добавляется в конец с увеличением version; read получает
+ * версию записавшей стороны и для старых версий подставляет значение по умолчанию
+ */
+public interface EventCodec<T> {
+
+  int typeId();
+
+  Class<T> type();
+
+  int version();
+
+  void write(BinaryWriter writer, T event);
+
+  T read(BinaryReader reader, int version);
+}
@@ -0,0 +1,95 @@
+package com.example.common.serialization;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Реестр бинарных схем событий. Формат сообщения:
+ * <pre>
+ * byte    0xB1 - признак бинарного формата, JSON с него начинаться не может
+ * varint  typeId
+ * varint  версия схемы записавшей стороны
+ * ...     поля события, см. EventCodec.write
+ * </pre>
+ * Сообщение более новой версии читается старой схемой: новые поля только дописываются в конец
+ * и при чтении пропускаются
+ */
+public final class EventCodecs {
+
+  static final byte MAGIC = (byte) 0xB1;
+
+  private static final List<EventCodec<?>> CODECS = List.of(
+      new UserCreatedEventCodec(),
+      new RequestBlockCardEventCodec(),
+      new TransferCompletedEventCodec());
+
+  private static final Map<Class<?>, EventCodec<?>> BY_TYPE = CODECS.stream()
+      .collect(Collectors.toUnmodifiableMap(EventCodec::type, Function.identity()));
+  private static final Map<Integer, EventCodec<?>> BY_TYPE_ID = CODECS.stream()
+      .collect(Collectors.toUnmodifiableMap(EventCodec::typeId, Function.identity()));
+  private static final Map<String, Class<?>> BY_CLASS_NAME = CODECS.stream()
+      .collect(Collectors.toUnmodifiableMap(codec -> codec.type().getName(), EventCodec::type));
+
+  private EventCodecs() {
+  }
+
+  public static boolean isRegistered(Class<?> type) {
+    return BY_TYPE.containsKey(type);
+  }
+
+  /**
+   * Тип события по имени класса из заголовка JSON-сообщения; незарегистрированные классы не загружаются
+   */
+  public static Class<?> registeredType(String className) {
+    return BY_CLASS_NAME.get(className);
+  }
+
+  public static boolean isBinary(byte[] data) {
+    return data != null && data.length > 0 && data[0] == MAGIC;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static byte[] encode(Object event) {
+    EventCodec<Object> codec = (EventCodec<Object>) BY_TYPE.get(event.getClass());
+    if (codec == null) {
+      throw new SerializationException("Нет бинарной схемы для " + event.getClass().getName());
+    }
+    BinaryWriter writer = new BinaryWriter(64)
+        .writeByte(MAGIC)
+        .writeVarInt(codec.typeId())
+        .writeVarInt(codec.version());
+    codec.write(writer, event);
+    return writer.toByteArray();
+  }
+
+  public static Object decode(byte[] data) {
+    if (!isBinary(data)) {
+      throw new SerializationException("Сообщение не в бинарном формате");
+    }
+    try {
+      BinaryReader reader = new BinaryReader(data, 1);
+      int typeId = reader.readVarInt();
+      EventCodec<?> codec = BY_TYPE_ID.get(typeId);
+      if (codec == null) {
+        throw new SerializationException("Неизвестный typeId события: " + typeId);
+      }
+      return codec.read(reader, reader.readVarInt());
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      throw new SerializationException("Поврежденное бинарное сообщение", e);
+    }
+  }
+
+  /**
+   * Serde одного типа для Kafka Streams; JSON-записи без заголовка типа читаются как type
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Serde<T> serde(Class<T> type) {
+    return (Serde<T>) (Serde<?>) Serdes.serdeFrom(new BinaryEventSerializer(), new BinaryEventDeserializer(type));
+  }
+}
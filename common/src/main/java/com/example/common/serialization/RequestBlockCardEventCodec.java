@@ -0,0 +1,45 @@
+package com.example.common.serialization;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.common.auth.event.RequestBlockCardEvent;
+
+/**
+ * v1: cardId, ownerId, requestedAt
+ * v2: + eventId
+ */
+final class RequestBlockCardEventCodec implements EventCodec<RequestBlockCardEvent> {
+
+  @Override
+  public int typeId() {
+    return 2;
+  }
+
+  @Override
+  public Class<RequestBlockCardEvent> type() {
+    return RequestBlockCardEvent.class;
+  }
+
+  @Override
+  public int version() {
+    return 2;
+  }
+
+  @Override
+  public void write(BinaryWriter writer, RequestBlockCardEvent event) {
+    writer.writeNullableLong(event.cardId())
+        .writeNullableLong(event.ownerId())
+        .writeDateTime(event.requestedAt())
+        .writeUuid(event.eventId());
+  }
+
+  @Override
+  public RequestBlockCardEvent read(BinaryReader reader, int version) {
+    Long cardId = reader.readNullableLong();
+    Long ownerId = reader.readNullableLong();
+    LocalDateTime requestedAt = reader.readDateTime();
+    UUID eventId = version >= 2 ? reader.readUuid() : null;
+    return new RequestBlockCardEvent(cardId, ownerId, requestedAt, eventId);
+  }
+}
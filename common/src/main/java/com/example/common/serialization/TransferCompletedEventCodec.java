@@ -0,0 +1,40 @@
+package com.example.common.serialization;
+
+import com.example.common.auth.event.TransferCompletedEvent;
+
+/**
+ * v1: transactionId, fromCardId, toCardId, ownerId, amount, completedAt
+ */
+final class TransferCompletedEventCodec implements EventCodec<TransferCompletedEvent> {
+
+  @Override
+  public int typeId() {
+    return 3;
+  }
+
+  @Override
+  public Class<TransferCompletedEvent> type() {
+    return TransferCompletedEvent.class;
+  }
+
+  @Override
+  public int version() {
+    return 1;
+  }
+
+  @Override
+  public void write(BinaryWriter writer, TransferCompletedEvent event) {
+    writer.writeNullableLong(event.transactionId())
+        .writeNullableLong(event.fromCardId())
+        .writeNullableLong(event.toCardId())
+        .writeNullableLong(event.ownerId())
+        .writeDecimal(event.amount())
+        .writeDateTime(event.completedAt());
+  }
+
+  @Override
+  public TransferCompletedEvent read(BinaryReader reader, int version) {
+    return new TransferCompletedEvent(reader.readNullableLong(), reader.readNullableLong(),
+        reader.readNullableLong(), reader.readNullableLong(), reader.readDecimal(), reader.readDateTime());
+  }
+}
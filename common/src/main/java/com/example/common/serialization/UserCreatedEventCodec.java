@@ -0,0 +1,49 @@
+package com.example.common.serialization;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.common.auth.event.UserCreatedEvent;
+
+/**
+ * v1: username, email, firstName, lastName, createdAt
+ * v2: + eventId
+ */
+final class UserCreatedEventCodec implements EventCodec<UserCreatedEvent> {
+
+  @Override
+  public int typeId() {
+    return 1;
+  }
+
+  @Override
+  public Class<UserCreatedEvent> type() {
+    return UserCreatedEvent.class;
+  }
+
+  @Override
+  public int version() {
+    return 2;
+  }
+
+  @Override
+  public void write(BinaryWriter writer, UserCreatedEvent event) {
+    writer.writeString(event.username())
+        .writeString(event.email())
+        .writeString(event.firstName())
+        .writeString(event.lastName())
+        .writeDateTime(event.createdAt())
+        .writeUuid(event.eventId());
+  }
+
+  @Override
+  public UserCreatedEvent read(BinaryReader reader, int version) {
+    String username = reader.readString();
+    String email = reader.readString();
+    String firstName = reader.readString();
+    String lastName = reader.readString();
+    LocalDateTime createdAt = reader.readDateTime();
+    UUID eventId = version >= 2 ? reader.readUuid() : null;
+    return new UserCreatedEvent(username, email, firstName, lastName, createdAt, eventId);
+  }
+}
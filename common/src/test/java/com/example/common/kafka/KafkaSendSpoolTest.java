@@ -0,0 +1,110 @@
+package com.example.common.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.common.auth.event.RequestBlockCardEvent;
+
+/**
+ * Тесты для KafkaSendSpool
+ */
+@DisplayName("Тесты KafkaSendSpool")
+class KafkaSendSpoolTest {
+
+  private static final RequestBlockCardEvent EVENT =
+      new RequestBlockCardEvent(42L, 7L, LocalDateTime.of(2025, 3, 1, 10, 15, 30));
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Записи из спула возвращаются в порядке добавления")
+  void appendAndTake_PreservesOrder() {
+    // Arrange
+    KafkaSendSpool spool = new KafkaSendSpool(directory, 1024 * 1024);
+    spool.append("block-card-topic", "42", EVENT);
+    spool.append("block-card-topic", null, EVENT);
+
+    // Act
+    List<KafkaSendSpool.SpooledRecord> records = spool.take();
+
+    // Assert
+    assertEquals(List.of(
+        new KafkaSendSpool.SpooledRecord("block-card-topic", "42", EVENT),
+        new KafkaSendSpool.SpooledRecord("block-card-topic", null, EVENT)), records);
+  }
+
+  @Test
+  @DisplayName("Неотправленные записи возвращаются в спул, отправленные удаляются")
+  void release_KeepsOnlyUnsent() {
+    // Arrange
+    KafkaSendSpool spool = new KafkaSendSpool(directory, 1024 * 1024);
+    spool.append("a", null, EVENT);
+    spool.append("b", null, EVENT);
+    List<KafkaSendSpool.SpooledRecord> records = spool.take();
+
+    // Act
+    spool.release(records.subList(1, 2));
+
+    // Assert
+    assertEquals(List.of(new KafkaSendSpool.SpooledRecord("b", null, EVENT)), spool.take());
+  }
+
+  @Test
+  @DisplayName("Записи, взятые на повтор до падения узла, читаются после перезапуска")
+  void take_AfterRestart_RecoversDraining() {
+    // Arrange
+    KafkaSendSpool before = new KafkaSendSpool(directory, 1024 * 1024);
+    before.append("a", null, EVENT);
+    before.take();
+    before.append("b", null, EVENT);
+
+    // Act
+    KafkaSendSpool after = new KafkaSendSpool(directory, 1024 * 1024);
+    List<KafkaSendSpool.SpooledRecord> first = after.take();
+    after.release(List.of());
+    List<KafkaSendSpool.SpooledRecord> second = after.take();
+
+    // Assert
+    assertEquals("a", first.get(0).topic());
+    assertEquals("b", second.get(0).topic());
+    assertTrue(after.sizeBytes() > 0);
+  }
+
+  @Test
+  @DisplayName("Неполная последняя запись отбрасывается, предыдущие читаются")
+  void take_TruncatedTail_RecoversPrefix() throws IOException {
+    // Arrange
+    KafkaSendSpool spool = new KafkaSendSpool(directory, 1024 * 1024);
+    spool.append("a", null, EVENT);
+    Files.write(directory.resolve(KafkaSendSpool.PENDING_FILE), new byte[] { 0, 0, 0, 50, 1, 2 },
+        StandardOpenOption.APPEND);
+
+    // Act & Assert
+    assertEquals(1, spool.take().size());
+  }
+
+  @Test
+  @DisplayName("Переполненный спул и незарегистрированные типы не принимаются")
+  void append_OverLimitOrUnknownType_Rejected() {
+    // Arrange
+    KafkaSendSpool spool = new KafkaSendSpool(directory, 40);
+
+    // Act & Assert
+    assertTrue(spool.append("a", null, EVENT));
+    assertFalse(spool.append("a", null, EVENT));
+    assertFalse(spool.append("a", null, "plain string"));
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.common.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import com.example.common.auth.event.RequestBlockCardEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для ReliableKafkaSender
+ */
+@DisplayName("Тесты ReliableKafkaSender")
+class ReliableKafkaSenderTest {
+
+  private static final RequestBlockCardEvent EVENT =
+      new RequestBlockCardEvent(42L, 7L, LocalDateTime.of(2025, 3, 1, 10, 15, 30));
+
+  @TempDir
+  Path directory;
+
+  private KafkaTemplate<String, Object> kafkaTemplate;
+  private KafkaSendSpool spool;
+  private MeterRegistry meterRegistry;
+  private ReliableKafkaSender sender;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    kafkaTemplate = mock(KafkaTemplate.class);
+    spool = new KafkaSendSpool(directory, 1024 * 1024);
+    meterRegistry = new SimpleMeterRegistry();
+    sender = new ReliableKafkaSender(kafkaTemplate, spool, Duration.ofMinutes(1), Duration.ofSeconds(1),
+        meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    sender.close();
+  }
+
+  @Test
+  @DisplayName("Подтвержденная отправка записывается в таймер success")
+  void send_Acknowledged_RecordsSuccess() {
+    // Arrange
+    when(kafkaTemplate.send(anyString(), isNull(), any()))
+        .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // Act
+    sender.send("block-card-topic", EVENT).join();
+
+    // Assert
+    assertEquals(1, meterRegistry.get("bank.kafka.send").tag("result", "success").timer().count());
+    assertEquals(0, spool.sizeBytes());
+  }
+
+  @Test
+  @DisplayName("Ошибка брокера отправляет запись в спул, повтор дочищает его")
+  void send_Failed_SpooledAndResent() throws Exception {
+    // Arrange
+    when(kafkaTemplate.send(anyString(), isNull(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker down")))
+        .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // Act
+    sender.send("block-card-topic", EVENT).exceptionally(ex -> null).join();
+    awaitSpooled();
+    int resent = sender.resendSpooled();
+
+    // Assert
+    assertEquals(1, meterRegistry.get("bank.kafka.send").tag("result", "failure").timer().count());
+    assertEquals(1, resent);
+    assertEquals(0, spool.sizeBytes());
+    assertEquals(1, meterRegistry.get("bank.kafka.spool.resent").counter().count());
+  }
+
+  @Test
+  @DisplayName("Синхронная ошибка send тоже уходит в спул")
+  void send_ThrowsSynchronously_Spooled() throws Exception {
+    // Arrange
+    when(kafkaTemplate.send(anyString(), isNull(), any())).thenThrow(new TimeoutException("max.block.ms"));
+
+    // Act
+    sender.send("block-card-topic", EVENT).exceptionally(ex -> null).join();
+    awaitSpooled();
+
+    // Assert
+    assertTrue(spool.sizeBytes() > 0);
+    assertEquals(1, meterRegistry.get("bank.kafka.spool.appended").counter().count());
+  }
+
+  private void awaitSpooled() throws InterruptedException {
+    for (int i = 0; i < 100 && spool.sizeBytes() == 0; i++) {
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.common.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.common.auth.event.RequestBlockCardEvent;
+import com.example.common.auth.event.TransferCompletedEvent;
+import com.example.common.auth.event.UserCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Тесты для BinaryEventSerializer и BinaryEventDeserializer
+ */
+@DisplayName("Тесты бинарной сериализации событий")
+class BinaryEventSerializerTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000);
+  private static final UUID EVENT_ID = UUID.fromString("8f14e45f-ceea-4672-9b4a-0a1b2c3d4e5f");
+
+  private final BinaryEventSerializer serializer = new BinaryEventSerializer();
+  private final BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+
+  @Test
+  @DisplayName("События всех схем проходят круг без потерь")
+  void roundTrip_AllRegisteredEvents() {
+    // Arrange
+    UserCreatedEvent user = new UserCreatedEvent("ivanov", "ivanov@example.com", "Иван", "Иванов", NOW);
+    RequestBlockCardEvent block = new RequestBlockCardEvent(42L, 7L, NOW);
+    TransferCompletedEvent transfer = new TransferCompletedEvent(1001L, 42L, 43L, 7L,
+        new BigDecimal("1500.50"), NOW);
+
+    // Act & Assert
+    assertEquals(user, roundTrip(user));
+    assertEquals(block, roundTrip(block));
+    assertEquals(transfer, roundTrip(transfer));
+  }
+
+  @Test
+  @DisplayName("Пустые поля и большие суммы сохраняются")
+  void roundTrip_NullsAndLargeAmount() {
+    // Arrange
+    UserCreatedEvent user = new UserCreatedEvent("ivanov", null, "", null, null);
+    TransferCompletedEvent transfer = new TransferCompletedEvent(null, -1L, Long.MAX_VALUE, null,
+        new BigDecimal("123456789012345678901234567890.99"), NOW);
+
+    // Act & Assert
+    assertEquals(user, roundTrip(user));
+    assertEquals(transfer, roundTrip(transfer));
+  }
+
+  @Test
+  @DisplayName("Бинарная запись без заголовков и короче JSON")
+  void serialize_CompactWithoutHeaders() throws Exception {
+    // Arrange
+    RecordHeaders headers = new RecordHeaders();
+    RequestBlockCardEvent event = new RequestBlockCardEvent(42L, 7L, NOW);
+
+    // Act
+    byte[] binary = serializer.serialize("block-card-topic", headers, event);
+
+    // Assert
+    assertEquals(0, headers.toArray().length);
+    byte[] json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsBytes(event);
+    assertTrue(binary.length * 3 < json.length, binary.length + " vs " + json.length);
+  }
+
+  @Test
+  @DisplayName("JSON-запись, отправленная до перехода, читается по заголовку типа")
+  void deserialize_LegacyJsonWithTypeHeader() {
+    // Arrange
+    RecordHeaders headers = new RecordHeaders();
+    headers.add("__TypeId__", RequestBlockCardEvent.class.getName().getBytes(StandardCharsets.UTF_8));
+    byte[] json = "{\"cardId\":42,\"ownerId\":7,\"requestedAt\":\"2025-03-01 10:15:30\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // Act
+    Object event = deserializer.deserialize("block-card-topic", headers, json);
+
+    // Assert
+    assertEquals(new RequestBlockCardEvent(42L, 7L, LocalDateTime.of(2025, 3, 1, 10, 15, 30), null), event);
+  }
+
+  @Test
+  @DisplayName("JSON с незарегистрированным типом в заголовке не читается")
+  void deserialize_JsonWithForeignType_Throws() {
+    // Arrange
+    RecordHeaders headers = new RecordHeaders();
+    headers.add("__TypeId__", "java.lang.ProcessBuilder".getBytes(StandardCharsets.UTF_8));
+
+    // Act & Assert
+    assertThrows(SerializationException.class,
+        () -> deserializer.deserialize("topic", headers, "{}".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  @DisplayName("Запись более новой версии схемы читается, лишние поля пропускаются")
+  void deserialize_NewerVersion_IgnoresTrailingFields() {
+    // Arrange: версия 3 с дописанным в конец полем
+    BinaryWriter writer = new BinaryWriter(48)
+        .writeByte(EventCodecs.MAGIC)
+        .writeVarInt(2)
+        .writeVarInt(3)
+        .writeNullableLong(42L)
+        .writeNullableLong(7L)
+        .writeDateTime(NOW)
+        .writeUuid(EVENT_ID)
+        .writeString("fraud");
+
+    // Act
+    Object event = deserializer.deserialize("block-card-topic", writer.toByteArray());
+
+    // Assert
+    assertEquals(new RequestBlockCardEvent(42L, 7L, NOW, EVENT_ID), event);
+  }
+
+  @Test
+  @DisplayName("Запись версии 1 читается без eventId")
+  void deserialize_Version1_WithoutEventId() {
+    // Arrange
+    BinaryWriter writer = new BinaryWriter(32)
+        .writeByte(EventCodecs.MAGIC)
+        .writeVarInt(2)
+        .writeVarInt(1)
+        .writeNullableLong(42L)
+        .writeNullableLong(7L)
+        .writeDateTime(NOW);
+
+    // Act
+    Object event = deserializer.deserialize("block-card-topic", writer.toByteArray());
+
+    // Assert
+    assertEquals(new RequestBlockCardEvent(42L, 7L, NOW, null), event);
+  }
+
+  @Test
+  @DisplayName("Обрезанная запись - SerializationException")
+  void deserialize_Truncated_Throws() {
+    // Arrange
+    byte[] binary = serializer.serialize("block-card-topic", new RequestBlockCardEvent(42L, 7L, NOW));
+
+    // Act & Assert
+    assertThrows(SerializationException.class,
+        () -> deserializer.deserialize("block-card-topic", Arrays.copyOf(binary, binary.length - 2)));
+  }
+
+  @Test
+  @DisplayName("Байты нечитаемой записи передаются без изменений")
+  void serialize_RawBytes_PassedThrough() {
+    // Arrange
+    byte[] raw = { 1, 2, 3 };
+    RecordHeaders headers = new RecordHeaders();
+
+    // Act & Assert
+    assertSame(raw, serializer.serialize("topic-dlt", headers, raw));
+    assertEquals(0, headers.toArray().length);
+  }
+
+  @Test
+  @DisplayName("null остается null")
+  void nullValue_PassesThrough() {
+    assertNull(serializer.serialize("topic", null));
+    assertNull(deserializer.deserialize("topic", null));
+  }
+
+  private Object roundTrip(Object event) {
+    RecordHeaders headers = new RecordHeaders();
+    return deserializer.deserialize("topic", headers, serializer.serialize("topic", headers, event));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приложение, запущенное в отдельной JVM с собственным classpath
+ */
+public class AppProcess implements AutoCloseable {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+  private final String name;
+  private final Process process;
+  private final URI baseUri;
+
+  private AppProcess(String name, Process process, URI baseUri) {
+    this.name = name;
+    this.process = process;
+    this.baseUri = baseUri;
+  }
+
+  public static AppProcess start(String name, String classpath, String mainClass, int port, List<String> arguments,
+      Path logFile) throws IOException {
+    String java = ProcessHandle.current().info().command().orElse("java");
+
+    List<String> command = new ArrayList<>();
+    command.add(java);
+    command.add("-cp");
+    command.add(classpath);
+    command.add(mainClass);
+    command.add("--server.port=" + port);
+    command.addAll(arguments);
+
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(logFile.toFile())
+        .start();
+    return new AppProcess(name, process, URI.create("http://localhost:" + port));
+  }
+
+  /**
+   * Ждет, пока приложение начнет отвечать на HTTP. Любой ответ (в том числе
+   * редирект на логин) означает, что контекст Spring поднят.
+   */
+  public void awaitReady(HttpClient httpClient) throws InterruptedException {
+    Instant deadline = Instant.now().plus(STARTUP_TIMEOUT);
+    HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/")).GET().build();
+    while (Instant.now().isBefore(deadline)) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException(name + " завершился с кодом " + process.exitValue());
+      }
+      try {
+        httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return;
+      } catch (IOException e) {
+        Thread.sleep(500);
+      }
+    }
+    throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT);
+  }
+
+  public URI baseUri() {
+    return baseUri;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    process.destroy();
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+    }
+  }
+}
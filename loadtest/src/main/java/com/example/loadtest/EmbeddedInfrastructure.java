@@ -0,0 +1,55 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Встроенные Kafka и PostgreSQL вместо контейнеров из compose.yaml
+ */
+public class EmbeddedInfrastructure implements AutoCloseable {
+
+  public static final String AUTHORIZATION_DB = "authorization_db";
+  public static final String BANKCARDS_DB = "bankcards_db";
+
+  private final EmbeddedPostgres postgres;
+  private final EmbeddedKafkaKraftBroker kafka;
+
+  private EmbeddedInfrastructure(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka) {
+    this.postgres = postgres;
+    this.kafka = kafka;
+  }
+
+  public static EmbeddedInfrastructure start() throws IOException, SQLException {
+    EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+    try (Connection connection = postgres.getPostgresDatabase().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE DATABASE " + AUTHORIZATION_DB);
+      statement.execute("CREATE DATABASE " + BANKCARDS_DB);
+    }
+
+    EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, "user-registration-topic",
+        "block-card-topic", "transfer-events-topic", "card-change-topic");
+    kafka.afterPropertiesSet();
+    return new EmbeddedInfrastructure(postgres, kafka);
+  }
+
+  public String jdbcUrl(String database) {
+    return "jdbc:postgresql://localhost:" + postgres.getPort() + "/" + database;
+  }
+
+  public String kafkaBootstrapServers() {
+    return kafka.getBrokersAsString();
+  }
+
+  @Override
+  public void close() throws IOException {
+    kafka.destroy();
+    postgres.close();
+  }
+}
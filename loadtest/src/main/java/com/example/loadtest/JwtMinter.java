@@ -0,0 +1,81 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Выпускает access token локально и публикует JWKS, чтобы bankcards проверял
+ * подпись без обращения к серверу авторизации
+ */
+public class JwtMinter implements AutoCloseable {
+
+  private final RSAKey rsaKey;
+  private final String issuer;
+  private final HttpServer jwksServer;
+
+  private JwtMinter(RSAKey rsaKey, String issuer, HttpServer jwksServer) {
+    this.rsaKey = rsaKey;
+    this.issuer = issuer;
+    this.jwksServer = jwksServer;
+  }
+
+  public static JwtMinter start(String issuer) throws JOSEException, IOException {
+    RSAKey rsaKey = new RSAKeyGenerator(2048)
+        .keyID(UUID.randomUUID().toString())
+        .generate();
+    byte[] jwks = new JWKSet(rsaKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/jwks", exchange -> {
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, jwks.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(jwks);
+      }
+    });
+    server.start();
+    return new JwtMinter(rsaKey, issuer, server);
+  }
+
+  public String jwkSetUri() {
+    return "http://localhost:" + jwksServer.getAddress().getPort() + "/jwks";
+  }
+
+  public String mint(String username, List<String> roles, Duration ttl) throws JOSEException {
+    Instant now = Instant.now();
+    JWTClaimsSet claims = new JWTClaimsSet.Builder()
+        .issuer(issuer)
+        .subject(username)
+        .claim("roles", roles)
+        .issueTime(Date.from(now))
+        .expirationTime(Date.from(now.plus(ttl)))
+        .build();
+    SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+        claims);
+    jwt.sign(new RSASSASigner(rsaKey));
+    return jwt.serialize();
+  }
+
+  @Override
+  public void close() {
+    jwksServer.stop(0);
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Гистограммы задержек по типам запросов. Значения хранятся в микросекундах.
+ */
+public class LatencyReport {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+  public LatencyReport() {
+    for (Operation operation : Operation.values()) {
+      histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+      errors.put(operation, new LongAdder());
+    }
+  }
+
+  public void record(Operation operation, long durationNanos, boolean success) {
+    histograms.get(operation).recordValue(
+        Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), HIGHEST_TRACKABLE_MICROS));
+    if (!success) {
+      errors.get(operation).increment();
+    }
+  }
+
+  /**
+   * Пишет сводку, распределение перцентилей (.hgrm) и лог гистограмм (.hlog)
+   * для последующего сравнения прогонов офлайн
+   */
+  public void write(Path directory, Duration measured, String description) throws IOException {
+    Files.createDirectories(directory);
+
+    try (PrintStream log = new PrintStream(directory.resolve("histograms.hlog").toFile())) {
+      var writer = new HistogramLogWriter(log);
+      writer.outputComment(description);
+      writer.outputLogFormatVersion();
+      writer.outputLegend();
+      histograms.forEach((operation, histogram) -> {
+        histogram.setEndTimeStamp(System.currentTimeMillis());
+        histogram.setTag(operation.name());
+        writer.outputIntervalHistogram(histogram);
+      });
+    }
+
+    for (var entry : histograms.entrySet()) {
+      writePercentiles(directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm"), entry.getValue());
+    }
+
+    try (PrintStream summary = new PrintStream(directory.resolve("summary.txt").toFile())) {
+      summary.println(description);
+      summary.printf("%-13s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+          "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+      histograms.forEach((operation, histogram) -> summary.printf(
+          "%-13s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+          operation.name().toLowerCase(),
+          histogram.getTotalCount(),
+          errors.get(operation).sum(),
+          histogram.getTotalCount() / (double) measured.toSeconds(),
+          millis(histogram.getValueAtPercentile(50)),
+          millis(histogram.getValueAtPercentile(90)),
+          millis(histogram.getValueAtPercentile(99)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue())));
+    }
+  }
+
+  public void reset() {
+    long now = System.currentTimeMillis();
+    histograms.values().forEach(histogram -> {
+      histogram.reset();
+      histogram.setStartTimeStamp(now);
+    });
+    errors.values().forEach(LongAdder::reset);
+  }
+
+  private static void writePercentiles(Path file, Histogram histogram) throws FileNotFoundException {
+    try (PrintStream out = new PrintStream(file.toFile())) {
+      histogram.outputPercentileDistribution(out, 1000.0);
+    }
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный прогон всей системы локально: поднимает встроенные Kafka и
+ * PostgreSQL, запускает authorizationserver и bankcards, выпускает JWT без
+ * сервера авторизации и гоняет смешанный профиль запросов. Результат —
+ * гистограммы задержек HdrHistogram в build/loadtest/&lt;timestamp&gt;.
+ */
+public class LoadTestHarness {
+
+  /** Издатель токенов, который bankcards ожидает в claim iss */
+  private static final String ISSUER = "http://auth-server:9000";
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    Path runDirectory = options.outputDirectory()
+        .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+    Files.createDirectories(runDirectory);
+
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    log("Запуск встроенных Kafka и PostgreSQL");
+    try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start();
+        JwtMinter jwtMinter = JwtMinter.start(ISSUER)) {
+
+      int authorizationServerPort = freePort();
+      List<String> common = List.of(
+          "--spring.profiles.active=prod",
+          "--spring.docker.compose.enabled=false",
+          "--spring.kafka.bootstrap-servers=" + infrastructure.kafkaBootstrapServers(),
+          "--spring.datasource.username=postgres",
+          "--spring.datasource.password=",
+          "--spring.threads.virtual.enabled=" + options.virtualThreads());
+
+      log("Запуск authorizationserver");
+      try (AppProcess authorizationServer = AppProcess.start("authorizationserver",
+          options.authorizationServerClasspath(),
+          "com.example.authorizationserver.AuthorizationServerApplication",
+          authorizationServerPort,
+          concat(common,
+              "--spring.datasource.url=" + infrastructure.jdbcUrl(EmbeddedInfrastructure.AUTHORIZATION_DB),
+              "--logging.file.name=" + runDirectory.resolve("authorizationserver-app.log")),
+          runDirectory.resolve("authorizationserver.log"))) {
+        authorizationServer.awaitReady(httpClient);
+
+        String authorizationServerUrl = authorizationServer.baseUri().toString();
+        log("Запуск bankcards");
+        try (AppProcess bankcards = AppProcess.start("bankcards",
+            options.bankcardsClasspath(),
+            "com.example.bankcards.BankCardsApplication",
+            freePort(),
+            concat(common,
+                "--spring.datasource.url=" + infrastructure.jdbcUrl(EmbeddedInfrastructure.BANKCARDS_DB),
+                "--logging.file.name=" + runDirectory.resolve("bankcards-app.log"),
+                // Ключи проверки подписи берет JwkSetPrefetcher, см. bank.jwks
+                "--bank.jwks.jwk-set-uri=" + jwtMinter.jwkSetUri(),
+                // Регистрация клиента без discovery: иначе старт ждет ответа auth-server:9000
+                "--spring.security.oauth2.client.registration.oidc-client.provider=loadtest",
+                "--spring.security.oauth2.client.provider.loadtest.authorization-uri="
+                    + authorizationServerUrl + "/oauth2/authorize",
+                "--spring.security.oauth2.client.provider.loadtest.token-uri="
+                    + authorizationServerUrl + "/oauth2/token",
+                "--spring.security.oauth2.client.provider.loadtest.jwk-set-uri="
+                    + authorizationServerUrl + "/oauth2/jwks",
+                "--spring.security.oauth2.client.provider.loadtest.user-info-uri="
+                    + authorizationServerUrl + "/userinfo",
+                "--spring.security.oauth2.client.provider.loadtest.user-name-attribute=sub"),
+            runDirectory.resolve("bankcards.log"))) {
+          bankcards.awaitReady(httpClient);
+
+          String accessToken = jwtMinter.mint("user1", List.of("USER"), Duration.ofHours(2));
+          TrafficDriver driver = new TrafficDriver(httpClient, bankcards.baseUri(), authorizationServer.baseUri(),
+              accessToken, options.mix());
+          LatencyReport report = new LatencyReport();
+
+          log("Прогрев: " + options.warmup().toSeconds() + " с, пользователей: " + options.users());
+          driver.run(options.users(), Instant.now().plus(options.warmup()), report);
+          report.reset();
+
+          log("Измерение: " + options.duration().toSeconds() + " с");
+          driver.run(options.users(), Instant.now().plus(options.duration()), report);
+
+          String description = "users=%d duration=%ds virtualThreads=%s mix=%s".formatted(options.users(),
+              options.duration().toSeconds(), options.virtualThreads(), options.mix());
+          report.write(runDirectory, options.duration(), description);
+          log("Отчет: " + runDirectory.toAbsolutePath());
+          Files.readAllLines(runDirectory.resolve("summary.txt")).forEach(System.out::println);
+        }
+      }
+    }
+  }
+
+  private static List<String> concat(List<String> common, String... arguments) {
+    return Stream.concat(common.stream(), Arrays.stream(arguments)).toList();
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static void log(String message) {
+    System.out.println("[loadtest] " + message);
+  }
+}
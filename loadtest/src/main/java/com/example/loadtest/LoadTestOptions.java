@@ -0,0 +1,61 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона, передаются аргументами вида --key=value
+ */
+public record LoadTestOptions(
+    String bankcardsClasspath,
+    String authorizationServerClasspath,
+    int users,
+    Duration warmup,
+    Duration duration,
+    boolean virtualThreads,
+    Map<Operation, Integer> mix,
+    Path outputDirectory) {
+
+  private static final String DEFAULT_MIX = "transfer:20,balance:40,list:35,registration:5";
+
+  public static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Неверный аргумент: " + arg + " (ожидается --key=value)");
+      }
+      int separator = arg.indexOf('=');
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+
+    return new LoadTestOptions(
+        required(values, "bankcards-classpath"),
+        required(values, "authorization-server-classpath"),
+        Integer.parseInt(values.getOrDefault("users", "100")),
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+        Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+        parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+        Path.of(values.getOrDefault("output", "build/loadtest")));
+  }
+
+  private static String required(Map<String, String> values, String key) {
+    String value = values.get(key);
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException("Не задан обязательный аргумент --" + key);
+    }
+    return value;
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.loadtest;
+
+/**
+ * Типы запросов, из которых складывается нагрузочный профиль
+ */
+public enum Operation {
+  TRANSFER,
+  BALANCE,
+  LIST,
+  REGISTRATION
+}
@@ -0,0 +1,122 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замкнутая модель нагрузки: каждый виртуальный пользователь выполняет
+ * запросы подряд, выбирая тип запроса по весам профиля
+ */
+public class TrafficDriver {
+
+  /** Карты пользователя user1 из 003_insert_default_data.yaml */
+  private static final long FIRST_CARD_ID = 2L;
+  private static final long SECOND_CARD_ID = 3L;
+
+  private final HttpClient httpClient;
+  private final URI bankcardsUri;
+  private final URI authorizationServerUri;
+  private final String accessToken;
+  private final List<Operation> weightedOperations = new ArrayList<>();
+  private final String runId = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong registrations = new AtomicLong();
+
+  public TrafficDriver(HttpClient httpClient, URI bankcardsUri, URI authorizationServerUri, String accessToken,
+      Map<Operation, Integer> mix) {
+    this.httpClient = httpClient;
+    this.bankcardsUri = bankcardsUri;
+    this.authorizationServerUri = authorizationServerUri;
+    this.accessToken = accessToken;
+    mix.forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        weightedOperations.add(operation);
+      }
+    });
+    if (weightedOperations.isEmpty()) {
+      throw new IllegalArgumentException("Профиль нагрузки пуст");
+    }
+  }
+
+  /**
+   * Запускает users виртуальных пользователей до наступления deadline
+   */
+  public void run(int users, Instant deadline, LatencyReport report) throws InterruptedException {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < users; i++) {
+        executor.submit(() -> {
+          while (Instant.now().isBefore(deadline)) {
+            Operation operation = weightedOperations.get(
+                ThreadLocalRandom.current().nextInt(weightedOperations.size()));
+            long start = System.nanoTime();
+            boolean success = execute(operation);
+            report.record(operation, System.nanoTime() - start, success);
+          }
+          return null;
+        });
+      }
+    }
+  }
+
+  private boolean execute(Operation operation) {
+    try {
+      HttpResponse<Void> response = httpClient.send(request(operation), HttpResponse.BodyHandlers.discarding());
+      return response.statusCode() < 400;
+    } catch (IOException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private HttpRequest request(Operation operation) {
+    return switch (operation) {
+      case TRANSFER -> {
+        boolean forward = ThreadLocalRandom.current().nextBoolean();
+        String body = """
+            {"fromCardId": %d, "toCardId": %d, "amount": 0.01}
+            """.formatted(forward ? FIRST_CARD_ID : SECOND_CARD_ID, forward ? SECOND_CARD_ID : FIRST_CARD_ID);
+        yield authorized(bankcardsUri.resolve("/api/cardholder/transfer"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+      }
+      case BALANCE -> authorized(bankcardsUri.resolve("/api/cardholder/cards/" + FIRST_CARD_ID + "/balance"))
+          .GET()
+          .build();
+      case LIST -> authorized(bankcardsUri.resolve("/api/cardholder/cards?page=0&size=20"))
+          .GET()
+          .build();
+      case REGISTRATION -> {
+        String username = "lt" + runId + "x" + registrations.incrementAndGet();
+        String body = """
+            {"username": "%s", "email": "%s@loadtest.local", "firstName": "Load",
+             "lastName": "Tester", "password": "password"}
+            """.formatted(username, username);
+        yield HttpRequest.newBuilder(authorizationServerUri.resolve("/auth/register"))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+      }
+    };
+  }
+
+  private HttpRequest.Builder authorized(URI uri) {
+    return HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofSeconds(30))
+        .header("Authorization", "Bearer " + accessToken);
+  }
+}